@@ -0,0 +1,34 @@
+package com.ufcg.psoft.mercadofacil;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Executa os benchmarks uma vez para cada quantidade de threads e grava um
+ * JSON por execucao, para comparar resultados entre versoes.
+ *
+ * Propriedades: jmh.include (regex), jmh.threads (ex.: 1,4,16), jmh.saida (diretorio).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("jmh.include", ".*");
+        String[] threads = System.getProperty("jmh.threads", "1").split(",");
+        File saida = new File(System.getProperty("jmh.saida", "build/reports/jmh"));
+        saida.mkdirs();
+
+        for (String t : threads) {
+            int quantidade = Integer.parseInt(t.trim());
+            new Runner(new OptionsBuilder()
+                    .include(include)
+                    .threads(quantidade)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(saida, "resultados-t" + quantidade + ".json").getPath())
+                    .build()).run();
+        }
+    }
+}
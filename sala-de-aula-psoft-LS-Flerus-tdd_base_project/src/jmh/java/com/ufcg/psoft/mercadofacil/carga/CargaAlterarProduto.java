@@ -0,0 +1,173 @@
+package com.ufcg.psoft.mercadofacil.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.MercadoFacilApplication;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga de {@code PUT /v1/produtos/{id}} com o repositorio atrasado
+ * por uma latencia simulada, com e sem threads virtuais no Tomcat.
+ *
+ * Sobe a aplicacao numa porta aleatoria para cada modo, dispara requisicoes de
+ * {@code carga.clientes} clientes concorrentes e imprime vazao e percentis de
+ * latencia. Precisa de Java 21 (tarefa Gradle {@code cargaAlterarProduto}).
+ *
+ * Propriedades: carga.clientes (400), carga.segundos (20), carga.aquecimento (5),
+ * carga.latencia (50ms), carga.produtos (1000), carga.modos (plataforma,virtual),
+ * carga.persistencia (volatil; com journal cada modo grava num diretorio temporario).
+ */
+public class CargaAlterarProduto {
+
+    public static void main(String[] args) throws Exception {
+        int clientes = Integer.getInteger("carga.clientes", 400);
+        int segundos = Integer.getInteger("carga.segundos", 20);
+        int aquecimento = Integer.getInteger("carga.aquecimento", 5);
+        int produtos = Integer.getInteger("carga.produtos", 1000);
+        String latencia = System.getProperty("carga.latencia", "50ms");
+        String[] modos = System.getProperty("carga.modos", "plataforma,virtual").split(",");
+        String persistencia = System.getProperty("carga.persistencia", "volatil");
+
+        List<String> linhas = new ArrayList<>();
+        for (String modo : modos) {
+            boolean virtuais = modo.trim().equals("virtual");
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MercadoFacilApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "mercadofacil.web.threads-virtuais=" + virtuais,
+                            "mercadofacil.simulacao.latencia-repositorio=" + latencia,
+                            "mercadofacil.persistencia.modo=" + persistencia,
+                            "mercadofacil.persistencia.diretorio=" + Files.createTempDirectory("carga-journal"))
+                    .run()) {
+                popular(contexto.getBean(ProdutoVolatilRepository.class), produtos);
+                int porta = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+                executar(porta, clientes, aquecimento, produtos);
+                Resultado resultado = executar(porta, clientes, segundos, produtos);
+                linhas.add(String.format("%-10s %10.1f %10.1f %10.1f %10.1f %8d",
+                        modo.trim(), resultado.vazao(), resultado.percentil(0.50), resultado.percentil(0.99),
+                        resultado.percentil(0.999), resultado.erros));
+            }
+        }
+        System.out.printf("%nPUT /v1/produtos/{id}: %d clientes, latencia do repositorio %s, persistencia %s, %d s%n",
+                clientes, latencia, persistencia, segundos);
+        System.out.printf("%-10s %10s %10s %10s %10s %8s%n", "modo", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "erros");
+        linhas.forEach(System.out::println);
+    }
+
+    static void popular(ProdutoVolatilRepository repository, int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            repository.save(produto(i, "Produto " + i));
+        }
+    }
+
+    static Produto produto(int i, String nome) {
+        String semVerificador = String.format("78991375%04d", i);
+        int soma = 0;
+        for (int j = 0; j < semVerificador.length(); j++) {
+            soma += (semVerificador.charAt(j) - '0') * ((j & 1) == 0 ? 1 : 3);
+        }
+        return Produto.builder()
+                .id((long) i)
+                .nome(nome)
+                .codigoBarra(semVerificador + (10 - soma % 10) % 10)
+                .fabricante("Empresa")
+                .preco(10.00 + i)
+                .build();
+    }
+
+    static Resultado executar(int porta, int clientes, int segundos, int produtos) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String[] corpos = new String[produtos];
+        for (int i = 0; i < produtos; i++) {
+            corpos[i] = objectMapper.writeValueAsString(produto(i, "Produto Alterado " + i));
+        }
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+        long[][] latencias = new long[clientes][];
+        int[] quantidades = new int[clientes];
+        AtomicLong erros = new AtomicLong();
+        CountDownLatch terminou = new CountDownLatch(clientes);
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            int cliente = c;
+            Thread thread = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(cliente);
+                long[] medidas = new long[1024];
+                int n = 0;
+                try {
+                    while (System.nanoTime() < fim) {
+                        int id = random.nextInt(produtos);
+                        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/v1/produtos/" + id))
+                                .header("Content-Type", "application/json")
+                                .PUT(HttpRequest.BodyPublishers.ofString(corpos[id]))
+                                .build();
+                        long antes = System.nanoTime();
+                        try {
+                            if (http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        if (n == medidas.length) {
+                            medidas = Arrays.copyOf(medidas, n * 2);
+                        }
+                        medidas[n++] = System.nanoTime() - antes;
+                    }
+                } finally {
+                    latencias[cliente] = medidas;
+                    quantidades[cliente] = n;
+                    terminou.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        terminou.await();
+        return new Resultado(latencias, quantidades, System.nanoTime() - inicio, erros.get());
+    }
+
+    static class Resultado {
+        final long[] latencias;
+        final long duracaoNanos;
+        final long erros;
+
+        Resultado(long[][] porCliente, int[] quantidades, long duracaoNanos, long erros) {
+            int total = Arrays.stream(quantidades).sum();
+            latencias = new long[total];
+            int posicao = 0;
+            for (int i = 0; i < porCliente.length; i++) {
+                System.arraycopy(porCliente[i], 0, latencias, posicao, quantidades[i]);
+                posicao += quantidades[i];
+            }
+            Arrays.sort(latencias);
+            this.duracaoNanos = duracaoNanos;
+            this.erros = erros;
+        }
+
+        double vazao() {
+            return latencias.length * 1e9 / duracaoNanos;
+        }
+
+        double percentil(double p) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            return latencias[Math.min(latencias.length - 1, (int) (latencias.length * p))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ufcg.psoft.mercadofacil.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serializacao de listas de Produto com um ObjectMapper configurado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoJsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int tamanho;
+
+    ObjectWriter writer;
+    ObjectReader reader;
+    List<Produto> produtos;
+    byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                .build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Produto.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Produto.class));
+        produtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            produtos.add(Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra("7899137500100")
+                    .fabricante("Empresa " + (i % 100))
+                    .preco(10.00 + i)
+                    .build());
+        }
+        json = writer.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return writer.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public List<Produto> desserializar() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.validator.CpfValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de clientes por CPF, do texto digitado ao cliente, sobre ate 1M de
+ * clientes. {@link #findByCpfVarrendoFindAll} reproduz a busca sem o indice.
+ * Rode com {@code -prof gc} para ver que so a copia devolvida aloca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClienteRepositoryBenchmark {
+
+    private static final long PRIMEIRO_CPF = 10_000_000_000L;
+    private static final long PASSO_CPF = 7_919;
+
+    @Param({"10000", "1000000"})
+    int tamanho;
+
+    ClienteVolatilRepository repository;
+    String[] cpfsDigitados;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        repository = new ClienteVolatilRepository();
+        for (int i = 0; i < tamanho; i++) {
+            repository.save(Cliente.builder()
+                    .id((long) i + 1)
+                    .cpf(PRIMEIRO_CPF + i * PASSO_CPF)
+                    .nome("Cliente " + i)
+                    .idade(30)
+                    .build());
+        }
+        cpfsDigitados = new String[1024];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < cpfsDigitados.length; i++) {
+            String cpf = Long.toString(PRIMEIRO_CPF + random.nextInt(tamanho) * PASSO_CPF);
+            cpfsDigitados[i] = cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+        }
+    }
+
+    @Benchmark
+    public Cliente findByCpf(Sorteio sorteio) {
+        return repository.findByCpf(CpfValidator.converter(cpfsDigitados[sorteio.random.nextInt(cpfsDigitados.length)]));
+    }
+
+    @Benchmark
+    public Cliente findByCpfVarrendoFindAll(Sorteio sorteio) {
+        long cpf = CpfValidator.converter(cpfsDigitados[sorteio.random.nextInt(cpfsDigitados.length)]);
+        for (Cliente cliente : repository.findAll()) {
+            if (cliente.getCpf() == cpf) {
+                return cliente;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Operacoes do repositorio de lotes sobre ate 1M de lotes.
+ * {@link #findByProdutoVarrendoFindAll} reproduz a busca por produto sem o indice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoteRepositoryBenchmark {
+
+    @Param({"10000", "1000000"})
+    int tamanho;
+
+    @Param({"10000"})
+    int produtosDistintos;
+
+    LoteVolatilRepository repository;
+    Produto[] produtos;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        repository = new LoteVolatilRepository();
+        produtos = new Produto[produtosDistintos];
+        for (int i = 0; i < produtosDistintos; i++) {
+            produtos[i] = Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra("7899137500100")
+                    .fabricante("Empresa")
+                    .preco(10.00)
+                    .build();
+        }
+        for (int i = 0; i < tamanho; i++) {
+            repository.save(Lote.builder()
+                    .id((long) i)
+                    .produtoId(produtos[i % produtosDistintos].getId())
+                    .numeroDeItens(100)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Lote find(Sorteio sorteio) {
+        return repository.find((long) sorteio.random.nextInt(tamanho));
+    }
+
+    @Benchmark
+    public List<Lote> findByProduto(Sorteio sorteio) {
+        return repository.findByProduto((long) sorteio.random.nextInt(produtosDistintos));
+    }
+
+    @Benchmark
+    public List<Lote> findByProdutoVarrendoFindAll(Sorteio sorteio) {
+        Long produtoId = (long) sorteio.random.nextInt(produtosDistintos);
+        return repository.findAll().stream()
+                .filter(lote -> produtoId.equals(lote.getProdutoId()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Lote updateTrocandoProduto(Sorteio sorteio) {
+        int id = sorteio.random.nextInt(tamanho);
+        return repository.update(Lote.builder()
+                .id((long) id)
+                .produtoId(produtos[sorteio.random.nextInt(produtosDistintos)].getId())
+                .numeroDeItens(100)
+                .build());
+    }
+}
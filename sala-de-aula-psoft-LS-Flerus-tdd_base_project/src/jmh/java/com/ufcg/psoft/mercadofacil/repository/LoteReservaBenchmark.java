@@ -0,0 +1,55 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazao de {@link LoteVolatilRepository#reservar} com varias threads: todas no
+ * mesmo lote ({@link #reservarLoteQuente}) ou espalhadas por {@code lotes}
+ * lotes ({@link #reservarLotesEspalhados}). O saldo e recarregado a cada
+ * iteracao, entao nenhuma reserva e recusada durante a medicao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LoteReservaBenchmark {
+
+    @Param({"1024"})
+    int lotes;
+
+    LoteVolatilRepository repository;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        repository = new LoteVolatilRepository();
+        for (long i = 0; i < lotes; i++) {
+            repository.save(Lote.builder()
+                    .id(i)
+                    .produtoId(1L)
+                    .numeroDeItens(Integer.MAX_VALUE)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Lote reservarLoteQuente() {
+        return repository.reservar(0L, 1);
+    }
+
+    @Benchmark
+    public Lote reservarLotesEspalhados(Sorteio sorteio) {
+        return repository.reservar((long) sorteio.random.nextInt(lotes), 1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Pausas de GC com o catalogo no heap ({@link ProdutoVolatilRepository}) e
+ * fora dele ({@link ProdutoOffHeapRepository}).
+ *
+ * Cada armazenamento roda numa JVM propria: carrega {@code gc.produtos}
+ * produtos e, por {@code gc.segundos}, faz find/update aleatorios como o
+ * {@code PUT /v1/produtos/{id}}, com o lixo de requisicao que isso gera. As
+ * pausas vem das notificacoes dos coletores. Tarefa Gradle
+ * {@code gcProdutoArmazenamento}; propriedades gc.produtos (2000000),
+ * gc.segundos (30), gc.heap (2g), gc.armazenamentos (heap,offheap).
+ */
+public class ProdutoArmazenamentoGc {
+
+    public static void main(String[] args) throws Exception {
+        String armazenamento = System.getProperty("gc.armazenamento");
+        if (armazenamento == null) {
+            for (String modo : System.getProperty("gc.armazenamentos", "heap,offheap").split(",")) {
+                executarEmOutraJvm(modo);
+            }
+            return;
+        }
+        medir(armazenamento);
+    }
+
+    static void executarEmOutraJvm(String armazenamento) throws Exception {
+        List<String> comando = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms" + System.getProperty("gc.heap", "2g"),
+                "-Xmx" + System.getProperty("gc.heap", "2g"),
+                "-Dgc.armazenamento=" + armazenamento));
+        for (String propriedade : List.of("gc.produtos", "gc.segundos")) {
+            if (System.getProperty(propriedade) != null) {
+                comando.add("-D" + propriedade + "=" + System.getProperty(propriedade));
+            }
+        }
+        comando.addAll(List.of("-cp", System.getProperty("java.class.path"), ProdutoArmazenamentoGc.class.getName()));
+        int saida = new ProcessBuilder(comando).inheritIO().start().waitFor();
+        if (saida != 0) {
+            throw new IllegalStateException("execucao com " + armazenamento + " terminou com " + saida);
+        }
+    }
+
+    static void medir(String armazenamento) throws InterruptedException {
+        int quantidade = Integer.getInteger("gc.produtos", 2_000_000);
+        int segundos = Integer.getInteger("gc.segundos", 30);
+        ProdutoRepository<Produto, Long> repository = "offheap".equals(armazenamento)
+                ? new ProdutoOffHeapRepository()
+                : new ProdutoVolatilRepository();
+        for (int i = 0; i < quantidade; i++) {
+            repository.save(produto(i, "Produto " + i));
+        }
+        System.gc();
+        long heapVivo = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        List<Long> pausas = Collections.synchronizedList(new ArrayList<>());
+        for (GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) coletor).addNotificationListener((notificacao, contexto) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notificacao.getType())) {
+                    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notificacao.getUserData());
+                    // G1 tambem notifica ciclos concorrentes, que nao param a aplicacao
+                    if (!info.getGcName().contains("Concurrent")) {
+                        pausas.add(info.getGcInfo().getDuration());
+                    }
+                }
+            }, null, null);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        long operacoes = 0;
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+        while (System.nanoTime() < fim) {
+            long id = random.nextInt(quantidade);
+            Produto produto = repository.find(id);
+            produto.setNome("Produto Alterado " + id);
+            produto.setPreco(10.00 + random.nextInt(1000) / 100.0);
+            repository.update(produto);
+            operacoes++;
+        }
+        Thread.sleep(500);
+
+        List<Long> ordenadas;
+        synchronized (pausas) {
+            ordenadas = new ArrayList<>(pausas);
+        }
+        Collections.sort(ordenadas);
+        long total = ordenadas.stream().mapToLong(Long::longValue).sum();
+        System.out.printf("%-8s %,d produtos, heap vivo %,d MB%s%n", armazenamento, quantidade, heapVivo >> 20,
+                repository instanceof ProdutoOffHeapRepository offHeap
+                        ? String.format(", fora do heap %,d MB", offHeap.bytesForaDoHeap() >> 20)
+                        : "");
+        System.out.printf("         %,d updates em %ds, %d pausas, total %d ms, p50 %d ms, p99 %d ms, max %d ms%n",
+                operacoes, segundos, ordenadas.size(), total,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), ordenadas.isEmpty() ? 0 : ordenadas.get(ordenadas.size() - 1));
+    }
+
+    static Produto produto(long i, String nome) {
+        return Produto.builder()
+                .id(i)
+                .nome(nome)
+                .codigoBarra(String.valueOf(7899137500000L + i))
+                .fabricante("Empresa " + (i % 100))
+                .preco(10.00 + (i % 1000) / 100.0)
+                .build();
+    }
+
+    static long percentil(List<Long> ordenadas, double p) {
+        return ordenadas.isEmpty() ? 0 : ordenadas.get((int) Math.min(ordenadas.size() - 1, Math.ceil(p * ordenadas.size()) - 1));
+    }
+}
@@ -0,0 +1,70 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Heap por produto medido com JOL: o mapa de {@link Produto} que o repositorio
+ * guardava antes, o mapa de {@link ProdutoRegistro} que guarda agora e o
+ * {@link ProdutoVolatilRepository} inteiro, com o indice de codigo de barras.
+ *
+ * Os produtos sao criados como o Jackson os entrega, com Strings proprias
+ * para cada campo. Tarefa Gradle {@code heapProduto}; propriedades
+ * heap.produtos (100000) e heap.fabricantes (100).
+ */
+public class ProdutoHeap {
+
+    public static void main(String[] args) {
+        int quantidade = Integer.getInteger("heap.produtos", 100_000);
+        int fabricantes = Integer.getInteger("heap.fabricantes", 100);
+
+        Supplier<Map<Long, Produto>> antes = () -> {
+            Map<Long, Produto> produtos = new ConcurrentHashMap<>();
+            for (int i = 0; i < quantidade; i++) {
+                Produto produto = produto(i, fabricantes);
+                produtos.put(produto.getId(), produto);
+            }
+            return produtos;
+        };
+        Supplier<Map<Long, ProdutoRegistro>> depois = () -> {
+            Map<Long, ProdutoRegistro> produtos = new ConcurrentHashMap<>();
+            DicionarioFabricante dicionario = new DicionarioFabricante();
+            for (int i = 0; i < quantidade; i++) {
+                ProdutoRegistro registro = ProdutoRegistro.de(produto(i, fabricantes), dicionario);
+                produtos.put(registro.getId(), registro);
+            }
+            return produtos;
+        };
+        Supplier<ProdutoVolatilRepository> repositorio = () -> {
+            ProdutoVolatilRepository repository = new ProdutoVolatilRepository();
+            for (int i = 0; i < quantidade; i++) {
+                repository.save(produto(i, fabricantes));
+            }
+            return repository;
+        };
+
+        System.out.printf("%d produtos, %d fabricantes%n", quantidade, fabricantes);
+        imprimir("Map<Long, Produto>", antes.get(), quantidade);
+        imprimir("Map<Long, ProdutoRegistro>", depois.get(), quantidade);
+        imprimir("ProdutoVolatilRepository", repositorio.get(), quantidade);
+    }
+
+    static Produto produto(int i, int fabricantes) {
+        return Produto.builder()
+                .id((long) i)
+                .nome(new String("Produto " + i))
+                .codigoBarra(String.valueOf(7899137500000L + i))
+                .fabricante(new String("Empresa " + (i % fabricantes)))
+                .preco(10.00 + (i % 1000) / 100.0)
+                .build();
+    }
+
+    static void imprimir(String nome, Object raiz, int quantidade) {
+        long total = GraphLayout.parseInstance(raiz).totalSize();
+        System.out.printf("%-28s %,14d bytes  %6.1f bytes/produto%n", nome, total, (double) total / quantidade);
+    }
+}
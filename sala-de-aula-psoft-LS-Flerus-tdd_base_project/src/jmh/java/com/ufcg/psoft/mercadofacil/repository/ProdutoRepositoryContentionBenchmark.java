@@ -0,0 +1,83 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Vazao de find/update no repositorio de produtos sob contencao. Para variar
+ * as threads: {@code ./gradlew jmhReport -Pjmh.include=ProdutoRepositoryContention -Pjmh.threads=1,2,4,8,16,32,64}.
+ * {@link #findByFabricanteVarrendoFindAll} reproduz a busca por fabricante sem o indice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoRepositoryContentionBenchmark {
+
+    @Param({"1000", "100000"})
+    int tamanho;
+
+    ProdutoVolatilRepository repository;
+    Produto[] produtos;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        repository = new ProdutoVolatilRepository();
+        produtos = new Produto[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            produtos[i] = repository.save(Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra(String.valueOf(7899137500000L + i))
+                    .fabricante("Empresa " + (i % 100))
+                    .preco(10.00 + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Produto find(Sorteio sorteio) {
+        return repository.find((long) sorteio.random.nextInt(tamanho));
+    }
+
+    @Benchmark
+    public Produto findByCodigoBarra(Sorteio sorteio) {
+        return repository.findByCodigoBarra(produtos[sorteio.random.nextInt(tamanho)].getCodigoBarra());
+    }
+
+    @Benchmark
+    public List<Produto> findByFabricante(Sorteio sorteio) {
+        return repository.findByFabricante("Empresa " + sorteio.random.nextInt(100));
+    }
+
+    @Benchmark
+    public List<Produto> findByFabricanteVarrendoFindAll(Sorteio sorteio) {
+        String fabricante = "Empresa " + sorteio.random.nextInt(100);
+        return repository.findAll().stream()
+                .filter(produto -> fabricante.equals(produto.getFabricante()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Produto update(Sorteio sorteio) {
+        return repository.update(produtos[sorteio.random.nextInt(tamanho)]);
+    }
+
+    @Benchmark
+    public Produto findEntaoUpdate(Sorteio sorteio) {
+        Produto produto = repository.find((long) sorteio.random.nextInt(tamanho));
+        return repository.update(produto);
+    }
+}
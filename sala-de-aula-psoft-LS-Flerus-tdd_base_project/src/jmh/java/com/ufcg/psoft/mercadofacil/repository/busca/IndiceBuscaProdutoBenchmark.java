@@ -0,0 +1,84 @@
+package com.ufcg.psoft.mercadofacil.repository.busca;
+
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia do autocompletar e da busca num catalogo sintetico de
+ * {@code tamanho} produtos. O modo SampleTime reporta p99 e p99.9.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceBuscaProdutoBenchmark {
+
+    private static final String[] SILABAS = {
+            "ca", "fe", "ar", "ro", "mi", "lho", "pa", "to", "de", "ri", "so", "la", "be", "ju", "ce", "na"
+    };
+
+    @Param({"1000000"})
+    int tamanho;
+
+    IndiceBuscaProduto indice;
+    String[] palavras;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        palavras = new String[5000];
+        for (int i = 0; i < palavras.length; i++) {
+            StringBuilder palavra = new StringBuilder();
+            for (int j = 0; j < 2 + random.nextInt(3); j++) {
+                palavra.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            palavras[i] = palavra.toString();
+        }
+        indice = new IndiceBuscaProduto();
+        ProdutoVolatilRepository repository = new ProdutoVolatilRepository(List.of(indice));
+        for (int i = 0; i < tamanho; i++) {
+            repository.save(Produto.builder()
+                    .id((long) i)
+                    .nome(palavra(random) + " " + palavra(random) + " " + palavra(random))
+                    .codigoBarra(String.valueOf(7899137500000L + i))
+                    .fabricante(palavras[random.nextInt(200)])
+                    .preco(10.00)
+                    .build());
+        }
+    }
+
+    // distribuicao enviesada: poucas palavras muito comuns, como num catalogo real
+    String palavra(SplittableRandom random) {
+        return palavras[(int) (palavras.length * Math.pow(random.nextDouble(), 3))];
+    }
+
+    @Benchmark
+    public List<Long> autocompletar(Sorteio sorteio) {
+        String palavra = palavras[sorteio.random.nextInt(palavras.length)];
+        return indice.autocompletar(palavra.substring(0, 1 + sorteio.random.nextInt(palavra.length())), 10);
+    }
+
+    @Benchmark
+    public List<Long> autocompletarDoisTermos(Sorteio sorteio) {
+        String palavra = palavras[sorteio.random.nextInt(palavras.length)];
+        return indice.autocompletar(palavra(sorteio.random) + " " + palavra.substring(0, 2), 10);
+    }
+
+    @Benchmark
+    public Pagina<Long> buscar(Sorteio sorteio) {
+        return indice.buscar(palavra(sorteio.random) + " " + palavra(sorteio.random), 0, 20);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Vazao de update com o journal ligado. Com varias threads (jmhReport
+ * -Pjmh.threads=...) o group commit divide cada fsync entre as threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalGroupCommitBenchmark {
+
+    @Param({"10000"})
+    int tamanho;
+
+    @Param({"true", "false"})
+    boolean fsync;
+
+    Path diretorio;
+    Journal<Produto> journal;
+    ProdutoRepository<Produto, Long> repository;
+    Produto[] produtos;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        diretorio = Files.createTempDirectory("journal-benchmark");
+        journal = new Journal<>(diretorio, new ProdutoJournalCodec(), fsync);
+        ProdutoVolatilRepository volatil = new ProdutoVolatilRepository(List.of(journal));
+        journal.recuperar(volatil::save, volatil::delete);
+        repository = new DuravelProdutoRepository(volatil, journal);
+        produtos = new Produto[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            produtos[i] = repository.save(Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra(String.valueOf(7899137500000L + i))
+                    .fabricante("Empresa " + (i % 100))
+                    .preco(10.00 + i)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Produto update(Sorteio sorteio) {
+        return repository.update(produtos[sorteio.random.nextInt(tamanho)]);
+    }
+}
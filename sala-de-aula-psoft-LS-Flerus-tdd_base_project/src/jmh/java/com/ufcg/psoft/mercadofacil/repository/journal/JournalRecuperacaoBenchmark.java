@@ -0,0 +1,77 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tempo de recuperacao de um repositorio de produtos com {@code registros}
+ * mutacoes, so pelo log ou a partir de um snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalRecuperacaoBenchmark {
+
+    @Param({"1000000"})
+    int registros;
+
+    @Param({"false", "true"})
+    boolean comSnapshot;
+
+    Path diretorio;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        diretorio = Files.createTempDirectory("journal-benchmark");
+        Journal<Produto> journal = new Journal<>(diretorio, new ProdutoJournalCodec(), false);
+        ProdutoVolatilRepository repository = new ProdutoVolatilRepository(List.of(journal));
+        journal.recuperar(repository::save, repository::delete);
+        for (long i = 0; i < registros; i++) {
+            repository.save(Produto.builder()
+                    .id(i)
+                    .nome("Produto " + i)
+                    .codigoBarra(String.valueOf(7899137500000L + i))
+                    .fabricante("Empresa " + (i % 100))
+                    .preco(10.00 + i)
+                    .build());
+        }
+        if (comSnapshot) {
+            // a recuperacao reaplica o log desde o corte do snapshot anterior,
+            // entao o segundo snapshot e o que dispensa o log inteiro
+            journal.snapshot(repository::stream);
+            repository.save(Produto.builder().id(registros + 1L).nome("Penultimo").preco(1.00).build());
+            journal.snapshot(repository::stream);
+        }
+        repository.save(Produto.builder().id(registros + 2L).nome("Ultimo").preco(1.00).build());
+        journal.aguardarDuravel();
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ProdutoVolatilRepository recuperar() {
+        Journal<Produto> journal = new Journal<>(diretorio, new ProdutoJournalCodec(), false);
+        ProdutoVolatilRepository repository = new ProdutoVolatilRepository(List.of(journal));
+        journal.recuperar(repository::save, repository::delete);
+        journal.close();
+        return repository;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ufcg.psoft.mercadofacil.repository.metricas;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da camada de metricas sobre o repositorio em memoria, que e o caso
+ * em que ela pesa mais em proporcao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasProdutoRepositoryBenchmark {
+
+    @Param({"false", "true"})
+    boolean medido;
+
+    ProdutoRepository<Produto, Long> repository;
+    Produto[] produtos;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        ProdutoVolatilRepository volatil = new ProdutoVolatilRepository();
+        repository = medido
+                ? new MetricasProdutoRepository(volatil, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT))
+                : volatil;
+        produtos = new Produto[10000];
+        for (int i = 0; i < produtos.length; i++) {
+            produtos[i] = repository.save(Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra(String.valueOf(7899137500000L + i))
+                    .fabricante("Empresa")
+                    .preco(10.00)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Produto find(Sorteio sorteio) {
+        return repository.find((long) sorteio.random.nextInt(produtos.length));
+    }
+
+    @Benchmark
+    public Produto update(Sorteio sorteio) {
+        return repository.update(produtos[sorteio.random.nextInt(produtos.length)]);
+    }
+}
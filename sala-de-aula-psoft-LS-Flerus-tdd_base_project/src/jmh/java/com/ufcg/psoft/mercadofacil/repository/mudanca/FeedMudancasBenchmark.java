@@ -0,0 +1,57 @@
+package com.ufcg.psoft.mercadofacil.repository.mudanca;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteVolatilRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quanto o feed de mudancas custa no caminho de escrita: reservas espalhadas
+ * por {@code lotes} lotes com e sem o {@link LoteMudancas} entre os listeners
+ * do repositorio. Ninguem le o feed durante a medicao, que e o caso em que um
+ * leitor lento nao pode segurar quem escreve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class FeedMudancasBenchmark {
+
+    @Param({"1024"})
+    int lotes;
+
+    @Param({"false", "true"})
+    boolean feed;
+
+    LoteVolatilRepository repository;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        LoteMudancas listener = new LoteMudancas();
+        listener.feedMudancas = new FeedMudancas(65536);
+        repository = feed ? new LoteVolatilRepository(List.of(listener)) : new LoteVolatilRepository();
+        for (long i = 0; i < lotes; i++) {
+            repository.save(Lote.builder()
+                    .id(i)
+                    .produtoId(1L)
+                    .numeroDeItens(Integer.MAX_VALUE)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Lote reservar(Sorteio sorteio) {
+        return repository.reservar((long) sorteio.random.nextInt(lotes), 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import com.ufcg.psoft.mercadofacil.validator.CodigoBarraValidator;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoAlterarServiceBenchmark {
+
+    // o prefixo da empresa deixa 10000 codigos validos, e o repositorio exige codigos unicos
+    @Param({"1000", "10000"})
+    int tamanho;
+
+    @Param({"true", "false"})
+    boolean codigoValido;
+
+    ProdutoAlterarPadraoService service;
+    String[] codigosBarra;
+
+    @State(Scope.Thread)
+    public static class Sorteio {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        ProdutoVolatilRepository repository = new ProdutoVolatilRepository();
+        codigosBarra = new String[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            String codigo = codigoBarra(i);
+            codigosBarra[i] = codigo;
+            repository.save(Produto.builder()
+                    .id((long) i)
+                    .nome("Produto " + i)
+                    .codigoBarra(codigo)
+                    .fabricante("Empresa " + (i % 100))
+                    .preco(10.00 + i)
+                    .build());
+        }
+        service = new ProdutoAlterarPadraoService();
+        service.produtoRepository = repository;
+        service.produtoValidator = new ProdutoValidator(new CodigoBarraValidator());
+    }
+
+    // com verificador errado quando o codigo deve ser invalido
+    String codigoBarra(int i) {
+        String semVerificador = String.format("78991375%04d", i);
+        int soma = 0;
+        for (int j = 0; j < semVerificador.length(); j++) {
+            soma += (semVerificador.charAt(j) - '0') * ((j & 1) == 0 ? 1 : 3);
+        }
+        int verificador = (10 - soma % 10) % 10;
+        return semVerificador + (codigoValido ? verificador : (verificador + 1) % 10);
+    }
+
+    @Benchmark
+    public Object alterar(Sorteio sorteio) {
+        int i = sorteio.random.nextInt(tamanho);
+        Produto produto = Produto.builder()
+                .id((long) i)
+                .nome("Produto Alterado")
+                .codigoBarra(codigosBarra[i])
+                .fabricante("Empresa Alterada")
+                .preco(99.90)
+                .build();
+        try {
+            return service.alterar(produto);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
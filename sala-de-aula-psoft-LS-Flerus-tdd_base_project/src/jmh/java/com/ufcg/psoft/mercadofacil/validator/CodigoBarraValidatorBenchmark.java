@@ -0,0 +1,68 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o {@link CodigoBarraValidator} com a validacao que existia em
+ * ProdutoAlterarPadraoService. Rode com {@code -prof gc} para ver a alocacao por operacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodigoBarraValidatorBenchmark {
+
+    @Param({"7899137500100", "7899137500104", "7849137500100"})
+    String codigo;
+
+    CodigoBarraValidator validator = new CodigoBarraValidator();
+
+    @Benchmark
+    public CodigoBarraValidator.Resultado validator() {
+        return validator.validar(codigo);
+    }
+
+    @Benchmark
+    public String logicaAnterior() {
+        return validarComoAntes(codigo);
+    }
+
+    private static String validarComoAntes(String codigoBarra) {
+        if(codigoBarra.length() != 13) {
+            return "Codigo de barras invalido!";
+        }
+        if(!String.valueOf(codigoBarra.charAt(0)).equals("7") ||
+                !String.valueOf(codigoBarra.charAt(1)).equals("8") ||
+                !String.valueOf(codigoBarra.charAt(2)).equals("9")) {
+            return "Codigo de pais invalido!";
+        }
+        if(!String.valueOf(codigoBarra.charAt(3)).equals("9") ||
+                !String.valueOf(codigoBarra.charAt(4)).equals("1") ||
+                !String.valueOf(codigoBarra.charAt(5)).equals("3") ||
+                !String.valueOf(codigoBarra.charAt(6)).equals("7") ||
+                !String.valueOf(codigoBarra.charAt(7)).equals("5")) {
+            return "Codigo de empresa invalido!";
+        }
+        int somaImpar = 0;
+        for(int i = 0; i < 11; i+= 2) {
+            somaImpar += Integer.parseInt(String.valueOf(codigoBarra.charAt(i)));
+        }
+        int somaPar = 0;
+        for(int i = 1; i < 12; i += 2) {
+            somaPar += Integer.parseInt(String.valueOf(codigoBarra.charAt(i)));
+        }
+        somaPar *= 3;
+        int verificador = 10 - ((somaPar + somaImpar)%10);
+        if(verificador == 10) {
+            verificador = 0;
+        }
+        if(verificador != Integer.parseInt(String.valueOf(codigoBarra.charAt(12)))) {
+            return "Verificador invalido!";
+        }
+        return null;
+    }
+}
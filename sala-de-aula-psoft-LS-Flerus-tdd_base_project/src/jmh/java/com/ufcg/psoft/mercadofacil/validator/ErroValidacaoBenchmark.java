@@ -0,0 +1,83 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de rejeitar um produto com verificador invalido. {@link #runtimeException}
+ * reproduz o validador antigo, que lancava {@code RuntimeException} com stack
+ * trace; {@link #validacaoException} usa o {@link ProdutoValidator} atual. A
+ * profundidade simula os frames do Spring MVC acima do validador, que entram
+ * no stack trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErroValidacaoBenchmark {
+
+    @Param({"10", "100"})
+    int profundidade;
+
+    ProdutoValidator validator;
+    CodigoBarraValidator codigoBarraValidator;
+    Produto produto;
+
+    @Setup
+    public void setup() {
+        codigoBarraValidator = new CodigoBarraValidator();
+        validator = new ProdutoValidator(codigoBarraValidator, new SimpleMeterRegistry());
+        produto = Produto.builder()
+                .id(10L)
+                .nome("Produto Dez")
+                .codigoBarra("7899137500101")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+    }
+
+    void validarAntigo(Produto produto) {
+        CodigoBarraValidator.Resultado resultado = codigoBarraValidator.validar(produto.getCodigoBarra());
+        if (!resultado.isValido()) {
+            throw new RuntimeException(resultado.getMensagem());
+        }
+    }
+
+    void descer(int nivel, boolean antigo) {
+        if (nivel == 0) {
+            if (antigo) {
+                validarAntigo(produto);
+            } else {
+                validator.validar(produto);
+            }
+            return;
+        }
+        descer(nivel - 1, antigo);
+    }
+
+    @Benchmark
+    public String runtimeException() {
+        try {
+            descer(profundidade, true);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String validacaoException() {
+        try {
+            descer(profundidade, false);
+            return null;
+        } catch (ValidacaoException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ufcg.psoft.mercadofacil.config;
+
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarEmMassaPadraoService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarEmMassaService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarPadraoService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers da camada de servico. Os controladores ja sao medidos pelo
+ * {@code http.server.requests} do Spring e os repositorios pelas camadas de
+ * metricas montadas em {@link RepositoryConfig}.
+ */
+@Configuration
+public class MetricasConfig {
+
+    static final String SERVICO = "mercadofacil.servico";
+
+    @Bean
+    @Primary
+    public ProdutoAlterarService produtoAlterarServiceMedido(
+            ProdutoAlterarPadraoService produtoAlterarPadraoService,
+            MeterRegistry registry) {
+        Medidor medidor = new Medidor(registry, "produto-alterar");
+        return (produto, versaoEsperada) -> medidor.medir(() -> produtoAlterarPadraoService.alterar(produto, versaoEsperada));
+    }
+
+    @Bean
+    @Primary
+    public ProdutoAlterarEmMassaService produtoAlterarEmMassaServiceMedido(
+            ProdutoAlterarEmMassaPadraoService produtoAlterarEmMassaPadraoService,
+            MeterRegistry registry) {
+        Medidor medidor = new Medidor(registry, "produto-alterar-em-massa");
+        return produtos -> medidor.medir(() -> produtoAlterarEmMassaPadraoService.alterarTodos(produtos));
+    }
+
+    static final class Medidor {
+
+        private final Timer sucesso;
+        private final Timer erro;
+
+        Medidor(MeterRegistry registry, String servico) {
+            sucesso = timer(registry, servico, "sucesso");
+            erro = timer(registry, servico, "erro");
+        }
+
+        <T> T medir(Supplier<T> chamada) {
+            long inicio = System.nanoTime();
+            try {
+                T resultado = chamada.get();
+                sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                return resultado;
+            } catch (RuntimeException e) {
+                erro.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        private static Timer timer(MeterRegistry registry, String servico, String resultado) {
+            return Timer.builder(SERVICO)
+                    .tag("servico", servico)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ufcg.psoft.mercadofacil.config;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.CodigoBarraDuplicadoException;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.LatenciaProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.LoteVolatilRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ReactiveProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ReactiveProdutoRepositoryAdapter;
+import com.ufcg.psoft.mercadofacil.repository.cache.CacheProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.metricas.MetricasLoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.metricas.MetricasProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.journal.DuravelLoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.journal.DuravelProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.journal.Journal;
+import com.ufcg.psoft.mercadofacil.repository.journal.LoteJournalCodec;
+import com.ufcg.psoft.mercadofacil.repository.journal.PrecoJournalCodec;
+import com.ufcg.psoft.mercadofacil.repository.journal.ProdutoJournalCodec;
+import com.ufcg.psoft.mercadofacil.repository.preco.HistoricoPrecos;
+import com.ufcg.psoft.mercadofacil.repository.preco.PrecoRegistrado;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Monta os repositorios injetados no resto da aplicacao a partir dos
+ * repositorios em memoria, aplicando as camadas habilitadas por propriedade.
+ * O armazenamento de produtos e o {@code ProdutoVolatilRepository} ou, com
+ * {@code mercadofacil.produtos.armazenamento=offheap}, o
+ * {@code ProdutoOffHeapRepository}.
+ */
+@Configuration
+public class RepositoryConfig {
+
+    @Value("${mercadofacil.persistencia.diretorio:data}")
+    String diretorio;
+
+    @Value("${mercadofacil.persistencia.fsync:true}")
+    boolean fsync;
+
+    @Value("${mercadofacil.persistencia.intervalo-snapshot:5m}")
+    Duration intervaloSnapshot;
+
+    @Value("${mercadofacil.simulacao.latencia-repositorio:0ms}")
+    Duration latenciaSimulada;
+
+    @Value("${mercadofacil.metricas.repositorios:true}")
+    boolean metricasRepositorios;
+
+    @Value("${mercadofacil.cache.produtos.habilitado:true}")
+    boolean cacheHabilitado;
+
+    @Value("${mercadofacil.cache.produtos.tamanho-maximo:10000}")
+    long cacheTamanhoMaximo;
+
+    @Value("${mercadofacil.cache.produtos.ttl:10m}")
+    Duration cacheTtl;
+
+    // primeiro listener do repositorio: se o journal recusa o registro, nenhum outro listener publicou a mudanca
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(name = "mercadofacil.persistencia.modo", havingValue = "journal")
+    public Journal<Produto> produtoJournal() {
+        return new Journal<>(Path.of(diretorio, "produtos"), new ProdutoJournalCodec(), fsync);
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(name = "mercadofacil.persistencia.modo", havingValue = "journal")
+    public Journal<Lote> loteJournal() {
+        return new Journal<>(Path.of(diretorio, "lotes"), new LoteJournalCodec(), fsync);
+    }
+
+    // listener do historico de precos: os pontos das series, com o instante em que o preco mudou
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(name = "mercadofacil.persistencia.modo", havingValue = "journal")
+    public Journal<PrecoRegistrado> precoJournal() {
+        return new Journal<>(Path.of(diretorio, "precos"), new PrecoJournalCodec(), fsync);
+    }
+
+    @Bean
+    @Primary
+    public ProdutoRepository<Produto, Long> produtoRepository(
+            @Qualifier("produtoArmazenamento") ProdutoRepository<Produto, Long> armazenamento,
+            ObjectProvider<Journal<Produto>> produtoJournal,
+            ObjectProvider<Journal<PrecoRegistrado>> precoJournal,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            HistoricoPrecos historicoPrecos) {
+        ProdutoRepository<Produto, Long> repository = armazenamento;
+        if (!latenciaSimulada.isZero()) {
+            repository = new LatenciaProdutoRepository(repository, latenciaSimulada);
+        }
+        Journal<Produto> journal = produtoJournal.getIfAvailable();
+        if (journal != null) {
+            Journal<PrecoRegistrado> precos = precoJournal.getObject();
+            // as series voltam do journal de precos, com os instantes originais; o historico nao apaga pontos
+            precos.recuperar(historicoPrecos::restaurar, preco -> { });
+            precos.agendarSnapshots(intervaloSnapshot, historicoPrecos::registros);
+            historicoPrecos.suspenderDurante(() ->
+                    journal.recuperar(produto -> reaplicar(armazenamento, produto), armazenamento::delete));
+            journal.agendarSnapshots(intervaloSnapshot, armazenamento::stream);
+            repository = new DuravelProdutoRepository(repository, journal, precos);
+        }
+        if (cacheHabilitado) {
+            CacheProdutoRepository cache = new CacheProdutoRepository(repository, cacheTamanhoMaximo, cacheTtl);
+            // hits, misses e eviccoes em /actuator/metrics/cache.* com a tag cache=produtos
+            meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.getCache(), "produtos"));
+            repository = cache;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (metricasRepositorios && registry != null) {
+            repository = new MetricasProdutoRepository(repository, registry);
+        }
+        return repository;
+    }
+
+    /**
+     * Onde as operacoes reativas sobre o repositorio de produtos rodam: no
+     * proprio event loop se o repositorio so toca memoria, num pool elastico
+     * se alguma camada bloqueia.
+     */
+    @Bean
+    public Scheduler produtoRepositoryScheduler(ObjectProvider<Journal<Produto>> produtoJournal) {
+        boolean bloqueante = !latenciaSimulada.isZero() || produtoJournal.getIfAvailable() != null;
+        return bloqueante ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+
+    @Bean
+    public ReactiveProdutoRepository<Produto, Long> reactiveProdutoRepository(
+            ProdutoRepository<Produto, Long> produtoRepository,
+            Scheduler produtoRepositoryScheduler) {
+        return new ReactiveProdutoRepositoryAdapter(produtoRepository, produtoRepositoryScheduler);
+    }
+
+    @Bean
+    @Primary
+    public LoteRepository<Lote, Long> loteRepository(
+            LoteVolatilRepository loteVolatilRepository,
+            ObjectProvider<Journal<Lote>> loteJournal,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        LoteRepository<Lote, Long> repository = loteVolatilRepository;
+        Journal<Lote> journal = loteJournal.getIfAvailable();
+        if (journal != null) {
+            journal.recuperar(loteVolatilRepository::save, loteVolatilRepository::delete);
+            journal.agendarSnapshots(intervaloSnapshot, loteVolatilRepository::stream);
+            repository = new DuravelLoteRepository(repository, journal);
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (metricasRepositorios && registry != null) {
+            repository = new MetricasLoteRepository(repository, registry);
+        }
+        return repository;
+    }
+
+    // O snapshot nao e atomico e o log e reaplicado desde o corte anterior: um registro antigo pode
+    // disputar um codigo de barras que so e liberado por um registro posterior, que tambem sera reaplicado.
+    private static void reaplicar(ProdutoRepository<Produto, Long> repository, Produto produto) {
+        try {
+            repository.save(produto);
+        } catch (CodigoBarraDuplicadoException e) {
+            // superado por um registro mais recente
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.service.ClienteAlterarService;
+import com.ufcg.psoft.mercadofacil.service.ClienteBuscarCpfService;
+import com.ufcg.psoft.mercadofacil.service.ClienteBuscarService;
+import com.ufcg.psoft.mercadofacil.service.ClienteCriarService;
+import com.ufcg.psoft.mercadofacil.service.ClienteListarService;
+import com.ufcg.psoft.mercadofacil.service.ClienteRemoverService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(
+        value = "/v1/clientes",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+public class ClienteV1Controller {
+
+    @Autowired
+    ClienteCriarService clienteCriarService;
+
+    @Autowired
+    ClienteBuscarService clienteBuscarService;
+
+    @Autowired
+    ClienteBuscarCpfService clienteBuscarCpfService;
+
+    @Autowired
+    ClienteListarService clienteListarService;
+
+    @Autowired
+    ClienteAlterarService clienteAlterarService;
+
+    @Autowired
+    ClienteRemoverService clienteRemoverService;
+
+    @PostMapping
+    public ResponseEntity<Cliente> criarCliente(
+            @RequestBody Cliente cliente) {
+        Cliente criado = clienteCriarService.criar(cliente);
+        return ResponseEntity.created(URI.create("/v1/clientes/" + criado.getId())).body(criado);
+    }
+
+    @GetMapping
+    public List<Cliente> listarClientes() {
+        return clienteListarService.listar();
+    }
+
+    // aceita o CPF com ou sem pontuacao
+    @GetMapping(params = "cpf")
+    public ResponseEntity<Cliente> buscarPorCpf(
+            @RequestParam String cpf) {
+        Cliente cliente = clienteBuscarCpfService.buscar(cpf);
+        return cliente == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(cliente);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Cliente> buscarCliente(
+            @PathVariable Long id) {
+        Cliente cliente = clienteBuscarService.buscar(id);
+        return cliente == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(cliente);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Cliente> atualizarCliente(
+            @PathVariable Long id,
+            @RequestBody Cliente cliente) {
+        cliente.setId(id);
+        Cliente atualizado = clienteAlterarService.alterar(cliente);
+        return atualizado == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(atualizado);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removerCliente(
+            @PathVariable Long id) {
+        return clienteRemoverService.remover(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.dto.Mudanca;
+import com.ufcg.psoft.mercadofacil.repository.mudanca.FeedMudancas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega o {@link FeedMudancas} as conexoes SSE abertas.
+ *
+ * Uma thread agendada percorre as assinaturas a cada intervalo e dispara, para
+ * cada uma que nao tem envio em andamento, a entrega do que ela ainda nao
+ * recebeu, no maximo um lote por vez. Os envios bloqueiam na escrita do socket
+ * e por isso rodam num pool proprio de no maximo {@code threads-envio} threads:
+ * um cliente lento segura so a sua thread de envio, e com todas ocupadas as
+ * demais assinaturas esperam a proxima volta. O feed nao avisa ninguem quando
+ * recebe uma mudanca: quem le vem buscar, entao os repositorios nao esperam por
+ * conexoes lentas.
+ *
+ * Uma assinatura que passa de {@code timeout-envio} no mesmo envio e descartada.
+ * A escrita parada no Tomcat nao volta com interrupt nem com o fechamento da
+ * resposta por outra thread; quem a solta e o timeout de escrita do conector
+ * ({@code server.tomcat.connection-timeout}, alinhado ao timeout-envio), e a
+ * propria thread de envio encerra o emitter quando ela volta.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class EntregaMudancas implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(EntregaMudancas.class);
+
+    private final FeedMudancas feedMudancas;
+    private final int tamanhoLote;
+    private final long timeoutEnvio;
+    private final Set<Assinatura> assinaturas = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService entregador;
+    private final ExecutorService envios;
+
+    EntregaMudancas(FeedMudancas feedMudancas,
+                    @Value("${mercadofacil.mudancas.intervalo-entrega:50ms}") Duration intervalo,
+                    @Value("${mercadofacil.mudancas.tamanho-lote-entrega:1000}") int tamanhoLote,
+                    @Value("${mercadofacil.mudancas.timeout-envio:10s}") Duration timeoutEnvio,
+                    @Value("${mercadofacil.mudancas.threads-envio:16}") int threadsEnvio) {
+        this.feedMudancas = feedMudancas;
+        this.tamanhoLote = tamanhoLote;
+        this.timeoutEnvio = timeoutEnvio.toNanos();
+        this.entregador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mudancas-sse");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // sem fila: um envio que nao acha thread livre e recusado e a assinatura tenta de novo na proxima volta
+        this.envios = new ThreadPoolExecutor(0, threadsEnvio, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "mudancas-sse-envio");
+            thread.setDaemon(true);
+            return thread;
+        });
+        entregador.scheduleWithFixedDelay(this::entregar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Passa a entregar ao emitter as mudancas com sequencia maior que {@code desde}. */
+    void assinar(SseEmitter emitter, long desde) {
+        Assinatura assinatura = new Assinatura(emitter, desde);
+        emitter.onCompletion(() -> assinaturas.remove(assinatura));
+        emitter.onTimeout(() -> assinaturas.remove(assinatura));
+        emitter.onError(e -> assinaturas.remove(assinatura));
+        assinaturas.add(assinatura);
+    }
+
+    int assinaturasAbertas() {
+        return assinaturas.size();
+    }
+
+    /**
+     * Dispara uma volta de entrega e devolve um future que completa quando os
+     * envios disparados nesta volta terminarem.
+     */
+    CompletableFuture<Void> entregar() {
+        long agora = System.nanoTime();
+        List<CompletableFuture<Void>> disparados = new ArrayList<>();
+        for (Assinatura assinatura : assinaturas) {
+            if (assinatura.travada(agora)) {
+                assinaturas.remove(assinatura);
+                // o emitter e sincronizado e o envio parado segura o monitor: quem encerra e a thread do envio
+                log.debug("Assinatura de mudancas descartada: envio parado ha mais de {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(timeoutEnvio));
+            } else if (assinatura.iniciarEnvio(agora)) {
+                try {
+                    disparados.add(CompletableFuture.runAsync(() -> enviar(assinatura), envios));
+                } catch (RejectedExecutionException e) {
+                    assinatura.terminarEnvio();
+                }
+            }
+        }
+        return CompletableFuture.allOf(disparados.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void enviar(Assinatura assinatura) {
+        try {
+            assinatura.entregar();
+            if (!assinaturas.contains(assinatura)) {
+                // descartada enquanto o envio estava parado: o cliente reconecta com Last-Event-ID
+                assinatura.emitter.completeWithError(new IOException("Envio de mudancas parado"));
+            }
+        } catch (IOException | RuntimeException e) {
+            // cliente desconectado ou emitter ja encerrado
+            assinaturas.remove(assinatura);
+            assinatura.emitter.completeWithError(e);
+            log.debug("Assinatura de mudancas encerrada", e);
+        } finally {
+            assinatura.terminarEnvio();
+        }
+    }
+
+    @Override
+    public void close() {
+        entregador.shutdownNow();
+        envios.shutdownNow();
+        for (Assinatura assinatura : assinaturas) {
+            // com envio em andamento o complete esperaria pelo socket
+            if (assinatura.iniciarEnvio(System.nanoTime())) {
+                assinatura.emitter.complete();
+            }
+        }
+        assinaturas.clear();
+    }
+
+    private final class Assinatura {
+
+        private static final long SEM_ENVIO = 0;
+
+        private final SseEmitter emitter;
+        // inicio do envio em andamento em System.nanoTime(), ou SEM_ENVIO; so um envio por vez
+        private final AtomicLong envioDesde = new AtomicLong(SEM_ENVIO);
+        // ultima sequencia entregue; so o envio em andamento mexe nela, e a troca de envioDesde publica o valor
+        private long cursor;
+
+        private Assinatura(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        boolean iniciarEnvio(long agora) {
+            // nanoTime pode valer zero; o envio so precisa ser diferente de SEM_ENVIO
+            return envioDesde.compareAndSet(SEM_ENVIO, agora == SEM_ENVIO ? 1 : agora);
+        }
+
+        void terminarEnvio() {
+            envioDesde.set(SEM_ENVIO);
+        }
+
+        boolean travada(long agora) {
+            long desde = envioDesde.get();
+            return desde != SEM_ENVIO && agora - desde > timeoutEnvio;
+        }
+
+        void entregar() throws IOException {
+            // cursor alem do feed: a aplicacao reiniciou e as sequencias recomecaram
+            long desde = cursor > feedMudancas.ultimaSequencia() ? 0 : cursor;
+            List<Mudanca> mudancas = feedMudancas.ler(desde, tamanhoLote);
+            if (mudancas.isEmpty()) {
+                return;
+            }
+            long primeira = mudancas.get(0).getSequencia();
+            if (desde != cursor || primeira != desde + 1) {
+                emitter.send(SseEmitter.event()
+                        .name("perda")
+                        .data(Map.of("ultimaRecebida", cursor, "retomadaEm", primeira), MediaType.APPLICATION_JSON));
+            }
+            for (Mudanca mudanca : mudancas) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(mudanca.getSequencia()))
+                        .name("mudanca")
+                        .data(mudanca, MediaType.APPLICATION_JSON));
+                cursor = mudanca.getSequencia();
+            }
+        }
+    }
+}
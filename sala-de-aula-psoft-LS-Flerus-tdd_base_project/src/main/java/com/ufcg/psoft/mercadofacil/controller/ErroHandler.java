@@ -0,0 +1,25 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.dto.ErroResposta;
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Responde erros de negocio com status 400/409/412/422 e um {@link ErroResposta}
+ * em vez de deixar a excecao chegar ao container.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ErroHandler {
+
+    @ExceptionHandler(MercadoFacilException.class)
+    public ResponseEntity<ErroResposta> tratar(MercadoFacilException e) {
+        return ResponseEntity.status(ErroHttp.status(e))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErroHttp.corpo(e));
+    }
+}
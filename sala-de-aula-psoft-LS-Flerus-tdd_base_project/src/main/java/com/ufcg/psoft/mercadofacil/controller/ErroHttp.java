@@ -0,0 +1,45 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.dto.ErroResposta;
+import com.ufcg.psoft.mercadofacil.exception.ArgumentosIncompletosException;
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.exception.ParametroInvalidoException;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.repository.CodigoBarraDuplicadoException;
+import com.ufcg.psoft.mercadofacil.repository.CpfDuplicadoException;
+import com.ufcg.psoft.mercadofacil.repository.EstoqueInsuficienteException;
+import com.ufcg.psoft.mercadofacil.repository.VersaoConflitanteException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Traducao dos erros de negocio para HTTP, comum as pilhas servlet e reativa.
+ */
+final class ErroHttp {
+
+    private ErroHttp() {
+    }
+
+    static HttpStatus status(MercadoFacilException e) {
+        if (e instanceof ArgumentosIncompletosException || e instanceof ParametroInvalidoException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof ValidacaoException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        if (e instanceof CodigoBarraDuplicadoException || e instanceof CpfDuplicadoException
+                || e instanceof EstoqueInsuficienteException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (e instanceof VersaoConflitanteException) {
+            return HttpStatus.PRECONDITION_FAILED;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    static ErroResposta corpo(MercadoFacilException e) {
+        return ErroResposta.builder()
+                .codigo(e.getCodigo())
+                .mensagem(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.service.CatalogoImportacaoBuscarService;
+import com.ufcg.psoft.mercadofacil.service.CatalogoImportarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(
+        value = "/v1/importacoes",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+public class ImportacaoV1Controller {
+
+    @Autowired
+    CatalogoImportarService catalogoImportarService;
+
+    @Autowired
+    CatalogoImportacaoBuscarService catalogoImportacaoBuscarService;
+
+    // o arquivo e relativo a mercadofacil.importacao.diretorio; o progresso sai no GET do Location
+    @PostMapping
+    public ResponseEntity<Importacao> importarCatalogo(
+            @RequestParam String arquivo,
+            @RequestParam String entidade) {
+        Importacao importacao = catalogoImportarService.importar(arquivo, entidade);
+        return ResponseEntity.accepted()
+                .location(URI.create("/v1/importacoes/" + importacao.getId()))
+                .body(importacao);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Importacao> buscarImportacao(
+            @PathVariable String id) {
+        Importacao importacao = catalogoImportacaoBuscarService.buscar(id);
+        return importacao == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(importacao);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.dto.LoteExpandido;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.service.LoteBuscarService;
+import com.ufcg.psoft.mercadofacil.service.LoteCriarService;
+import com.ufcg.psoft.mercadofacil.service.LoteExpandirService;
+import com.ufcg.psoft.mercadofacil.service.LoteExportarService;
+import com.ufcg.psoft.mercadofacil.service.LoteReservarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(
+        value = "/v1/lotes",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+public class LoteV1Controller {
+
+    @Autowired
+    LoteExportarService loteExportarService;
+
+    @Autowired
+    LoteCriarService loteCriarService;
+
+    @Autowired
+    LoteBuscarService loteBuscarService;
+
+    @Autowired
+    LoteReservarService loteReservarService;
+
+    @Autowired
+    LoteExpandirService loteExpandirService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<Lote> criarLote(
+            @RequestBody Lote lote) {
+        Lote criado = loteCriarService.criar(lote);
+        return ResponseEntity.created(URI.create("/v1/lotes/" + criado.getId())).body(criado);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Lote> buscarLote(
+            @PathVariable Long id) {
+        Lote lote = loteBuscarService.buscar(id);
+        return lote == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(lote);
+    }
+
+    @GetMapping(value = "/{id}", params = "expand=produto")
+    public ResponseEntity<LoteExpandido> buscarLoteExpandido(
+            @PathVariable Long id) {
+        Lote lote = loteBuscarService.buscar(id);
+        return lote == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(loteExpandirService.expandir(List.of(lote)).get(0));
+    }
+
+    @PostMapping("/{id}/reserva")
+    public ResponseEntity<Lote> reservarItens(
+            @PathVariable Long id,
+            @RequestParam int quantidade) {
+        Lote lote = loteReservarService.reservar(id, quantidade);
+        return lote == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(lote);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarLotes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreamingResponse.of(objectMapper, Lote.class, loteExportarService::exportar));
+    }
+
+    @GetMapping(value = "/export", params = "expand=produto", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarLotesExpandidos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreamingResponse.of(objectMapper, LoteExpandido.class, loteExportarService::exportarExpandido));
+    }
+}
@@ -0,0 +1,41 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.repository.mudanca.FeedMudancas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(
+        value = "/v1/changes",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+)
+public class MudancaV1Controller {
+
+    @Autowired
+    FeedMudancas feedMudancas;
+
+    @Autowired
+    EntregaMudancas entregaMudancas;
+
+    @Value("${mercadofacil.mudancas.timeout-sse:30m}")
+    Duration timeoutSse;
+
+    // Last-Event-ID vem na reconexao automatica do EventSource e vale mais que o since da URL;
+    // sem nenhum dos dois, so as mudancas a partir de agora
+    @GetMapping
+    public SseEmitter acompanharMudancas(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        long desde = ultimoEvento != null ? ultimoEvento : since != null ? since : feedMudancas.ultimaSequencia();
+        SseEmitter emitter = new SseEmitter(timeoutSse.toMillis());
+        entregaMudancas.assinar(emitter, Math.max(0, desde));
+        return emitter;
+    }
+}
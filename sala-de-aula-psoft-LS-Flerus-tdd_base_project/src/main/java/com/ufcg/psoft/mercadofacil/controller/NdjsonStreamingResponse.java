@@ -0,0 +1,55 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escreve um Stream como NDJSON direto na resposta, um objeto por linha,
+ * sem materializar a colecao.
+ */
+final class NdjsonStreamingResponse {
+
+    private NdjsonStreamingResponse() {
+    }
+
+    /** Fonte que empurra os itens para a resposta conforme eles ficam prontos. */
+    @FunctionalInterface
+    interface Fonte<T> {
+        void emitir(Consumer<T> saida) throws IOException;
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Class<T> tipo, Supplier<Stream<T>> fonte) {
+        return emitindo(objectMapper, tipo, saida -> {
+            try (Stream<T> itens = fonte.get()) {
+                itens.forEach(saida);
+            }
+        });
+    }
+
+    static <T> StreamingResponseBody emitindo(ObjectMapper objectMapper, Class<T> tipo, Fonte<T> fonte) {
+        ObjectWriter writer = objectMapper.writerFor(tipo)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.setRootValueSeparator(null);
+                fonte.emitir(item -> {
+                    try {
+                        writer.writeValue(gerador, item);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -1,12 +1,45 @@
 package com.ufcg.psoft.mercadofacil.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ufcg.psoft.mercadofacil.dto.Estoque;
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.dto.PontoPreco;
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
 import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarEmMassaService;
 import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoBuscarCodigoBarraService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoBuscarFabricanteService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoBuscarIdService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoBuscarService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoEstoqueService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoExportarService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoPrecosService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoReajustarPrecoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(
         value = "/v1/produtos",
         produces = MediaType.APPLICATION_JSON_VALUE
@@ -16,10 +49,175 @@ public class ProdutoV1Controller {
     @Autowired
     ProdutoAlterarService produtoAtualizarService;
 
+    @Autowired
+    ProdutoAlterarEmMassaService produtoAlterarEmMassaService;
+
+    @Autowired
+    ProdutoExportarService produtoExportarService;
+
+    @Autowired
+    ProdutoBuscarCodigoBarraService produtoBuscarCodigoBarraService;
+
+    @Autowired
+    ProdutoBuscarService produtoBuscarService;
+
+    @Autowired
+    ProdutoBuscarIdService produtoBuscarIdService;
+
+    @Autowired
+    ProdutoBuscarFabricanteService produtoBuscarFabricanteService;
+
+    @Autowired
+    ProdutoReajustarPrecoService produtoReajustarPrecoService;
+
+    @Autowired
+    ProdutoEstoqueService produtoEstoqueService;
+
+    @Autowired
+    ProdutoPrecosService produtoPrecosService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${mercadofacil.produtos.tamanho-lote-atualizacao:1000}")
+    int tamanhoLoteAtualizacao;
+
+    @GetMapping(params = "codigoBarra")
+    public ResponseEntity<Produto> buscarPorCodigoBarra(
+            @RequestParam String codigoBarra) {
+        Produto produto = produtoBuscarCodigoBarraService.buscar(codigoBarra);
+        return produto == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(produto);
+    }
+
+    @GetMapping(params = "fabricante")
+    public List<Produto> buscarPorFabricante(
+            @RequestParam String fabricante) {
+        return produtoBuscarFabricanteService.buscar(fabricante);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Produto> buscarProduto(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Produto produto = produtoBuscarIdService.buscar(id);
+        if (produto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (VersaoHttp.naoModificado(ifNoneMatch, produto)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(VersaoHttp.etag(produto)).build();
+        }
+        return ResponseEntity.ok().eTag(VersaoHttp.etag(produto)).body(produto);
+    }
+
+    @GetMapping("/{id}/estoque")
+    public ResponseEntity<Estoque> consultarEstoque(
+            @PathVariable Long id) {
+        Estoque estoque = produtoEstoqueService.consultar(id);
+        return estoque == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(estoque);
+    }
+
+    @GetMapping("/{id}/precos")
+    public ResponseEntity<List<PontoPreco>> consultarPrecos(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        List<PontoPreco> precos = produtoPrecosService.historico(id, from, to);
+        return precos == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(precos);
+    }
+
+    @GetMapping("/busca")
+    public Pagina<Produto> buscarProdutos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        return produtoBuscarService.buscar(q, pagina, tamanho);
+    }
+
+    @GetMapping("/autocompletar")
+    public List<Produto> autocompletarProdutos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        return produtoBuscarService.autocompletar(q, limite);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarProdutos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreamingResponse.of(objectMapper, Produto.class, produtoExportarService::exportar));
+    }
+
     @PutMapping("/{id}")
-    public Produto atualizarProduto(
+    public ResponseEntity<Produto> atualizarProduto(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Produto produto) {
-        return produtoAtualizarService.alterar(produto);
+        produto.setId(id);
+        Produto atualizado = produtoAtualizarService.alterar(produto, VersaoHttp.versaoEsperada(ifMatch));
+        return atualizado == null
+                ? ResponseEntity.notFound().build()
+                : ResponseEntity.ok().eTag(VersaoHttp.etag(atualizado)).body(atualizado);
+    }
+
+    @PutMapping(value = "/preco", params = {"fabricante", "percentual"})
+    public List<ProdutoAlteracaoResultado> reajustarPreco(
+            @RequestParam String fabricante,
+            @RequestParam double percentual) {
+        return produtoReajustarPrecoService.reajustar(fabricante, percentual);
+    }
+
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<ProdutoAlteracaoResultado> atualizarProdutos(
+            @RequestBody List<Produto> produtos) {
+        List<ProdutoAlteracaoResultado> resultados = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i += tamanhoLoteAtualizacao) {
+            int fim = Math.min(i + tamanhoLoteAtualizacao, produtos.size());
+            resultados.addAll(produtoAlterarEmMassaService.alterarTodos(produtos.subList(i, fim)));
+        }
+        return resultados;
+    }
+
+    // os resultados saem em NDJSON conforme cada lote e aplicado, sem juntar o upload inteiro em memoria
+    @PutMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> atualizarProdutosNdjson(InputStream corpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreamingResponse.emitindo(objectMapper, ProdutoAlteracaoResultado.class,
+                        saida -> alterarNdjson(corpo, saida)));
+    }
+
+    // cada linha e lida sozinha: uma linha invalida vira uma falha com o numero dela e a leitura continua
+    private void alterarNdjson(InputStream corpo, Consumer<ProdutoAlteracaoResultado> saida) throws IOException {
+        ObjectReader leitor = objectMapper.readerFor(Produto.class);
+        BufferedReader linhas = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        List<Produto> lote = new ArrayList<>(tamanhoLoteAtualizacao);
+        long numero = 0;
+        String linha;
+        while ((linha = linhas.readLine()) != null) {
+            numero++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                lote.add(leitor.readValue(linha));
+            } catch (JsonProcessingException e) {
+                // o lote pendente sai antes para os resultados seguirem a ordem do corpo
+                lote = alterar(lote, saida);
+                saida.accept(ProdutoAlteracaoResultado.falhaLeitura(numero, "JSON invalido"));
+                continue;
+            }
+            if (lote.size() == tamanhoLoteAtualizacao) {
+                lote = alterar(lote, saida);
+            }
+        }
+        alterar(lote, saida);
+    }
+
+    private List<Produto> alterar(List<Produto> lote, Consumer<ProdutoAlteracaoResultado> saida) {
+        if (lote.isEmpty()) {
+            return lote;
+        }
+        produtoAlterarEmMassaService.alterarTodos(lote).forEach(saida);
+        return new ArrayList<>(tamanhoLoteAtualizacao);
     }
 }
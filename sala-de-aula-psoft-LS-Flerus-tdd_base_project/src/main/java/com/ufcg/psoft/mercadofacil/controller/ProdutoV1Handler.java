@@ -0,0 +1,208 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.exception.ParametroInvalidoException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ReactiveProdutoRepository;
+import com.ufcg.psoft.mercadofacil.service.ProdutoAlterarEmMassaService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoBuscarService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoEstoqueService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoPrecosService;
+import com.ufcg.psoft.mercadofacil.service.ProdutoReajustarPrecoService;
+import com.ufcg.psoft.mercadofacil.service.ReactiveProdutoAlterarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Handlers do contrato {@code /v1/produtos} na pilha reativa, ligados as rotas
+ * em {@link ProdutoV1Router}. As respostas seguem as de {@link ProdutoV1Controller}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProdutoV1Handler {
+
+    @Autowired
+    ReactiveProdutoAlterarService produtoAlterarService;
+
+    @Autowired
+    ReactiveProdutoRepository<Produto, Long> produtoRepository;
+
+    @Autowired
+    ProdutoAlterarEmMassaService produtoAlterarEmMassaService;
+
+    @Autowired
+    ProdutoBuscarService produtoBuscarService;
+
+    @Autowired
+    ProdutoReajustarPrecoService produtoReajustarPrecoService;
+
+    @Autowired
+    ProdutoEstoqueService produtoEstoqueService;
+
+    @Autowired
+    ProdutoPrecosService produtoPrecosService;
+
+    @Autowired
+    Scheduler produtoRepositoryScheduler;
+
+    @Value("${mercadofacil.produtos.tamanho-lote-atualizacao:1000}")
+    int tamanhoLoteAtualizacao;
+
+    public Mono<ServerResponse> buscarProduto(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long id = id(request);
+            String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+            return produtoRepository.find(id)
+                    .flatMap(produto -> VersaoHttp.naoModificado(ifNoneMatch, produto)
+                            ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(VersaoHttp.etag(produto)).build()
+                            : ServerResponse.ok().eTag(VersaoHttp.etag(produto)).contentType(MediaType.APPLICATION_JSON).bodyValue(produto))
+                    .switchIfEmpty(ServerResponse.notFound().build());
+        }).onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> atualizarProduto(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long id = id(request);
+            String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+            return request.bodyToMono(Produto.class)
+                    .flatMap(produto -> {
+                        produto.setId(id);
+                        return produtoAlterarService.alterar(produto, VersaoHttp.versaoEsperada(ifMatch));
+                    })
+                    .flatMap(produto -> ServerResponse.ok().eTag(VersaoHttp.etag(produto)).contentType(MediaType.APPLICATION_JSON).bodyValue(produto))
+                    .switchIfEmpty(ServerResponse.notFound().build());
+        }).onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    static Mono<ServerResponse> erro(MercadoFacilException e) {
+        return ServerResponse.status(ErroHttp.status(e))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ErroHttp.corpo(e));
+    }
+
+    // o corpo pode ser um array JSON ou NDJSON: o decoder entrega os itens um a um nos dois casos
+    public Mono<ServerResponse> atualizarProdutos(ServerRequest request) {
+        Flux<ProdutoAlteracaoResultado> resultados = request.bodyToFlux(Produto.class)
+                .buffer(tamanhoLoteAtualizacao)
+                .concatMap(lote -> Mono.fromSupplier(() -> produtoAlterarEmMassaService.alterarTodos(lote))
+                        .subscribeOn(produtoRepositoryScheduler))
+                .flatMapIterable(lote -> lote);
+        return resultados.collectList()
+                .flatMap(lista -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(lista))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> buscarPorCodigoBarra(ServerRequest request) {
+        return Mono.defer(() -> produtoRepository.findByCodigoBarra(obrigatorio(request, "codigoBarra"))
+                        .flatMap(produto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(produto))
+                        .switchIfEmpty(ServerResponse.notFound().build()))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> buscarPorFabricante(ServerRequest request) {
+        return Mono.defer(() -> produtoRepository.findByFabricante(obrigatorio(request, "fabricante")).collectList())
+                .flatMap(produtos -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(produtos))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> reajustarPreco(ServerRequest request) {
+        return Mono.defer(() -> {
+            String fabricante = obrigatorio(request, "fabricante");
+            double percentual = parametro("percentual", obrigatorio(request, "percentual"), Double::parseDouble);
+            return Mono.fromSupplier(() -> produtoReajustarPrecoService.reajustar(fabricante, percentual))
+                    .subscribeOn(produtoRepositoryScheduler);
+        })
+                .flatMap(resultados -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(resultados))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> consultarEstoque(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long id = id(request);
+            return Mono.fromSupplier(() -> produtoEstoqueService.consultar(id))
+                    .subscribeOn(produtoRepositoryScheduler);
+        })
+                .flatMap(estoque -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(estoque))
+                .switchIfEmpty(ServerResponse.notFound().build())
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> consultarPrecos(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long id = id(request);
+            Instant de = parametro(request, "from", Instant::parse, null);
+            Instant ate = parametro(request, "to", Instant::parse, null);
+            return Mono.fromSupplier(() -> produtoPrecosService.historico(id, de, ate))
+                    .subscribeOn(produtoRepositoryScheduler);
+        })
+                .flatMap(precos -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(precos))
+                .switchIfEmpty(ServerResponse.notFound().build())
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> buscarProdutos(ServerRequest request) {
+        return Mono.defer(() -> {
+            String consulta = request.queryParam("q").orElse("");
+            int pagina = parametro(request, "pagina", Integer::parseInt, 0);
+            int tamanho = parametro(request, "tamanho", Integer::parseInt, 20);
+            return Mono.fromSupplier(() -> produtoBuscarService.buscar(consulta, pagina, tamanho))
+                    .subscribeOn(produtoRepositoryScheduler);
+        })
+                .flatMap(resultado -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(resultado))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    public Mono<ServerResponse> autocompletarProdutos(ServerRequest request) {
+        return Mono.defer(() -> {
+            String consulta = request.queryParam("q").orElse("");
+            int limite = parametro(request, "limite", Integer::parseInt, 10);
+            return Mono.fromSupplier(() -> produtoBuscarService.autocompletar(consulta, limite))
+                    .subscribeOn(produtoRepositoryScheduler);
+        })
+                .flatMap(resultado -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(resultado))
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    // cada produto e escrito quando o cliente pede mais (backpressure do Flux)
+    public Mono<ServerResponse> exportarProdutos(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(produtoRepository.findAll(), Produto.class)
+                .onErrorResume(MercadoFacilException.class, ProdutoV1Handler::erro);
+    }
+
+    // parametros que nao convertem respondem 400, como o binding de @PathVariable/@RequestParam na pilha servlet
+    private static Long id(ServerRequest request) {
+        return parametro("id", request.pathVariable("id"), Long::valueOf);
+    }
+
+    private static String obrigatorio(ServerRequest request, String nome) {
+        return request.queryParam(nome).orElseThrow(() -> new ParametroInvalidoException(nome));
+    }
+
+    private static <T> T parametro(ServerRequest request, String nome, Function<String, T> conversor, T padrao) {
+        return request.queryParam(nome).map(valor -> parametro(nome, valor, conversor)).orElse(padrao);
+    }
+
+    private static <T> T parametro(String nome, String valor, Function<String, T> conversor) {
+        try {
+            return conversor.apply(valor);
+        } catch (RuntimeException e) {
+            throw new ParametroInvalidoException(nome);
+        }
+    }
+}
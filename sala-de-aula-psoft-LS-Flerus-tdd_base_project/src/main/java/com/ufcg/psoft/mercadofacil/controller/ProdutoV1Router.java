@@ -0,0 +1,39 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Rotas de {@code /v1/produtos} quando a aplicacao sobe com
+ * {@code spring.main.web-application-type=reactive}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProdutoV1Router {
+
+    @Bean
+    public RouterFunction<ServerResponse> produtoV1Rotas(ProdutoV1Handler handler) {
+        return route()
+                .path("/v1/produtos", rotas -> rotas
+                        .GET("/export", handler::exportarProdutos)
+                        .GET("/busca", handler::buscarProdutos)
+                        .GET("/autocompletar", handler::autocompletarProdutos)
+                        .GET("/{id}/estoque", handler::consultarEstoque)
+                        .GET("/{id}/precos", handler::consultarPrecos)
+                        .GET("/{id}", handler::buscarProduto)
+                        .GET("", queryParam("codigoBarra", codigo -> true), handler::buscarPorCodigoBarra)
+                        .GET("", queryParam("fabricante", fabricante -> true), handler::buscarPorFabricante)
+                        .PUT("/preco", queryParam("fabricante", fabricante -> true), handler::reajustarPreco)
+                        .PUT("/{id}", handler::atualizarProduto)
+                        .PUT("", contentType(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON), handler::atualizarProdutos))
+                .build();
+    }
+}
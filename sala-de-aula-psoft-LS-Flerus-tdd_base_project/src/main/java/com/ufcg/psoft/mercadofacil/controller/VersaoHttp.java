@@ -0,0 +1,55 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.VersaoConflitanteException;
+
+/**
+ * A versao do produto como {@code ETag}, comum as pilhas servlet e reativa.
+ * O ETag e forte: ele muda a cada gravacao, mesmo que o conteudo se repita.
+ */
+final class VersaoHttp {
+
+    private VersaoHttp() {
+    }
+
+    static String etag(Produto produto) {
+        return "\"" + produto.getVersao() + "\"";
+    }
+
+    /**
+     * Versao esperada por um {@code If-Match}; {@code null} se o cabecalho
+     * falta ou e {@code *}. Um valor que nao e um ETag nosso nunca confere.
+     */
+    static Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 3 || valor.charAt(0) != '"' || valor.charAt(valor.length() - 1) != '"') {
+            throw new VersaoConflitanteException();
+        }
+        try {
+            return Long.parseLong(valor, 1, valor.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            throw new VersaoConflitanteException();
+        }
+    }
+
+    /** Se o {@code If-None-Match} ja tem a versao atual (comparacao fraca). */
+    static boolean naoModificado(String ifNoneMatch, Produto produto) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = etag(produto);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class Estoque {
+    @JsonProperty("produtoId")
+    private Long produtoId;
+    @JsonProperty("quantidade")
+    private long quantidade;
+}
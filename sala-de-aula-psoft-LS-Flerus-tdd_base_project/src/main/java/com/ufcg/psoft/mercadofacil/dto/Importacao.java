@@ -0,0 +1,38 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Importacao {
+    @JsonProperty("id")
+    private String id;
+    @JsonProperty("arquivo")
+    private String arquivo;
+    @JsonProperty("entidade")
+    private String entidade;
+    // em_andamento, concluida ou falhou
+    @JsonProperty("situacao")
+    private String situacao;
+    @JsonProperty("linhasLidas")
+    private long linhasLidas;
+    @JsonProperty("importadas")
+    private long importadas;
+    @JsonProperty("rejeitadas")
+    private long rejeitadas;
+    @JsonProperty("linhasPorSegundo")
+    private long linhasPorSegundo;
+    @JsonProperty("duracaoMs")
+    private long duracaoMs;
+    // so ao final, em ordem de linha e limitadas a mercadofacil.importacao.maximo-rejeicoes
+    @JsonProperty("rejeicoes")
+    private List<RejeicaoImportacao> rejeicoes;
+    @JsonProperty("erro")
+    private String erro;
+}
@@ -0,0 +1,19 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LoteExpandido {
+    @JsonProperty("id")
+    private Long id;
+    @JsonProperty("produtoId")
+    private Long produtoId;
+    @JsonProperty("numeroDeItens")
+    private int numeroDeItens;
+    @JsonProperty("produto")
+    private Produto produto;
+}
@@ -0,0 +1,21 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class Mudanca {
+    @JsonProperty("sequencia")
+    private long sequencia;
+    @JsonProperty("entidade")
+    private String entidade;
+    @JsonProperty("operacao")
+    private String operacao;
+    @JsonProperty("id")
+    private Long id;
+    // estado depois da mudanca; nulo quando a entidade foi removida
+    @JsonProperty("dados")
+    private Object dados;
+}
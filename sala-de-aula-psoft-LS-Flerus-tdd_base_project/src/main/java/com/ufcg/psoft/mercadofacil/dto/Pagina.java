@@ -0,0 +1,20 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class Pagina<T> {
+    @JsonProperty("conteudo")
+    private List<T> conteudo;
+    @JsonProperty("pagina")
+    private int pagina;
+    @JsonProperty("tamanho")
+    private int tamanho;
+    @JsonProperty("total")
+    private long total;
+}
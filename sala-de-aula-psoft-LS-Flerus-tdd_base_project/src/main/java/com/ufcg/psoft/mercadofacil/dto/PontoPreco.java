@@ -0,0 +1,16 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class PontoPreco {
+    @JsonProperty("instante")
+    private Instant instante;
+    @JsonProperty("preco")
+    private double preco;
+}
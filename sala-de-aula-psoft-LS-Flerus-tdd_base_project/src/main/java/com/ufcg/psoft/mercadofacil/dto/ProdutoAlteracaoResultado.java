@@ -0,0 +1,48 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProdutoAlteracaoResultado {
+    @JsonProperty("id")
+    private Long id;
+    @JsonProperty("sucesso")
+    private boolean sucesso;
+    @JsonProperty("erro")
+    private String erro;
+    @JsonProperty("produto")
+    private Produto produto;
+    // linha do corpo NDJSON que nao pode ser lida como produto
+    @JsonProperty("linha")
+    private Long linha;
+
+    public static ProdutoAlteracaoResultado sucesso(Produto produto) {
+        return ProdutoAlteracaoResultado.builder()
+                .id(produto.getId())
+                .sucesso(true)
+                .produto(produto)
+                .build();
+    }
+
+    public static ProdutoAlteracaoResultado falha(Produto produto, String erro) {
+        return ProdutoAlteracaoResultado.builder()
+                .id(produto == null ? null : produto.getId())
+                .sucesso(false)
+                .erro(erro)
+                .build();
+    }
+
+    public static ProdutoAlteracaoResultado falhaLeitura(long linha, String erro) {
+        return ProdutoAlteracaoResultado.builder()
+                .sucesso(false)
+                .erro(erro)
+                .linha(linha)
+                .build();
+    }
+}
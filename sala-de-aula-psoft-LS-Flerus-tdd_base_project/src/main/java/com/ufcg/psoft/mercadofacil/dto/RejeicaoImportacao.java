@@ -0,0 +1,16 @@
+package com.ufcg.psoft.mercadofacil.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RejeicaoImportacao {
+    @JsonProperty("linha")
+    private long linha;
+    @JsonProperty("codigo")
+    private String codigo;
+    @JsonProperty("mensagem")
+    private String mensagem;
+}
@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.exception;
+
+/**
+ * Produto sem algum campo obrigatorio.
+ */
+public class ArgumentosIncompletosException extends ValidacaoException {
+
+    public ArgumentosIncompletosException() {
+        super("argumentos_incompletos", "Argumentos Incompletos");
+    }
+}
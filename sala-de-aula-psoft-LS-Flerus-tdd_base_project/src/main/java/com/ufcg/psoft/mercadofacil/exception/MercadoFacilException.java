@@ -0,0 +1,23 @@
+package com.ufcg.psoft.mercadofacil.exception;
+
+/**
+ * Base dos erros de negocio esperados, como entrada invalida vinda dos
+ * leitores de codigo de barras.
+ *
+ * Nao guarda stack trace nem excecoes suprimidas: criar e lancar custa pouco
+ * mais que alocar o objeto. O {@code codigo} identifica o tipo de erro para
+ * quem consome a API.
+ */
+public abstract class MercadoFacilException extends RuntimeException {
+
+    private final String codigo;
+
+    protected MercadoFacilException(String codigo, String mensagem) {
+        super(mensagem, null, false, false);
+        this.codigo = codigo;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.exception;
+
+/**
+ * Parametro da requisicao ausente ou que nao pode ser convertido para o tipo esperado.
+ */
+public class ParametroInvalidoException extends MercadoFacilException {
+
+    public ParametroInvalidoException(String parametro) {
+        super("parametro_invalido", "Parametro invalido: " + parametro);
+    }
+}
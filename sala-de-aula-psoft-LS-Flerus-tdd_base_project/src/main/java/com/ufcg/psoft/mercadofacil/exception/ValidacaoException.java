@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.exception;
+
+/**
+ * Produto com algum campo fora das regras de negocio.
+ */
+public class ValidacaoException extends MercadoFacilException {
+
+    public ValidacaoException(String codigo, String mensagem) {
+        super(codigo, mensagem);
+    }
+}
@@ -7,7 +7,7 @@ import lombok.Data;
 @Builder
 public class Lote {
     private Long id;
-    private Produto produto;
+    private Long produtoId;
     private int numeroDeItens;
 }
 
@@ -3,6 +3,7 @@ package com.ufcg.psoft.mercadofacil.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
 @Builder
@@ -17,5 +18,9 @@ public class Produto {
     private String codigoBarra;
     @JsonProperty("fabricante")
     private String fabricante;
+    // controlada pelo repositorio; fica fora do equals para comparar so o conteudo
+    @JsonProperty("versao")
+    @EqualsAndHashCode.Exclude
+    private long versao;
 }
 
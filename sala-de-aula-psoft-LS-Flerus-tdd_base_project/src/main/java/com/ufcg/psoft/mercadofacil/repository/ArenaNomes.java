@@ -0,0 +1,71 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bytes UTF-8 de Strings de tamanho variavel em blocos de memoria fora do heap.
+ *
+ * A alocacao e um ponteiro que so avanca; uma referencia e
+ * {@code bloco << 32 | deslocamento}. Espaco nao e devolvido: quem chama
+ * reaproveita a area de uma String antiga com {@link #sobrescrever} quando a
+ * nova cabe nela. Leituras nao tomam lock, entao quem le precisa validar a
+ * referencia depois (o repositorio faz isso com o stamp da linha).
+ */
+final class ArenaNomes {
+
+    static final int TAMANHO_BLOCO = 1 << 20;
+
+    private volatile ByteBuffer[] blocos = new ByteBuffer[0];
+    private int deslocamento = TAMANHO_BLOCO;
+
+    synchronized long gravar(byte[] bytes) {
+        ByteBuffer[] atuais = blocos;
+        if (deslocamento + bytes.length > TAMANHO_BLOCO) {
+            atuais = Arrays.copyOf(atuais, atuais.length + 1);
+            atuais[atuais.length - 1] = ByteBuffer.allocateDirect(Math.max(TAMANHO_BLOCO, bytes.length));
+            blocos = atuais;
+            deslocamento = 0;
+        }
+        long referencia = (long) (atuais.length - 1) << 32 | deslocamento;
+        atuais[atuais.length - 1].put(deslocamento, bytes);
+        // um nome maior que o bloco ganha um bloco so para ele e a proxima gravacao abre outro
+        deslocamento += bytes.length;
+        return referencia;
+    }
+
+    void sobrescrever(long referencia, byte[] bytes) {
+        blocos[(int) (referencia >>> 32)].put((int) referencia, bytes);
+    }
+
+    /** Copia {@code tamanho} bytes; devolve {@code null} se a referencia nao existir. */
+    byte[] ler(long referencia, int tamanho) {
+        ByteBuffer[] atuais = blocos;
+        int bloco = (int) (referencia >>> 32);
+        int inicio = (int) referencia;
+        if (bloco < 0 || bloco >= atuais.length || inicio < 0 || tamanho < 0
+                || inicio + tamanho > atuais[bloco].capacity()) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        atuais[bloco].get(inicio, bytes);
+        return bytes;
+    }
+
+    long bytesReservados() {
+        long total = 0;
+        for (ByteBuffer bloco : blocos) {
+            total += bloco.capacity();
+        }
+        return total;
+    }
+
+    static byte[] codificar(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String decodificar(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.util.List;
+
+public interface ClienteRepository<T, ID> {
+    T save(T cliente);
+    T find(ID id);
+    T findByCpf(long cpf);
+    List<T> findAll();
+    long count();
+    T update(T cliente);
+    void delete(T cliente);
+    void deleteAll();
+}
@@ -0,0 +1,152 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repositorio de clientes em memoria, com indice unico de CPF.
+ *
+ * O CPF ja e um {@code long}, entao o indice sao dois {@link IndiceLong}
+ * (CPF para id e id para CPF) e a busca por CPF nao aloca. Cada id guarda o
+ * CPF que reservou, como no {@link IndiceCodigoBarra}: o indice muda dentro do
+ * compute do id e a liberacao nao depende do objeto do chamador. Os clientes
+ * entram e saem como copias.
+ */
+@Repository
+public class ClienteVolatilRepository implements ClienteRepository<Cliente, Long> {
+
+    private final Map<Long, Cliente> clientes = new ConcurrentHashMap<>();
+    private final IndiceLong idPorCpf = new IndiceLong();
+    private final IndiceLong cpfPorId = new IndiceLong();
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    @Override
+    public Cliente save(Cliente cliente) {
+        if (cliente.getId() != null) {
+            proximoId.accumulateAndGet(cliente.getId() + 1, Math::max);
+            Cliente copia = copiar(cliente);
+            return copiar(clientes.compute(copia.getId(), (id, antigo) -> substituir(antigo, copia)));
+        }
+        // Um id explicito salvo em paralelo pode ocupar o proximo valor do contador
+        while (true) {
+            Cliente copia = copiar(cliente);
+            copia.setId(proximoId.getAndIncrement());
+            if (clientes.compute(copia.getId(), (id, antigo) -> antigo != null ? antigo : substituir(null, copia)) == copia) {
+                cliente.setId(copia.getId());
+                return copiar(copia);
+            }
+        }
+    }
+
+    @Override
+    public Cliente find(Long id) {
+        return id == null ? null : copiar(clientes.get(id));
+    }
+
+    @Override
+    public Cliente findByCpf(long cpf) {
+        if (cpf < 0) {
+            return null;
+        }
+        long id = idPorCpf.get(cpf);
+        if (id == IndiceLong.AUSENTE) {
+            return null;
+        }
+        // o indice e reservado antes do cliente ser publicado no mapa
+        Cliente cliente = clientes.get(id);
+        return cliente != null && cliente.getCpf() != null && cliente.getCpf() == cpf ? copiar(cliente) : null;
+    }
+
+    @Override
+    public List<Cliente> findAll() {
+        List<Cliente> todos = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes.values()) {
+            todos.add(copiar(cliente));
+        }
+        return todos;
+    }
+
+    @Override
+    public long count() {
+        return clientes.size();
+    }
+
+    @Override
+    public Cliente update(Cliente cliente) {
+        if (cliente.getId() == null) {
+            return null;
+        }
+        Cliente copia = copiar(cliente);
+        return copiar(clientes.computeIfPresent(copia.getId(), (id, antigo) -> substituir(antigo, copia)));
+    }
+
+    @Override
+    public void delete(Cliente cliente) {
+        if (cliente.getId() != null) {
+            remover(cliente.getId());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        clientes.keySet().forEach(this::remover);
+    }
+
+    private void remover(Long id) {
+        clientes.computeIfPresent(id, (chave, antigo) -> substituir(antigo, null));
+    }
+
+    // chamado dentro do compute do id, entao indice e mapa mudam juntos para cada cliente
+    private Cliente substituir(Cliente antigo, Cliente novo) {
+        if (novo == null) {
+            liberar(antigo.getId());
+        } else if (!reservar(novo)) {
+            throw new CpfDuplicadoException();
+        }
+        return novo;
+    }
+
+    private boolean reservar(Cliente cliente) {
+        long id = cliente.getId();
+        if (cliente.getCpf() == null) {
+            liberar(id);
+            return true;
+        }
+        long cpf = cliente.getCpf();
+        if (cpfPorId.get(id) == cpf) {
+            return true;
+        }
+        long dono = idPorCpf.putIfAbsent(cpf, id);
+        if (dono != IndiceLong.AUSENTE && dono != id) {
+            return false;
+        }
+        long anterior = cpfPorId.put(id, cpf);
+        if (anterior != IndiceLong.AUSENTE) {
+            idPorCpf.remove(anterior, id);
+        }
+        return true;
+    }
+
+    private void liberar(long id) {
+        long cpf = cpfPorId.remove(id);
+        if (cpf != IndiceLong.AUSENTE) {
+            idPorCpf.remove(cpf, id);
+        }
+    }
+
+    private static Cliente copiar(Cliente cliente) {
+        return cliente == null ? null : Cliente.builder()
+                .id(cliente.getId())
+                .cpf(cliente.getCpf())
+                .nome(cliente.getNome())
+                .idade(cliente.getIdade())
+                .endereco(cliente.getEndereco())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+
+public class CodigoBarraDuplicadoException extends MercadoFacilException {
+
+    public CodigoBarraDuplicadoException() {
+        super("codigo_barra_duplicado", "Codigo de barra ja cadastrado!");
+    }
+}
@@ -0,0 +1,109 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Campos de largura fixa dos produtos em colunas fora do heap.
+ *
+ * As linhas sao agrupadas em blocos de {@link #LINHAS_POR_BLOCO}; cada bloco e
+ * um {@link ByteBuffer} direto com uma coluna depois da outra, entao percorrer
+ * um campo (por exemplo o fabricante) le memoria contigua. Os acessos sao
+ * absolutos e sem lock: a consistencia de uma linha fica com o repositorio.
+ */
+final class ColunasProduto {
+
+    static final int BITS_BLOCO = 16;
+    static final int LINHAS_POR_BLOCO = 1 << BITS_BLOCO;
+
+    private static final int ID = 0;
+    private static final int PRECO = ID + 8 * LINHAS_POR_BLOCO;
+    private static final int CODIGO = PRECO + 8 * LINHAS_POR_BLOCO;
+    private static final int NOME = CODIGO + 8 * LINHAS_POR_BLOCO;
+    private static final int NOME_TAMANHO = NOME + 8 * LINHAS_POR_BLOCO;
+    private static final int NOME_CAPACIDADE = NOME_TAMANHO + 4 * LINHAS_POR_BLOCO;
+    private static final int FABRICANTE = NOME_CAPACIDADE + 4 * LINHAS_POR_BLOCO;
+    private static final int VERSAO = FABRICANTE + 4 * LINHAS_POR_BLOCO;
+    private static final int BYTES_BLOCO = VERSAO + 8 * LINHAS_POR_BLOCO;
+
+    private volatile ByteBuffer[] blocos = new ByteBuffer[0];
+
+    /** Aloca os blocos ate a linha, se preciso. */
+    synchronized void garantir(int linha) {
+        int necessarios = (linha >>> BITS_BLOCO) + 1;
+        ByteBuffer[] atuais = blocos;
+        if (necessarios > atuais.length) {
+            atuais = Arrays.copyOf(atuais, necessarios);
+            for (int i = blocos.length; i < necessarios; i++) {
+                atuais[i] = ByteBuffer.allocateDirect(BYTES_BLOCO);
+            }
+            blocos = atuais;
+        }
+    }
+
+    int capacidade() {
+        return blocos.length * LINHAS_POR_BLOCO;
+    }
+
+    long bytesReservados() {
+        return (long) blocos.length * BYTES_BLOCO;
+    }
+
+    long id(int linha) {
+        return bloco(linha).getLong(ID + 8 * posicao(linha));
+    }
+
+    long precoCentavos(int linha) {
+        return bloco(linha).getLong(PRECO + 8 * posicao(linha));
+    }
+
+    long chaveCodigoBarra(int linha) {
+        return bloco(linha).getLong(CODIGO + 8 * posicao(linha));
+    }
+
+    long nome(int linha) {
+        return bloco(linha).getLong(NOME + 8 * posicao(linha));
+    }
+
+    int nomeTamanho(int linha) {
+        return bloco(linha).getInt(NOME_TAMANHO + 4 * posicao(linha));
+    }
+
+    int nomeCapacidade(int linha) {
+        return bloco(linha).getInt(NOME_CAPACIDADE + 4 * posicao(linha));
+    }
+
+    int fabricante(int linha) {
+        return bloco(linha).getInt(FABRICANTE + 4 * posicao(linha));
+    }
+
+    long versao(int linha) {
+        return bloco(linha).getLong(VERSAO + 8 * posicao(linha));
+    }
+
+    void escrever(int linha, long id, long precoCentavos, long chaveCodigoBarra,
+                  long nome, int nomeTamanho, int nomeCapacidade, int fabricante, long versao) {
+        ByteBuffer bloco = bloco(linha);
+        int posicao = posicao(linha);
+        bloco.putLong(ID + 8 * posicao, id);
+        bloco.putLong(PRECO + 8 * posicao, precoCentavos);
+        bloco.putLong(CODIGO + 8 * posicao, chaveCodigoBarra);
+        bloco.putLong(NOME + 8 * posicao, nome);
+        bloco.putInt(NOME_TAMANHO + 4 * posicao, nomeTamanho);
+        bloco.putInt(NOME_CAPACIDADE + 4 * posicao, nomeCapacidade);
+        bloco.putInt(FABRICANTE + 4 * posicao, fabricante);
+        bloco.putLong(VERSAO + 8 * posicao, versao);
+    }
+
+    void limparId(int linha) {
+        bloco(linha).putLong(ID + 8 * posicao(linha), IndiceLong.AUSENTE);
+    }
+
+    private ByteBuffer bloco(int linha) {
+        return blocos[linha >>> BITS_BLOCO];
+    }
+
+    private static int posicao(int linha) {
+        return linha & (LINHAS_POR_BLOCO - 1);
+    }
+}
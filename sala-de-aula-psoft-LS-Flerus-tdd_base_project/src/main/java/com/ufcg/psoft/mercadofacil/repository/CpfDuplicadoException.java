@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+
+public class CpfDuplicadoException extends MercadoFacilException {
+
+    public CpfDuplicadoException() {
+        super("cpf_duplicado", "CPF ja cadastrado!");
+    }
+}
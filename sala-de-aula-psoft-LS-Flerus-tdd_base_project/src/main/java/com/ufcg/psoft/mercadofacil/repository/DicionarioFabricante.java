@@ -0,0 +1,56 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionario concorrente de nomes de fabricante para ids {@code int}
+ * sequenciais a partir de zero. Um nome recebe um id na primeira vez que e
+ * codificado e nunca o perde, entao os ids podem ser guardados em vez da
+ * String.
+ *
+ * A leitura de {@link #nome(int)} e um acesso a array sem lock: o nome e
+ * escrito antes do id ser publicado no mapa.
+ */
+public final class DicionarioFabricante {
+
+    public static final int AUSENTE = -1;
+
+    private final Map<String, Integer> idPorNome = new ConcurrentHashMap<>();
+    private volatile String[] nomes = new String[16];
+    private int tamanho;
+
+    /** Id do nome, registrando-o se for novo; {@link #AUSENTE} para {@code null}. */
+    public int codificar(String nome) {
+        if (nome == null) {
+            return AUSENTE;
+        }
+        Integer id = idPorNome.get(nome);
+        return id != null ? id : idPorNome.computeIfAbsent(nome, this::registrar);
+    }
+
+    /** Id do nome sem registra-lo, ou {@link #AUSENTE}. */
+    public int buscar(String nome) {
+        Integer id = nome == null ? null : idPorNome.get(nome);
+        return id == null ? AUSENTE : id;
+    }
+
+    public String nome(int id) {
+        return id == AUSENTE ? null : nomes[id];
+    }
+
+    public int tamanho() {
+        return idPorNome.size();
+    }
+
+    private synchronized int registrar(String nome) {
+        String[] atuais = nomes;
+        if (tamanho == atuais.length) {
+            atuais = Arrays.copyOf(atuais, tamanho * 2);
+        }
+        atuais[tamanho] = nome;
+        nomes = atuais;
+        return tamanho++;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+
+public class EstoqueInsuficienteException extends MercadoFacilException {
+
+    public EstoqueInsuficienteException() {
+        super("estoque_insuficiente", "Estoque insuficiente no lote!");
+    }
+}
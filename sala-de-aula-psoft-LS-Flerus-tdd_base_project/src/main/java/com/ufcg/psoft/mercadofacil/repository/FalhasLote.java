@@ -0,0 +1,13 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+
+/**
+ * Recebe as falhas item a item de uma operacao em lote do repositorio. O item
+ * que falha fica de fora, com {@code null} na sua posicao do resultado, e os
+ * demais seguem aplicados uma unica vez.
+ */
+@FunctionalInterface
+public interface FalhasLote {
+    void falhou(int posicao, MercadoFacilException motivo);
+}
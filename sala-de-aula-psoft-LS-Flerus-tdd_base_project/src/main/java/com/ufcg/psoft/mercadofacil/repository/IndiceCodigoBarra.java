@@ -0,0 +1,139 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice unico de codigo de barras para ids de produto.
+ *
+ * Codigos so com digitos (ate 18, o que cobre EAN-13) viram um {@code long}
+ * em {@link #chave(CharSequence)} e ficam em {@link IndiceLong}, sem Strings.
+ * Qualquer outro codigo cai num mapa comum.
+ *
+ * Cada id guarda tambem a chave que reservou, entao a liberacao nao depende do
+ * codigo que o produto tem no momento. A troca de codigo e feita em duas etapas
+ * (reservar, depois confirmar ou desfazer) para que uma escrita abortada depois
+ * da reserva nao deixe o indice apontando para um codigo que o produto nao tem.
+ * As chamadas para um mesmo id precisam ser serializadas pelo chamador, o que o
+ * repositorio faz com o compute do id.
+ */
+final class IndiceCodigoBarra {
+
+    private static final long[] POTENCIAS = new long[19];
+
+    static {
+        POTENCIAS[0] = 1;
+        for (int i = 1; i < POTENCIAS.length; i++) {
+            POTENCIAS[i] = POTENCIAS[i - 1] * 10;
+        }
+    }
+
+    private final IndiceLong idPorChave = new IndiceLong();
+    private final IndiceLong chavePorId = new IndiceLong();
+    private final Map<String, Long> idPorCodigo = new ConcurrentHashMap<>();
+    private final Map<Long, String> codigoPorId = new ConcurrentHashMap<>();
+
+    /**
+     * Codifica um codigo numerico como {@code 10^tamanho + valor}, preservando
+     * zeros a esquerda. Devolve {@link IndiceLong#AUSENTE} se o codigo nao for
+     * numerico ou for longo demais.
+     */
+    static long chave(CharSequence codigo) {
+        int tamanho = codigo.length();
+        if (tamanho == 0 || tamanho >= POTENCIAS.length) {
+            return IndiceLong.AUSENTE;
+        }
+        long valor = 0;
+        for (int i = 0; i < tamanho; i++) {
+            int digito = codigo.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return IndiceLong.AUSENTE;
+            }
+            valor = valor * 10 + digito;
+        }
+        return POTENCIAS[tamanho] + valor;
+    }
+
+    /** Inverso de {@link #chave(CharSequence)}. */
+    static String codigo(long chave) {
+        int tamanho = POTENCIAS.length - 1;
+        while (POTENCIAS[tamanho] > chave) {
+            tamanho--;
+        }
+        char[] digitos = new char[tamanho];
+        long valor = chave - POTENCIAS[tamanho];
+        for (int i = tamanho - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return new String(digitos);
+    }
+
+    /**
+     * Reserva o codigo do registro para o seu id sem soltar o codigo anterior.
+     * Devolve {@code false}, sem alterar nada, se outro id ja tem o codigo.
+     * Depois de uma reserva o chamador faz {@link #confirmar} ou {@link #desfazer}.
+     */
+    boolean reservar(ProdutoRegistro registro) {
+        long id = registro.getId();
+        if (registro.getChaveCodigoBarra() != IndiceLong.AUSENTE) {
+            long dono = idPorChave.putIfAbsent(registro.getChaveCodigoBarra(), id);
+            return dono == IndiceLong.AUSENTE || dono == id;
+        }
+        if (registro.getCodigoBarraTexto() != null) {
+            Long dono = idPorCodigo.putIfAbsent(registro.getCodigoBarraTexto(), id);
+            return dono == null || dono == id;
+        }
+        return true;
+    }
+
+    /** Torna o codigo reservado o codigo do id e libera o anterior. */
+    void confirmar(ProdutoRegistro registro) {
+        long id = registro.getId();
+        long chave = registro.getChaveCodigoBarra();
+        String codigo = chave == IndiceLong.AUSENTE ? registro.getCodigoBarraTexto() : null;
+        if (chave != IndiceLong.AUSENTE ? chavePorId.get(id) == chave : codigo != null && codigo.equals(codigoPorId.get(id))) {
+            return;
+        }
+        liberar(id);
+        if (chave != IndiceLong.AUSENTE) {
+            chavePorId.put(id, chave);
+        } else if (codigo != null) {
+            codigoPorId.put(id, codigo);
+        }
+    }
+
+    /** Solta uma reserva que nao foi confirmada; o codigo atual do id continua com ele. */
+    void desfazer(ProdutoRegistro registro) {
+        long id = registro.getId();
+        long chave = registro.getChaveCodigoBarra();
+        if (chave != IndiceLong.AUSENTE) {
+            if (chavePorId.get(id) != chave) {
+                idPorChave.remove(chave, id);
+            }
+        } else if (registro.getCodigoBarraTexto() != null && !registro.getCodigoBarraTexto().equals(codigoPorId.get(id))) {
+            idPorCodigo.remove(registro.getCodigoBarraTexto(), id);
+        }
+    }
+
+    void liberar(long id) {
+        long chave = chavePorId.remove(id);
+        if (chave != IndiceLong.AUSENTE) {
+            idPorChave.remove(chave, id);
+        }
+        String codigo = codigoPorId.remove(id);
+        if (codigo != null) {
+            idPorCodigo.remove(codigo, id);
+        }
+    }
+
+    /** Id do produto com o codigo, ou {@link IndiceLong#AUSENTE}. */
+    long buscar(String codigo) {
+        long chave = chave(codigo);
+        if (chave != IndiceLong.AUSENTE) {
+            return idPorChave.get(chave);
+        }
+        Long id = idPorCodigo.get(codigo);
+        return id == null ? IndiceLong.AUSENTE : id;
+    }
+}
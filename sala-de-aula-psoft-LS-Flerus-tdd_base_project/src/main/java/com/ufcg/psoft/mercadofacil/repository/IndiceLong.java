@@ -0,0 +1,243 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa concorrente de {@code long} para {@code long} sem boxing.
+ *
+ * As chaves sao distribuidas em segmentos, cada um com uma tabela de
+ * enderecamento aberto (sondagem linear, remocao por deslocamento) e um
+ * {@link StampedLock}: leituras sao otimistas e so pegam o lock se uma escrita
+ * no mesmo segmento acontecer no meio; escritas travam apenas o segmento.
+ *
+ * {@link #AUSENTE} marca posicoes vazias, entao nao pode ser usado como chave
+ * nem como valor.
+ */
+final class IndiceLong {
+
+    static final long AUSENTE = Long.MIN_VALUE;
+
+    private static final int BITS_SEGMENTOS = 6;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private final Segmento[] segmentos = new Segmento[1 << BITS_SEGMENTOS];
+
+    IndiceLong() {
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = new Segmento();
+        }
+    }
+
+    long get(long chave) {
+        long hash = hash(chave);
+        return segmento(hash).get(chave, hash);
+    }
+
+    /** Devolve o valor ja associado a chave, ou {@link #AUSENTE} se inseriu. */
+    long putIfAbsent(long chave, long valor) {
+        long hash = hash(verificar(chave));
+        return segmento(hash).put(chave, verificar(valor), hash, true);
+    }
+
+    /** Devolve o valor anterior, ou {@link #AUSENTE}. */
+    long put(long chave, long valor) {
+        long hash = hash(verificar(chave));
+        return segmento(hash).put(chave, verificar(valor), hash, false);
+    }
+
+    /** Devolve o valor removido, ou {@link #AUSENTE}. */
+    long remove(long chave) {
+        long hash = hash(chave);
+        return segmento(hash).remove(chave, AUSENTE, hash);
+    }
+
+    /** Remove a chave apenas se ela estiver associada a {@code valor}. */
+    boolean remove(long chave, long valor) {
+        long hash = hash(chave);
+        return segmento(hash).remove(chave, valor, hash) != AUSENTE;
+    }
+
+    void clear() {
+        for (Segmento segmento : segmentos) {
+            segmento.clear();
+        }
+    }
+
+    int size() {
+        int tamanho = 0;
+        for (Segmento segmento : segmentos) {
+            tamanho += segmento.tamanho;
+        }
+        return tamanho;
+    }
+
+    private Segmento segmento(long hash) {
+        return segmentos[(int) (hash >>> (Long.SIZE - BITS_SEGMENTOS))];
+    }
+
+    private static long verificar(long valor) {
+        if (valor == AUSENTE) {
+            throw new IllegalArgumentException("Long.MIN_VALUE e reservado");
+        }
+        return valor;
+    }
+
+    // finalizador do MurmurHash3: ids e codigos sequenciais se espalham pela tabela
+    private static long hash(long chave) {
+        chave ^= chave >>> 33;
+        chave *= 0xff51afd7ed558ccdL;
+        chave ^= chave >>> 33;
+        chave *= 0xc4ceb9fe1a85ec53L;
+        chave ^= chave >>> 33;
+        return chave;
+    }
+
+    private static final class Segmento {
+
+        private final StampedLock lock = new StampedLock();
+        // chave e valor intercalados: uma unica referencia para ler de forma otimista
+        private volatile long[] tabela = vazia(CAPACIDADE_INICIAL);
+        private volatile int tamanho;
+
+        long get(long chave, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            long valor = procurar(tabela, chave, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    valor = procurar(tabela, chave, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return valor;
+        }
+
+        long put(long chave, long valor, long hash, boolean somenteSeAusente) {
+            long stamp = lock.writeLock();
+            try {
+                long[] atual = tabela;
+                int mascara = (atual.length >> 1) - 1;
+                int posicao = (int) hash & mascara;
+                while (atual[posicao << 1] != AUSENTE) {
+                    if (atual[posicao << 1] == chave) {
+                        long anterior = atual[(posicao << 1) + 1];
+                        if (!somenteSeAusente) {
+                            atual[(posicao << 1) + 1] = valor;
+                        }
+                        return anterior;
+                    }
+                    posicao = (posicao + 1) & mascara;
+                }
+                atual[posicao << 1] = chave;
+                atual[(posicao << 1) + 1] = valor;
+                tamanho++;
+                if (tamanho * 2 > mascara + 1) {
+                    tabela = redimensionar(atual);
+                }
+                return AUSENTE;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long remove(long chave, long esperado, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                long[] atual = tabela;
+                int mascara = (atual.length >> 1) - 1;
+                int posicao = (int) hash & mascara;
+                while (atual[posicao << 1] != chave) {
+                    if (atual[posicao << 1] == AUSENTE) {
+                        return AUSENTE;
+                    }
+                    posicao = (posicao + 1) & mascara;
+                }
+                long valor = atual[(posicao << 1) + 1];
+                if (esperado != AUSENTE && valor != esperado) {
+                    return AUSENTE;
+                }
+                deslocar(atual, posicao, mascara);
+                tamanho--;
+                return valor;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                tabela = vazia(CAPACIDADE_INICIAL);
+                tamanho = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private static long procurar(long[] tabela, long chave, long hash) {
+            int capacidade = tabela.length >> 1;
+            int posicao = (int) hash & (capacidade - 1);
+            // limitado pela capacidade: uma leitura otimista pode ver a tabela no meio de uma escrita
+            for (int i = 0; i < capacidade; i++) {
+                long atual = tabela[posicao << 1];
+                if (atual == chave) {
+                    return tabela[(posicao << 1) + 1];
+                }
+                if (atual == AUSENTE) {
+                    return AUSENTE;
+                }
+                posicao = (posicao + 1) & (capacidade - 1);
+            }
+            return AUSENTE;
+        }
+
+        // fecha o buraco deixado pela remocao para a sondagem linear continuar encontrando as chaves seguintes
+        private static void deslocar(long[] tabela, int buraco, int mascara) {
+            int posicao = buraco;
+            while (true) {
+                posicao = (posicao + 1) & mascara;
+                long chave = tabela[posicao << 1];
+                if (chave == AUSENTE) {
+                    break;
+                }
+                int ideal = (int) hash(chave) & mascara;
+                boolean podeMover = buraco <= posicao
+                        ? ideal <= buraco || ideal > posicao
+                        : ideal <= buraco && ideal > posicao;
+                if (podeMover) {
+                    tabela[buraco << 1] = chave;
+                    tabela[(buraco << 1) + 1] = tabela[(posicao << 1) + 1];
+                    buraco = posicao;
+                }
+            }
+            tabela[buraco << 1] = AUSENTE;
+            tabela[(buraco << 1) + 1] = AUSENTE;
+        }
+
+        private static long[] redimensionar(long[] atual) {
+            int capacidade = atual.length;
+            long[] nova = vazia(capacidade);
+            int mascara = capacidade - 1;
+            for (int i = 0; i < atual.length; i += 2) {
+                long chave = atual[i];
+                if (chave != AUSENTE) {
+                    int posicao = (int) hash(chave) & mascara;
+                    while (nova[posicao << 1] != AUSENTE) {
+                        posicao = (posicao + 1) & mascara;
+                    }
+                    nova[posicao << 1] = chave;
+                    nova[(posicao << 1) + 1] = atual[i + 1];
+                }
+            }
+            return nova;
+        }
+
+        private static long[] vazia(int capacidade) {
+            long[] tabela = new long[capacidade << 1];
+            Arrays.fill(tabela, AUSENTE);
+            return tabela;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Simula um repositorio remoto bloqueando a thread chamadora por uma latencia
+ * fixa em cada operacao. Usado em testes de carga.
+ */
+public class LatenciaProdutoRepository extends ProdutoRepositoryDecorator {
+
+    private final long latenciaNanos;
+
+    public LatenciaProdutoRepository(ProdutoRepository<Produto, Long> delegate, Duration latencia) {
+        super(delegate);
+        this.latenciaNanos = latencia.toNanos();
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        aguardar();
+        return delegate.save(produto);
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        aguardar();
+        return delegate.saveAll(produtos, falhas);
+    }
+
+    @Override
+    public Produto find(Long id) {
+        aguardar();
+        return delegate.find(id);
+    }
+
+    @Override
+    public Produto findByCodigoBarra(String codigoBarra) {
+        aguardar();
+        return delegate.findByCodigoBarra(codigoBarra);
+    }
+
+    @Override
+    public List<Produto> findByFabricante(String fabricante) {
+        aguardar();
+        return delegate.findByFabricante(fabricante);
+    }
+
+    // uma ida ao repositorio para o lote inteiro de ids
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        aguardar();
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Produto> findAll() {
+        aguardar();
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        aguardar();
+        return delegate.stream();
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        aguardar();
+        return delegate.update(produto);
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        aguardar();
+        return delegate.compareAndSet(produto, versaoEsperada);
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        aguardar();
+        return delegate.updateAll(produtos, falhas);
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        aguardar();
+        delegate.delete(produto);
+    }
+
+    @Override
+    public void deleteAll() {
+        aguardar();
+        delegate.deleteAll();
+    }
+
+    // parkNanos libera a thread de plataforma quando chamado numa thread virtual
+    private void aguardar() {
+        long fim = System.nanoTime() + latenciaNanos;
+        for (long restante = latenciaNanos; restante > 0; restante = fim - System.nanoTime()) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
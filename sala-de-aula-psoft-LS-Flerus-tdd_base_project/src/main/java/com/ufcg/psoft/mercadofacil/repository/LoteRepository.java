@@ -1,13 +1,18 @@
 package com.ufcg.psoft.mercadofacil.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface LoteRepository<T, ID> {
     T save(T lote);
+    List<T> saveAll(List<T> lotes);
     T find(ID id);
     List<T> findAll();
+    Stream<T> stream();
+    long count();
+    List<T> findByProduto(ID produtoId);
     T update(T lote);
+    T reservar(ID id, int quantidade);
     void delete(T lote);
     void deleteAll();
 }
-
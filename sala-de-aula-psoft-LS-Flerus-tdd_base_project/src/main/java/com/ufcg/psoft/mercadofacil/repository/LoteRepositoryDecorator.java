@@ -0,0 +1,74 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base para repositorios que envolvem outro repositorio de lotes e
+ * interceptam apenas algumas operacoes.
+ */
+public abstract class LoteRepositoryDecorator implements LoteRepository<Lote, Long> {
+
+    protected final LoteRepository<Lote, Long> delegate;
+
+    protected LoteRepositoryDecorator(LoteRepository<Lote, Long> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Lote save(Lote lote) {
+        return delegate.save(lote);
+    }
+
+    @Override
+    public List<Lote> saveAll(List<Lote> lotes) {
+        return delegate.saveAll(lotes);
+    }
+
+    @Override
+    public Lote find(Long id) {
+        return delegate.find(id);
+    }
+
+    @Override
+    public List<Lote> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Lote> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public List<Lote> findByProduto(Long produtoId) {
+        return delegate.findByProduto(produtoId);
+    }
+
+    @Override
+    public Lote update(Lote lote) {
+        return delegate.update(lote);
+    }
+
+    @Override
+    public Lote reservar(Long id, int quantidade) {
+        return delegate.reservar(id, quantidade);
+    }
+
+    @Override
+    public void delete(Lote lote) {
+        delegate.delete(lote);
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+    }
+}
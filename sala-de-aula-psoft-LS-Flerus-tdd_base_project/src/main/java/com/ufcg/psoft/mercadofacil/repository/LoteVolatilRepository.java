@@ -1,48 +1,190 @@
 package com.ufcg.psoft.mercadofacil.repository;
 
 import com.ufcg.psoft.mercadofacil.model.Lote;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Repository
 public class LoteVolatilRepository implements LoteRepository<Lote, Long> {
 
-    List<Lote> lotes = new ArrayList<>();
+    private final Map<Long, Lote> lotes = new ConcurrentHashMap<>();
+    // Indice secundario produto.id -> ids dos lotes, mantido dentro do compute() de cada lote
+    private final Map<Long, Set<Long>> lotesPorProduto = new ConcurrentHashMap<>();
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    private final List<RepositoryListener<Lote>> listeners;
+
+    public LoteVolatilRepository() {
+        this(List.of());
+    }
+
+    public LoteVolatilRepository(List<RepositoryListener<Lote>> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Autowired
+    public LoteVolatilRepository(ObjectProvider<RepositoryListener<Lote>> listeners) {
+        this(listeners.orderedStream().toList());
+    }
 
     @Override
     public Lote save(Lote lote) {
-        lotes.add(lote);
-        return lotes.stream().findFirst().get();
+        if (lote.getId() != null) {
+            proximoId.accumulateAndGet(lote.getId() + 1, Math::max);
+            Lote copia = copiar(lote);
+            return copiar(lotes.compute(copia.getId(), (id, antigo) -> substituir(antigo, copia)));
+        }
+        // Um id explicito salvo em paralelo pode ocupar o proximo valor do contador
+        while (true) {
+            Lote copia = copiar(lote);
+            copia.setId(proximoId.getAndIncrement());
+            if (lotes.compute(copia.getId(), (id, antigo) -> antigo != null ? antigo : substituir(null, copia)) == copia) {
+                lote.setId(copia.getId());
+                return copiar(copia);
+            }
+        }
+    }
+
+    @Override
+    public List<Lote> saveAll(List<Lote> lotes) {
+        List<Lote> salvos = new ArrayList<>(lotes.size());
+        for (Lote lote : lotes) {
+            salvos.add(save(lote));
+        }
+        return salvos;
     }
 
     @Override
     public Lote find(Long id) {
-        return lotes.get(Integer.parseInt("" + id));
+        return id == null ? null : copiar(lotes.get(id));
     }
 
     @Override
     public List<Lote> findAll() {
-        return lotes;
+        List<Lote> todos = new ArrayList<>(lotes.size());
+        for (Lote lote : lotes.values()) {
+            todos.add(copiar(lote));
+        }
+        return todos;
+    }
+
+    @Override
+    public Stream<Lote> stream() {
+        return lotes.values().stream().map(LoteVolatilRepository::copiar);
+    }
+
+    @Override
+    public long count() {
+        return lotes.size();
+    }
+
+    @Override
+    public List<Lote> findByProduto(Long produtoId) {
+        Set<Long> ids = produtoId == null ? null : lotesPorProduto.get(produtoId);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<Lote> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Lote lote = lotes.get(id);
+            if (lote != null && produtoId.equals(produtoId(lote))) {
+                resultado.add(copiar(lote));
+            }
+        }
+        return resultado;
     }
 
     @Override
     public Lote update(Lote lote) {
-        lotes.clear();
-        lotes.add(lote);
-        return lotes.stream().findFirst().orElse(null);
+        if (lote.getId() == null) {
+            return null;
+        }
+        Lote copia = copiar(lote);
+        return copiar(lotes.computeIfPresent(copia.getId(), (id, antigo) -> substituir(antigo, copia)));
+    }
+
+    // O compute trava so o bin do lote: reservas em lotes diferentes nao se esperam e,
+    // no mesmo lote, a checagem do saldo e a baixa acontecem sob o mesmo lock. Sem saldo,
+    // a excecao sai do compute e o lote fica como estava.
+    @Override
+    public Lote reservar(Long id, int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("quantidade deve ser positiva");
+        }
+        if (id == null) {
+            return null;
+        }
+        return copiar(lotes.computeIfPresent(id, (chave, antigo) -> {
+            if (antigo.getNumeroDeItens() < quantidade) {
+                throw new EstoqueInsuficienteException();
+            }
+            return substituir(antigo, Lote.builder()
+                    .id(antigo.getId())
+                    .produtoId(antigo.getProdutoId())
+                    .numeroDeItens(antigo.getNumeroDeItens() - quantidade)
+                    .build());
+        }));
     }
 
     @Override
     public void delete(Lote lote) {
-        lotes.clear();
+        if (lote.getId() != null) {
+            remover(lote.getId());
+        }
     }
 
     @Override
     public void deleteAll() {
-        lotes.clear();
+        lotes.keySet().forEach(this::remover);
+    }
+
+    private void remover(Long id) {
+        lotes.computeIfPresent(id, (chave, antigo) -> substituir(antigo, null));
     }
 
+    private Lote substituir(Lote antigo, Lote novo) {
+        RepositoryListener.notificar(listeners, antigo, novo);
+        if (antigo != null && novo != null && Objects.equals(produtoId(antigo), produtoId(novo))) {
+            return novo;
+        }
+        if (antigo != null && produtoId(antigo) != null) {
+            lotesPorProduto.computeIfPresent(produtoId(antigo), (produtoId, ids) -> {
+                ids.remove(antigo.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (novo != null && produtoId(novo) != null) {
+            lotesPorProduto.compute(produtoId(novo), (produtoId, ids) -> {
+                Set<Long> atualizados = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                atualizados.add(novo.getId());
+                return atualizados;
+            });
+        }
+        return novo;
+    }
 
+    private static Long produtoId(Lote lote) {
+        return lote.getProdutoId();
+    }
+
+    // O mapa guarda copias: quem altera o lote devolvido antes do update nao muda o
+    // antigo visto pelos listeners nem o indice por produto
+    private static Lote copiar(Lote lote) {
+        return lote == null ? null : Lote.builder()
+                .id(lote.getId())
+                .produtoId(lote.getProdutoId())
+                .numeroDeItens(lote.getNumeroDeItens())
+                .build();
+    }
 }
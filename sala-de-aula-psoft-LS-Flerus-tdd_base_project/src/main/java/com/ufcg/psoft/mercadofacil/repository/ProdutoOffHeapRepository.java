@@ -0,0 +1,459 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de produtos com os campos fora do heap, para catalogos em que o
+ * numero de objetos vivos pesa no GC. Ativado com
+ * {@code mercadofacil.produtos.armazenamento=offheap}.
+ *
+ * Id, preco em centavos, codigo de barras como {@code long}, id do
+ * fabricante e versao ficam em {@link ColunasProduto}; o nome fica em {@link ArenaNomes}.
+ * No heap restam so os indices de {@code long} (arrays primitivos), o
+ * dicionario de fabricantes e os codigos de barras nao numericos.
+ * A Foreign Memory API ainda e incubadora no Java 17, por isso os blocos sao
+ * {@code ByteBuffer}s diretos.
+ *
+ * Cada id e protegido por um {@link StampedLock} de uma faixa: escritas travam
+ * a faixa, leituras sao otimistas e so travam se uma escrita acontecer no meio.
+ * {@link #findByFabricante(String)} percorre a coluna de fabricantes e
+ * {@link #percorrer(Consumer)} entrega uma {@link Visao} reaproveitada em vez
+ * de criar um {@link Produto} por linha.
+ */
+@Repository("produtoArmazenamento")
+@ConditionalOnProperty(name = "mercadofacil.produtos.armazenamento", havingValue = "offheap")
+public class ProdutoOffHeapRepository implements ProdutoRepository<Produto, Long> {
+
+    private static final int BITS_TRAVAS = 6;
+    private static final int NOME_NULO = -1;
+    private static final long QUALQUER_VERSAO = -1;
+
+    private enum Modo { SALVAR, INSERIR, ATUALIZAR }
+
+    private final StampedLock[] travas = new StampedLock[1 << BITS_TRAVAS];
+    private final ColunasProduto colunas = new ColunasProduto();
+    private final ArenaNomes nomes = new ArenaNomes();
+    private final IndiceLong linhaPorId = new IndiceLong();
+    private final IndiceCodigoBarra codigosBarra = new IndiceCodigoBarra();
+    private final DicionarioFabricante fabricantes = new DicionarioFabricante();
+    private final Map<Long, String> codigoTextoPorId = new ConcurrentHashMap<>();
+    private final AtomicLong proximoId = new AtomicLong(1);
+    private final AtomicInteger quantidade = new AtomicInteger();
+
+    private int[] linhasLivres = new int[16];
+    private int livres;
+    private volatile int linhasUsadas;
+
+    private final List<RepositoryListener<Produto>> listeners;
+
+    public ProdutoOffHeapRepository() {
+        this(List.of());
+    }
+
+    public ProdutoOffHeapRepository(List<RepositoryListener<Produto>> listeners) {
+        this.listeners = listeners;
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new StampedLock();
+        }
+    }
+
+    @Autowired
+    public ProdutoOffHeapRepository(ObjectProvider<RepositoryListener<Produto>> listeners) {
+        this(listeners.orderedStream().toList());
+    }
+
+    /** Memoria fora do heap reservada pelas colunas e pela arena de nomes. */
+    public long bytesForaDoHeap() {
+        return colunas.bytesReservados() + nomes.bytesReservados();
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        if (produto.getId() != null) {
+            proximoId.accumulateAndGet(produto.getId() + 1, Math::max);
+            return gravar(ProdutoRegistro.de(produto, fabricantes), Modo.SALVAR, QUALQUER_VERSAO);
+        }
+        // Um id explicito salvo em paralelo pode ocupar o proximo valor do contador
+        while (true) {
+            ProdutoRegistro registro = ProdutoRegistro.de(proximoId.getAndIncrement(), produto, fabricantes);
+            Produto salvo = gravar(registro, Modo.INSERIR, QUALQUER_VERSAO);
+            if (salvo != null) {
+                produto.setId(registro.getId());
+                return salvo;
+            }
+        }
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> salvos = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i++) {
+            try {
+                salvos.add(save(produtos.get(i)));
+            } catch (MercadoFacilException e) {
+                falhas.falhou(i, e);
+                salvos.add(null);
+            }
+        }
+        return salvos;
+    }
+
+    @Override
+    public Produto find(Long id) {
+        if (id == null) {
+            return null;
+        }
+        StampedLock trava = trava(id);
+        long stamp = trava.tryOptimisticRead();
+        Produto produto = ler(id);
+        if (!trava.validate(stamp)) {
+            stamp = trava.readLock();
+            try {
+                produto = ler(id);
+            } finally {
+                trava.unlockRead(stamp);
+            }
+        }
+        return produto;
+    }
+
+    @Override
+    public Produto findByCodigoBarra(String codigoBarra) {
+        if (codigoBarra == null) {
+            return null;
+        }
+        long id = codigosBarra.buscar(codigoBarra);
+        if (id == IndiceLong.AUSENTE) {
+            return null;
+        }
+        // o indice e reservado antes da linha ser publicada
+        Produto produto = find(id);
+        return produto != null && codigoBarra.equals(produto.getCodigoBarra()) ? produto : null;
+    }
+
+    @Override
+    public List<Produto> findByFabricante(String fabricante) {
+        int codigo = fabricantes.buscar(fabricante);
+        if (codigo == DicionarioFabricante.AUSENTE) {
+            return Collections.emptyList();
+        }
+        List<Produto> resultado = new ArrayList<>();
+        int usadas = linhasUsadas;
+        for (int linha = 0; linha < usadas; linha++) {
+            if (colunas.fabricante(linha) != codigo) {
+                continue;
+            }
+            long id = colunas.id(linha);
+            Produto produto = id == IndiceLong.AUSENTE ? null : find(id);
+            if (produto != null && fabricante.equals(produto.getFabricante())) {
+                resultado.add(produto);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        List<Produto> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Produto produto = find(id);
+            if (produto != null) {
+                resultado.add(produto);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Produto> findAll() {
+        List<Produto> todos = new ArrayList<>(quantidade.get());
+        stream().forEach(todos::add);
+        return todos;
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        return IntStream.range(0, linhasUsadas)
+                .mapToLong(colunas::id)
+                .filter(id -> id != IndiceLong.AUSENTE)
+                .mapToObj(this::find)
+                .filter(produto -> produto != null);
+    }
+
+    /**
+     * Entrega cada produto a {@code consumidor} pela mesma {@link Visao}, sem
+     * alocar. Escritas no produto esperam o fim da chamada, entao o consumidor
+     * deve ser rapido e nao pode guardar a visao.
+     */
+    public void percorrer(Consumer<Visao> consumidor) {
+        Visao visao = new Visao();
+        int usadas = linhasUsadas;
+        for (int linha = 0; linha < usadas; linha++) {
+            long id = colunas.id(linha);
+            if (id == IndiceLong.AUSENTE) {
+                continue;
+            }
+            StampedLock trava = trava(id);
+            long stamp = trava.readLock();
+            try {
+                if (colunas.id(linha) == id) {
+                    visao.linha = linha;
+                    consumidor.accept(visao);
+                }
+            } finally {
+                trava.unlockRead(stamp);
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        return quantidade.get();
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        if (produto.getId() == null) {
+            return null;
+        }
+        // a versao trazida por quem chama nao conta: o update sempre passa para a seguinte
+        return gravar(ProdutoRegistro.de(produto, fabricantes).withVersao(0), Modo.ATUALIZAR, QUALQUER_VERSAO);
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        if (produto.getId() == null) {
+            return null;
+        }
+        return gravar(ProdutoRegistro.de(produto, fabricantes).withVersao(0), Modo.ATUALIZAR, versaoEsperada);
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> atualizados = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i++) {
+            try {
+                atualizados.add(update(produtos.get(i)));
+            } catch (MercadoFacilException e) {
+                falhas.falhou(i, e);
+                atualizados.add(null);
+            }
+        }
+        return atualizados;
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        if (produto.getId() != null) {
+            remover(produto.getId());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        int usadas = linhasUsadas;
+        for (int linha = 0; linha < usadas; linha++) {
+            long id = colunas.id(linha);
+            if (id != IndiceLong.AUSENTE) {
+                remover(id);
+            }
+        }
+    }
+
+    // devolve o produto gravado, ou null se o modo nao permitiu a escrita
+    private Produto gravar(ProdutoRegistro novo, Modo modo, long versaoEsperada) {
+        long id = novo.getId();
+        StampedLock trava = trava(id);
+        long stamp = trava.writeLock();
+        try {
+            long existente = linhaPorId.get(id);
+            if (existente == IndiceLong.AUSENTE ? modo == Modo.ATUALIZAR : modo == Modo.INSERIR) {
+                return null;
+            }
+            long versaoAtual = existente == IndiceLong.AUSENTE ? 0 : colunas.versao((int) existente);
+            if (versaoEsperada != QUALQUER_VERSAO && versaoAtual != versaoEsperada) {
+                throw new VersaoConflitanteException();
+            }
+            if (!codigosBarra.reservar(novo)) {
+                throw new CodigoBarraDuplicadoException();
+            }
+            Produto antigo = existente != IndiceLong.AUSENTE && !listeners.isEmpty() ? lerLinha((int) existente, id) : null;
+            long versao = ProdutoRegistro.versionar(versaoAtual, novo.getVersao());
+            Produto produto = novo.withVersao(versao).paraProduto(fabricantes);
+            // um listener que falha (journal fechado) aborta a escrita antes de a linha e os indices mudarem
+            if (!listeners.isEmpty()) {
+                try {
+                    RepositoryListener.notificar(listeners, antigo, produto);
+                } catch (RuntimeException e) {
+                    codigosBarra.desfazer(novo);
+                    throw e;
+                }
+            }
+            int linha = existente != IndiceLong.AUSENTE ? (int) existente : alocarLinha();
+
+            // o espaco do nome anterior da linha e reaproveitado quando o novo cabe nele
+            long nome = colunas.nome(linha);
+            int capacidade = colunas.nomeCapacidade(linha);
+            int tamanho = NOME_NULO;
+            if (novo.getNome() != null) {
+                byte[] bytes = ArenaNomes.codificar(novo.getNome());
+                if (bytes.length <= capacidade) {
+                    nomes.sobrescrever(nome, bytes);
+                } else {
+                    nome = nomes.gravar(bytes);
+                    capacidade = bytes.length;
+                }
+                tamanho = bytes.length;
+            }
+            colunas.escrever(linha, id, novo.getPrecoCentavos(), novo.getChaveCodigoBarra(),
+                    nome, tamanho, capacidade, novo.getFabricante(), versao);
+            if (novo.getCodigoBarraTexto() != null) {
+                codigoTextoPorId.put(id, novo.getCodigoBarraTexto());
+            } else {
+                codigoTextoPorId.remove(id);
+            }
+            if (existente == IndiceLong.AUSENTE) {
+                linhaPorId.put(id, linha);
+                quantidade.incrementAndGet();
+            }
+            codigosBarra.confirmar(novo);
+            return produto;
+        } finally {
+            trava.unlockWrite(stamp);
+        }
+    }
+
+    private void remover(long id) {
+        StampedLock trava = trava(id);
+        long stamp = trava.writeLock();
+        try {
+            long linha = linhaPorId.get(id);
+            if (linha == IndiceLong.AUSENTE) {
+                return;
+            }
+            if (!listeners.isEmpty()) {
+                RepositoryListener.notificar(listeners, lerLinha((int) linha, id), null);
+            }
+            codigosBarra.liberar(id);
+            codigoTextoPorId.remove(id);
+            linhaPorId.remove(id);
+            colunas.limparId((int) linha);
+            quantidade.decrementAndGet();
+            liberarLinha((int) linha);
+        } finally {
+            trava.unlockWrite(stamp);
+        }
+    }
+
+    // sem lock: numa leitura otimista os valores podem ser de outra escrita e o chamador valida o stamp
+    private Produto ler(long id) {
+        long linha = linhaPorId.get(id);
+        return linha == IndiceLong.AUSENTE ? null : lerLinha((int) linha, id);
+    }
+
+    private Produto lerLinha(int linha, long id) {
+        String nome = null;
+        int tamanho = colunas.nomeTamanho(linha);
+        if (tamanho != NOME_NULO) {
+            byte[] bytes = nomes.ler(colunas.nome(linha), tamanho);
+            if (bytes == null) {
+                return null;
+            }
+            nome = ArenaNomes.decodificar(bytes);
+        }
+        return Produto.builder()
+                .id(id)
+                .nome(nome)
+                .codigoBarra(codigoBarra(linha, id))
+                .fabricante(fabricantes.nome(colunas.fabricante(linha)))
+                .preco(colunas.precoCentavos(linha) / 100.0)
+                .versao(colunas.versao(linha))
+                .build();
+    }
+
+    private String codigoBarra(int linha, long id) {
+        long chave = colunas.chaveCodigoBarra(linha);
+        return chave == IndiceLong.AUSENTE ? codigoTextoPorId.get(id) : IndiceCodigoBarra.codigo(chave);
+    }
+
+    private synchronized int alocarLinha() {
+        if (livres > 0) {
+            return linhasLivres[--livres];
+        }
+        int linha = linhasUsadas;
+        colunas.garantir(linha);
+        linhasUsadas = linha + 1;
+        return linha;
+    }
+
+    private synchronized void liberarLinha(int linha) {
+        if (livres == linhasLivres.length) {
+            linhasLivres = Arrays.copyOf(linhasLivres, livres * 2);
+        }
+        linhasLivres[livres++] = linha;
+    }
+
+    private StampedLock trava(long id) {
+        return travas[(int) (id ^ (id >>> 32)) & (travas.length - 1)];
+    }
+
+    /**
+     * Leitura de uma linha durante {@link #percorrer(Consumer)}. So e valida
+     * dentro do consumidor.
+     */
+    public final class Visao {
+
+        private int linha;
+
+        private Visao() {
+        }
+
+        public long getId() {
+            return colunas.id(linha);
+        }
+
+        public long getPrecoCentavos() {
+            return colunas.precoCentavos(linha);
+        }
+
+        public int getFabricante() {
+            return colunas.fabricante(linha);
+        }
+
+        public String getNomeFabricante() {
+            return fabricantes.nome(colunas.fabricante(linha));
+        }
+
+        public String getCodigoBarra() {
+            return codigoBarra(linha, colunas.id(linha));
+        }
+
+        public String getNome() {
+            int tamanho = colunas.nomeTamanho(linha);
+            return tamanho == NOME_NULO ? null : ArenaNomes.decodificar(nomes.ler(colunas.nome(linha), tamanho));
+        }
+
+        public Produto paraProduto() {
+            return lerLinha(linha, colunas.id(linha));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Forma imutavel e compacta de um {@link Produto} guardada pelos repositorios
+ * em memoria. O {@code Produto} da API so existe nas bordas: cada leitura
+ * devolve uma copia nova, entao quem chama nao altera o estado guardado.
+ *
+ * O codigo de barras numerico vira um {@code long} (ver
+ * {@link IndiceCodigoBarra#chave(CharSequence)}) e so codigos fora desse
+ * formato guardam a String. O preco fica em centavos e o fabricante e o id
+ * dado por um {@link DicionarioFabricante}, que tambem decodifica o registro.
+ * A versao so cresce e e atribuida pelo repositorio a cada gravacao (ver
+ * {@link #versionar(long, long)}).
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProdutoRegistro {
+
+    long id;
+    String nome;
+    long chaveCodigoBarra;
+    String codigoBarraTexto;
+    int fabricante;
+    long precoCentavos;
+    @With
+    long versao;
+
+    public static ProdutoRegistro de(Produto produto, DicionarioFabricante fabricantes) {
+        return de(produto.getId(), produto, fabricantes);
+    }
+
+    public static ProdutoRegistro de(long id, Produto produto, DicionarioFabricante fabricantes) {
+        String codigo = produto.getCodigoBarra();
+        long chave = codigo == null ? IndiceLong.AUSENTE : IndiceCodigoBarra.chave(codigo);
+        return new ProdutoRegistro(
+                id,
+                produto.getNome(),
+                chave,
+                chave == IndiceLong.AUSENTE ? codigo : null,
+                fabricantes.codificar(produto.getFabricante()),
+                Math.round(produto.getPreco() * 100),
+                produto.getVersao());
+    }
+
+    /**
+     * Versao gravada quando a versao atual do id e {@code atual} (0 se ele nao
+     * existe): a seguinte. Uma versao maior trazida pelo proprio registro (a
+     * recuperacao do journal) e mantida, entao uma versao nunca se repete.
+     */
+    public static long versionar(long atual, long trazida) {
+        return Math.max(trazida, atual + 1);
+    }
+
+    public String getCodigoBarra() {
+        return chaveCodigoBarra == IndiceLong.AUSENTE ? codigoBarraTexto : IndiceCodigoBarra.codigo(chaveCodigoBarra);
+    }
+
+    public double getPreco() {
+        return precoCentavos / 100.0;
+    }
+
+    public boolean temCodigoBarra(String codigo) {
+        long chave = IndiceCodigoBarra.chave(codigo);
+        return chave == IndiceLong.AUSENTE ? codigo.equals(codigoBarraTexto) : chave == chaveCodigoBarra;
+    }
+
+    public Produto paraProduto(DicionarioFabricante fabricantes) {
+        return Produto.builder()
+                .id(id)
+                .nome(nome)
+                .codigoBarra(getCodigoBarra())
+                .fabricante(fabricantes.nome(fabricante))
+                .preco(getPreco())
+                .versao(versao)
+                .build();
+    }
+}
@@ -1,12 +1,22 @@
 package com.ufcg.psoft.mercadofacil.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProdutoRepository<T, ID> {
     T save(T produto);
+    List<T> saveAll(List<T> produtos, FalhasLote falhas);
     T find(ID id);
+    T findByCodigoBarra(String codigoBarra);
+    List<T> findByFabricante(String fabricante);
+    List<T> findAllById(Collection<ID> ids);
     List<T> findAll();
+    Stream<T> stream();
+    long count();
     T update(T produto);
+    T compareAndSet(T produto, long versaoEsperada);
+    List<T> updateAll(List<T> produtos, FalhasLote falhas);
     void delete(T produto);
     void deleteAll();
 }
@@ -0,0 +1,90 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base para repositorios que envolvem outro repositorio de produtos e
+ * interceptam apenas algumas operacoes.
+ */
+public abstract class ProdutoRepositoryDecorator implements ProdutoRepository<Produto, Long> {
+
+    protected final ProdutoRepository<Produto, Long> delegate;
+
+    protected ProdutoRepositoryDecorator(ProdutoRepository<Produto, Long> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        return delegate.save(produto);
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        return delegate.saveAll(produtos, falhas);
+    }
+
+    @Override
+    public Produto find(Long id) {
+        return delegate.find(id);
+    }
+
+    @Override
+    public Produto findByCodigoBarra(String codigoBarra) {
+        return delegate.findByCodigoBarra(codigoBarra);
+    }
+
+    @Override
+    public List<Produto> findByFabricante(String fabricante) {
+        return delegate.findByFabricante(fabricante);
+    }
+
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Produto> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        return delegate.update(produto);
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        return delegate.compareAndSet(produto, versaoEsperada);
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        return delegate.updateAll(produtos, falhas);
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        delegate.delete(produto);
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+    }
+}
@@ -0,0 +1,260 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de produtos em memoria. Guarda cada produto como um
+ * {@link ProdutoRegistro} imutavel e converte para {@link Produto} so na
+ * entrada e na saida, entao os objetos devolvidos sao copias.
+ *
+ * Os fabricantes sao codificados num {@link DicionarioFabricante} e indexados
+ * para que {@link #findByFabricante(String)} nao percorra o mapa inteiro.
+ */
+@Repository("produtoArmazenamento")
+@ConditionalOnProperty(name = "mercadofacil.produtos.armazenamento", havingValue = "heap", matchIfMissing = true)
+public class ProdutoVolatilRepository implements ProdutoRepository<Produto, Long> {
+
+    private final Map<Long, ProdutoRegistro> produtos = new ConcurrentHashMap<>();
+    private final AtomicLong proximoId = new AtomicLong(1);
+    private final IndiceCodigoBarra codigosBarra = new IndiceCodigoBarra();
+    private final DicionarioFabricante fabricantes = new DicionarioFabricante();
+    private final Map<Integer, Set<Long>> idsPorFabricante = new ConcurrentHashMap<>();
+
+    private final List<RepositoryListener<Produto>> listeners;
+
+    public ProdutoVolatilRepository() {
+        this(List.of());
+    }
+
+    public ProdutoVolatilRepository(List<RepositoryListener<Produto>> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Autowired
+    public ProdutoVolatilRepository(ObjectProvider<RepositoryListener<Produto>> listeners) {
+        this(listeners.orderedStream().toList());
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        if (produto.getId() != null) {
+            proximoId.accumulateAndGet(produto.getId() + 1, Math::max);
+            ProdutoRegistro registro = ProdutoRegistro.de(produto, fabricantes);
+            return paraProduto(produtos.compute(registro.getId(), (id, antigo) -> substituir(antigo, registro)));
+        }
+        // Um id explicito salvo em paralelo pode ocupar o proximo valor do contador
+        while (true) {
+            ProdutoRegistro registro = versionado(null, ProdutoRegistro.de(proximoId.getAndIncrement(), produto, fabricantes));
+            if (produtos.compute(registro.getId(), (id, antigo) -> antigo != null ? antigo : substituir(null, registro)) == registro) {
+                produto.setId(registro.getId());
+                return registro.paraProduto(fabricantes);
+            }
+        }
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> salvos = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i++) {
+            try {
+                salvos.add(save(produtos.get(i)));
+            } catch (MercadoFacilException e) {
+                falhas.falhou(i, e);
+                salvos.add(null);
+            }
+        }
+        return salvos;
+    }
+
+    @Override
+    public Produto find(Long id) {
+        return id == null ? null : paraProduto(produtos.get(id));
+    }
+
+    @Override
+    public Produto findByCodigoBarra(String codigoBarra) {
+        if (codigoBarra == null) {
+            return null;
+        }
+        long id = codigosBarra.buscar(codigoBarra);
+        if (id == IndiceLong.AUSENTE) {
+            return null;
+        }
+        // o indice e reservado antes do produto ser publicado no mapa
+        ProdutoRegistro registro = produtos.get(id);
+        return registro != null && registro.temCodigoBarra(codigoBarra) ? registro.paraProduto(fabricantes) : null;
+    }
+
+    @Override
+    public List<Produto> findByFabricante(String fabricante) {
+        int id = fabricantes.buscar(fabricante);
+        Set<Long> ids = id == DicionarioFabricante.AUSENTE ? null : idsPorFabricante.get(id);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<Produto> resultado = new ArrayList<>(ids.size());
+        for (Long produtoId : ids) {
+            ProdutoRegistro registro = produtos.get(produtoId);
+            if (registro != null && registro.getFabricante() == id) {
+                resultado.add(registro.paraProduto(fabricantes));
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        List<Produto> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProdutoRegistro registro = id == null ? null : produtos.get(id);
+            if (registro != null) {
+                resultado.add(registro.paraProduto(fabricantes));
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Produto> findAll() {
+        List<Produto> todos = new ArrayList<>(produtos.size());
+        for (ProdutoRegistro registro : produtos.values()) {
+            todos.add(registro.paraProduto(fabricantes));
+        }
+        return todos;
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        return produtos.values().stream().map(this::paraProduto);
+    }
+
+    @Override
+    public long count() {
+        return produtos.size();
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        if (produto.getId() == null) {
+            return null;
+        }
+        // a versao trazida por quem chama nao conta: o update sempre passa para a seguinte
+        ProdutoRegistro registro = ProdutoRegistro.de(produto, fabricantes).withVersao(0);
+        return paraProduto(produtos.computeIfPresent(registro.getId(), (id, antigo) -> substituir(antigo, registro)));
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        if (produto.getId() == null) {
+            return null;
+        }
+        ProdutoRegistro registro = ProdutoRegistro.de(produto, fabricantes).withVersao(0);
+        return paraProduto(produtos.computeIfPresent(registro.getId(), (id, antigo) -> {
+            if (antigo.getVersao() != versaoEsperada) {
+                throw new VersaoConflitanteException();
+            }
+            return substituir(antigo, registro);
+        }));
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> atualizados = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i++) {
+            try {
+                atualizados.add(update(produtos.get(i)));
+            } catch (MercadoFacilException e) {
+                falhas.falhou(i, e);
+                atualizados.add(null);
+            }
+        }
+        return atualizados;
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        if (produto.getId() != null) {
+            remover(produto.getId());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        produtos.keySet().forEach(this::remover);
+    }
+
+    private void remover(Long id) {
+        produtos.computeIfPresent(id, (chave, antigo) -> substituir(antigo, null));
+    }
+
+    private Produto paraProduto(ProdutoRegistro registro) {
+        return registro == null ? null : registro.paraProduto(fabricantes);
+    }
+
+    // chamado dentro do compute do id, entao indice, mapa e listeners mudam juntos para cada produto
+    private ProdutoRegistro substituir(ProdutoRegistro antigo, ProdutoRegistro novo) {
+        if (novo != null) {
+            novo = versionado(antigo, novo);
+        }
+        if (novo != null && !codigosBarra.reservar(novo)) {
+            throw new CodigoBarraDuplicadoException();
+        }
+        // um listener que falha (journal fechado) aborta o compute: os indices so mudam depois deles
+        if (!listeners.isEmpty()) {
+            try {
+                RepositoryListener.notificar(listeners, paraProduto(antigo), paraProduto(novo));
+            } catch (RuntimeException e) {
+                if (novo != null) {
+                    codigosBarra.desfazer(novo);
+                }
+                throw e;
+            }
+        }
+        if (novo == null) {
+            codigosBarra.liberar(antigo.getId());
+        } else {
+            codigosBarra.confirmar(novo);
+        }
+        indexarFabricante(antigo, novo);
+        return novo;
+    }
+
+    private static ProdutoRegistro versionado(ProdutoRegistro antigo, ProdutoRegistro novo) {
+        long versao = ProdutoRegistro.versionar(antigo == null ? 0 : antigo.getVersao(), novo.getVersao());
+        return versao == novo.getVersao() ? novo : novo.withVersao(versao);
+    }
+
+    private void indexarFabricante(ProdutoRegistro antigo, ProdutoRegistro novo) {
+        if (antigo != null && novo != null && antigo.getFabricante() == novo.getFabricante()) {
+            return;
+        }
+        if (antigo != null && antigo.getFabricante() != DicionarioFabricante.AUSENTE) {
+            idsPorFabricante.computeIfPresent(antigo.getFabricante(), (fabricante, ids) -> {
+                ids.remove(antigo.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (novo != null && novo.getFabricante() != DicionarioFabricante.AUSENTE) {
+            idsPorFabricante.compute(novo.getFabricante(), (fabricante, ids) -> {
+                Set<Long> atualizados = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                atualizados.add(novo.getId());
+                return atualizados;
+            });
+        }
+    }
+}
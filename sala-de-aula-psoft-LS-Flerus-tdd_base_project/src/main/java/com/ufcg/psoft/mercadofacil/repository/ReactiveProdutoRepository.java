@@ -0,0 +1,16 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProdutoRepository<T, ID> {
+    Mono<T> save(T produto);
+    Mono<T> find(ID id);
+    Mono<T> findByCodigoBarra(String codigoBarra);
+    Flux<T> findByFabricante(String fabricante);
+    Flux<T> findAll();
+    Mono<T> update(T produto);
+    Mono<T> compareAndSet(T produto, long versaoEsperada);
+    Mono<Void> delete(T produto);
+    Mono<Void> deleteAll();
+}
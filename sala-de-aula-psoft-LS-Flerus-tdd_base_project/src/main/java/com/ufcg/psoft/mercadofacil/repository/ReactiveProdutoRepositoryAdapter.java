@@ -0,0 +1,73 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Expoe um {@link ProdutoRepository} como {@link ReactiveProdutoRepository}.
+ *
+ * As operacoes rodam no {@link Scheduler} informado: o imediato quando o
+ * repositorio so toca memoria, ou um pool elastico quando alguma camada
+ * bloqueia (journal, latencia simulada), para nao prender o event loop.
+ * {@link #findAll()} percorre o stream do repositorio sob demanda, respeitando
+ * o backpressure de quem consome.
+ */
+public class ReactiveProdutoRepositoryAdapter implements ReactiveProdutoRepository<Produto, Long> {
+
+    private final ProdutoRepository<Produto, Long> delegate;
+    private final Scheduler scheduler;
+
+    public ReactiveProdutoRepositoryAdapter(ProdutoRepository<Produto, Long> delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<Produto> save(Produto produto) {
+        return Mono.fromSupplier(() -> delegate.save(produto)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Produto> find(Long id) {
+        return Mono.fromSupplier(() -> delegate.find(id)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Produto> findByCodigoBarra(String codigoBarra) {
+        return Mono.fromSupplier(() -> delegate.findByCodigoBarra(codigoBarra)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<Produto> findByFabricante(String fabricante) {
+        return Mono.fromSupplier(() -> delegate.findByFabricante(fabricante))
+                .subscribeOn(scheduler)
+                .flatMapIterable(produtos -> produtos);
+    }
+
+    @Override
+    public Flux<Produto> findAll() {
+        return Flux.fromStream(delegate::stream).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Produto> update(Produto produto) {
+        return Mono.fromSupplier(() -> delegate.update(produto)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Produto> compareAndSet(Produto produto, long versaoEsperada) {
+        return Mono.fromSupplier(() -> delegate.compareAndSet(produto, versaoEsperada)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> delete(Produto produto) {
+        return Mono.<Void>fromRunnable(() -> delegate.delete(produto)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.<Void>fromRunnable(delegate::deleteAll).subscribeOn(scheduler);
+    }
+}
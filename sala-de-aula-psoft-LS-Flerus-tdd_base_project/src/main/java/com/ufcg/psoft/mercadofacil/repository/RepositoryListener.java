@@ -0,0 +1,33 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import java.util.List;
+
+/**
+ * Observa as mutacoes de um repositorio em memoria. Os metodos sao chamados
+ * dentro da secao critica da chave alterada, portanto na mesma ordem em que
+ * as mutacoes daquela chave sao aplicadas; devem ser rapidos e nao podem
+ * voltar a chamar o repositorio.
+ */
+public interface RepositoryListener<T> {
+
+    default void onSave(T novo) {
+    }
+
+    default void onUpdate(T antigo, T novo) {
+    }
+
+    default void onDelete(T antigo) {
+    }
+
+    static <T> void notificar(List<RepositoryListener<T>> listeners, T antigo, T novo) {
+        for (RepositoryListener<T> listener : listeners) {
+            if (antigo == null) {
+                listener.onSave(novo);
+            } else if (novo == null) {
+                listener.onDelete(antigo);
+            } else {
+                listener.onUpdate(antigo, novo);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+
+public class VersaoConflitanteException extends MercadoFacilException {
+
+    public VersaoConflitanteException() {
+        super("versao_conflitante", "Produto alterado por outra requisicao!");
+    }
+}
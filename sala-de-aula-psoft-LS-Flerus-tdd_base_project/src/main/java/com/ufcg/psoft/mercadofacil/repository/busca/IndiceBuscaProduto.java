@@ -0,0 +1,257 @@
+package com.ufcg.psoft.mercadofacil.repository.busca;
+
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Indice de busca sobre nome e fabricante dos produtos, atualizado como
+ * listener do repositorio a cada save, update e delete.
+ *
+ * Os termos sao normalizados (minusculas, sem acentos) e guardados num
+ * dicionario ordenado. O intervalo de chaves que comecam com um prefixo faz o
+ * papel da trie do autocompletar. Cada termo aponta para a {@link ListaInvertida}
+ * com os ids dos produtos que o contem.
+ */
+@Component
+public class IndiceBuscaProduto implements RepositoryListener<Produto> {
+
+    private static final String[] NENHUM = new String[0];
+    private static final int TRAVAS = 64;
+
+    private final ConcurrentSkipListMap<String, ListaInvertida> dicionario = new ConcurrentSkipListMap<>();
+    // termos indexados por produto: o objeto pode ter sido alterado no lugar antes do update
+    private final Map<Long, String[]> termosPorId = new ConcurrentHashMap<>();
+    // criar e descartar a lista de um termo acontece sob a trava do termo
+    private final Object[] travas = new Object[TRAVAS];
+
+    public IndiceBuscaProduto() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new Object();
+        }
+    }
+
+    @Override
+    public void onSave(Produto novo) {
+        indexar(novo.getId(), termos(novo));
+    }
+
+    @Override
+    public void onUpdate(Produto antigo, Produto novo) {
+        indexar(novo.getId(), termos(novo));
+    }
+
+    @Override
+    public void onDelete(Produto antigo) {
+        indexar(antigo.getId(), NENHUM);
+    }
+
+    /**
+     * Ids dos produtos que contem todos os termos da consulta, em ordem
+     * crescente de id.
+     */
+    public Pagina<Long> buscar(String consulta, int pagina, int tamanho) {
+        List<ListaInvertida> listas = new ArrayList<>();
+        for (String termo : tokens(consulta)) {
+            ListaInvertida lista = dicionario.get(termo);
+            if (lista == null) {
+                return pagina(List.of(), pagina, tamanho, 0);
+            }
+            listas.add(lista);
+        }
+        if (listas.isEmpty()) {
+            return pagina(List.of(), pagina, tamanho, 0);
+        }
+        // em long: uma pagina alta estouraria o int e cairia num inicio negativo
+        int inicio = (int) Math.min((long) pagina * tamanho, Integer.MAX_VALUE);
+        int fim = (int) Math.min((long) inicio + tamanho, Integer.MAX_VALUE);
+        if (listas.size() == 1) {
+            ListaInvertida lista = listas.get(0);
+            return pagina(comoLista(lista.copiar(inicio, fim)), pagina, tamanho, lista.tamanho());
+        }
+        // intersecao a partir da menor lista
+        listas.sort(Comparator.comparingInt(ListaInvertida::tamanho));
+        long[] candidatos = listas.get(0).copiar(0, Integer.MAX_VALUE);
+        int quantidade = candidatos.length;
+        for (int i = 1; i < listas.size() && quantidade > 0; i++) {
+            quantidade = listas.get(i).reter(candidatos, quantidade);
+        }
+        long[] conteudo = inicio >= quantidade ? new long[0]
+                : Arrays.copyOfRange(candidatos, inicio, Math.min(fim, quantidade));
+        return pagina(comoLista(conteudo), pagina, tamanho, quantidade);
+    }
+
+    /**
+     * Ate {@code limite} ids para o autocompletar: os termos completos da
+     * consulta precisam aparecer no produto e o ultimo termo vale como prefixo.
+     */
+    public List<Long> autocompletar(String consulta, int limite) {
+        List<String> termos = tokens(consulta);
+        if (termos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        String prefixo = termos.get(termos.size() - 1);
+        Set<Long> ids = new LinkedHashSet<>();
+        if (termos.size() == 1) {
+            for (ListaInvertida lista : comPrefixo(prefixo).values()) {
+                lista.percorrer(id -> {
+                    ids.add(id);
+                    return ids.size() < limite;
+                });
+                if (ids.size() >= limite) {
+                    break;
+                }
+            }
+            return new ArrayList<>(ids);
+        }
+        List<ListaInvertida> listas = new ArrayList<>();
+        for (String termo : termos.subList(0, termos.size() - 1)) {
+            ListaInvertida lista = dicionario.get(termo);
+            if (lista == null) {
+                return List.of();
+            }
+            listas.add(lista);
+        }
+        // como no buscar: copia a menor lista e filtra nas outras, uma trava de lista por vez.
+        // Os escritores das listas rodam dentro do compute do produto e nao esperam uma varredura.
+        listas.sort(Comparator.comparingInt(ListaInvertida::tamanho));
+        long[] candidatos = listas.get(0).copiar(0, Integer.MAX_VALUE);
+        int quantidade = candidatos.length;
+        for (int i = 1; i < listas.size() && quantidade > 0; i++) {
+            quantidade = listas.get(i).reter(candidatos, quantidade);
+        }
+        for (int i = 0; i < quantidade && ids.size() < limite; i++) {
+            if (temPrefixo(candidatos[i], prefixo)) {
+                ids.add(candidatos[i]);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /** Termos normalizados e sem repeticao do texto. */
+    public static List<String> tokens(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        Set<String> termos = new LinkedHashSet<>();
+        StringBuilder termo = new StringBuilder();
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                termo.append(Character.toLowerCase(c));
+            } else if (termo.length() > 0) {
+                termos.add(termo.toString());
+                termo.setLength(0);
+            }
+        }
+        if (termo.length() > 0) {
+            termos.add(termo.toString());
+        }
+        return new ArrayList<>(termos);
+    }
+
+    private static String[] termos(Produto produto) {
+        List<String> termos = tokens(produto.getNome());
+        for (String termo : tokens(produto.getFabricante())) {
+            if (!termos.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos.toArray(NENHUM);
+    }
+
+    private void indexar(Long id, String[] novos) {
+        String[] antigos = novos.length == 0 ? termosPorId.remove(id) : termosPorId.put(id, novos);
+        if (antigos == null) {
+            antigos = NENHUM;
+        }
+        for (String termo : antigos) {
+            if (!contem(novos, termo)) {
+                remover(termo, id);
+            }
+        }
+        for (String termo : novos) {
+            if (!contem(antigos, termo)) {
+                adicionar(termo, id);
+            }
+        }
+    }
+
+    private void adicionar(String termo, long id) {
+        synchronized (trava(termo)) {
+            dicionario.computeIfAbsent(termo, t -> new ListaInvertida()).adicionar(id);
+        }
+    }
+
+    private void remover(String termo, long id) {
+        synchronized (trava(termo)) {
+            ListaInvertida lista = dicionario.get(termo);
+            if (lista != null && lista.remover(id)) {
+                dicionario.remove(termo);
+            }
+        }
+    }
+
+    private Object trava(String termo) {
+        return travas[termo.hashCode() & (TRAVAS - 1)];
+    }
+
+    private NavigableMap<String, ListaInvertida> comPrefixo(String prefixo) {
+        return dicionario.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+    }
+
+    private boolean temPrefixo(long id, String prefixo) {
+        String[] termos = termosPorId.get(id);
+        if (termos != null) {
+            for (String termo : termos) {
+                if (termo.startsWith(prefixo)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean contem(String[] termos, String termo) {
+        for (String atual : termos) {
+            if (atual.equals(termo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Long> comoLista(long[] ids) {
+        List<Long> lista = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            lista.add(id);
+        }
+        return lista;
+    }
+
+    private static Pagina<Long> pagina(List<Long> conteudo, int pagina, int tamanho, long total) {
+        return Pagina.<Long>builder()
+                .conteudo(conteudo)
+                .pagina(pagina)
+                .tamanho(tamanho)
+                .total(total)
+                .build();
+    }
+}
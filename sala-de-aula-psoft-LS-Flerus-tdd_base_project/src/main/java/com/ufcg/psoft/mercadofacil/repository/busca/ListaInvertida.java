@@ -0,0 +1,112 @@
+package com.ufcg.psoft.mercadofacil.repository.busca;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Ids dos produtos que contem um termo, em ordem crescente num {@code long[]}.
+ *
+ * Ids gerados chegam em ordem, entao a insercao costuma ser um append; fora de
+ * ordem o array e deslocado. Leitores usam o read lock e nao bloqueiam uns aos
+ * outros.
+ */
+final class ListaInvertida {
+
+    private final StampedLock lock = new StampedLock();
+    private long[] ids = new long[2];
+    private volatile int tamanho;
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    void adicionar(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int posicao = tamanho;
+            if (posicao > 0 && id <= ids[posicao - 1]) {
+                posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                posicao = -posicao - 1;
+            }
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Devolve {@code true} se a lista ficou vazia. */
+    boolean remover(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+                if (tamanho > 16 && tamanho * 4 < ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length / 2);
+                }
+            }
+            return tamanho == 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Copia os ids das posicoes {@code [de, ate)} que existirem. */
+    long[] copiar(int de, int ate) {
+        long stamp = lock.readLock();
+        try {
+            int fim = Math.min(ate, tamanho);
+            return de >= fim ? new long[0] : Arrays.copyOfRange(ids, de, fim);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Mantem no inicio de {@code candidatos} apenas os ids que estao na lista e
+     * devolve quantos sobraram. Os candidatos precisam estar ordenados.
+     */
+    int reter(long[] candidatos, int quantidade) {
+        long stamp = lock.readLock();
+        try {
+            int mantidos = 0;
+            int inicio = 0;
+            for (int i = 0; i < quantidade; i++) {
+                int posicao = Arrays.binarySearch(ids, inicio, tamanho, candidatos[i]);
+                if (posicao >= 0) {
+                    candidatos[mantidos++] = candidatos[i];
+                    inicio = posicao + 1;
+                } else {
+                    inicio = -posicao - 1;
+                }
+            }
+            return mantidos;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Percorre os ids em ordem enquanto {@code continuar} devolver {@code true}. */
+    void percorrer(LongPredicate continuar) {
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < tamanho; i++) {
+                if (!continuar.test(ids[i])) {
+                    return;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
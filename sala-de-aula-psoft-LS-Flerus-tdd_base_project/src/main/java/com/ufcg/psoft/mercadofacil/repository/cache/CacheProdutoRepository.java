@@ -0,0 +1,152 @@
+package com.ufcg.psoft.mercadofacil.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.DicionarioFabricante;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRegistro;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepositoryDecorator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache read-through de {@link #find(Long)} com tamanho maximo (eviccao
+ * W-TinyLFU do Caffeine) e tempo de vida por entrada.
+ *
+ * As mutacoes vao primeiro ao repositorio e depois invalidam a chave. Um
+ * carregamento em andamento para a mesma chave termina antes da invalidacao,
+ * entao nenhum valor antigo sobrevive a um update ou delete.
+ *
+ * O cache guarda {@link ProdutoRegistro}s e cada leitura devolve uma copia,
+ * para que quem altera o produto lido nao altere a entrada em cache.
+ */
+public class CacheProdutoRepository extends ProdutoRepositoryDecorator {
+
+    private final Cache<Long, ProdutoRegistro> cache;
+    private final DicionarioFabricante fabricantes = new DicionarioFabricante();
+
+    public CacheProdutoRepository(ProdutoRepository<Produto, Long> delegate, long tamanhoMaximo, Duration ttl) {
+        super(delegate);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<Long, ProdutoRegistro> getCache() {
+        return cache;
+    }
+
+    public CacheStats estatisticas() {
+        return cache.stats();
+    }
+
+    @Override
+    public Produto find(Long id) {
+        if (id == null) {
+            return delegate.find(null);
+        }
+        ProdutoRegistro registro = cache.get(id, chave -> {
+            Produto produto = delegate.find(chave);
+            return produto == null ? null : ProdutoRegistro.de(produto, fabricantes);
+        });
+        return registro == null ? null : registro.paraProduto(fabricantes);
+    }
+
+    // Os que faltam vem numa unica chamada ao delegate e nao entram no cache: sem o
+    // carregamento atomico do find, uma invalidacao concorrente poderia ser perdida.
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        List<Long> faltantes = new ArrayList<>();
+        Map<Long, Produto> encontrados = new HashMap<>();
+        for (Long id : ids) {
+            ProdutoRegistro registro = id == null ? null : cache.getIfPresent(id);
+            if (registro != null) {
+                encontrados.put(id, registro.paraProduto(fabricantes));
+            } else if (id != null) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            for (Produto produto : delegate.findAllById(faltantes)) {
+                encontrados.put(produto.getId(), produto);
+            }
+        }
+        List<Produto> resultado = new ArrayList<>(encontrados.size());
+        for (Long id : ids) {
+            Produto produto = id == null ? null : encontrados.get(id);
+            if (produto != null) {
+                resultado.add(produto);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        Produto salvo = delegate.save(produto);
+        invalidar(salvo.getId());
+        return salvo;
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> salvos = delegate.saveAll(produtos, falhas);
+        for (Produto salvo : salvos) {
+            if (salvo != null) {
+                invalidar(salvo.getId());
+            }
+        }
+        return salvos;
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        Produto atualizado = delegate.update(produto);
+        invalidar(produto.getId());
+        return atualizado;
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        Produto atualizado = delegate.compareAndSet(produto, versaoEsperada);
+        invalidar(produto.getId());
+        return atualizado;
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> atualizados = delegate.updateAll(produtos, falhas);
+        for (Produto produto : produtos) {
+            invalidar(produto.getId());
+        }
+        return atualizados;
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        delegate.delete(produto);
+        invalidar(produto.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        cache.invalidateAll();
+    }
+
+    private void invalidar(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ufcg.psoft.mercadofacil.repository.estoque;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Total de itens em estoque por produto, somado a partir dos lotes como
+ * listener do repositorio de lotes.
+ *
+ * Cada produto tem um {@link LongAdder}: movimentacoes concorrentes de lotes
+ * do mesmo produto caem em celulas diferentes em vez de disputar um unico
+ * contador, e a leitura e a soma das celulas, sem percorrer lotes.
+ */
+@Component
+public class EstoqueProdutos implements RepositoryListener<Lote> {
+
+    private final Map<Long, LongAdder> totais = new ConcurrentHashMap<>();
+
+    @Override
+    public void onSave(Lote novo) {
+        somar(novo, 1);
+    }
+
+    @Override
+    public void onUpdate(Lote antigo, Lote novo) {
+        somar(antigo, -1);
+        somar(novo, 1);
+    }
+
+    @Override
+    public void onDelete(Lote antigo) {
+        somar(antigo, -1);
+    }
+
+    /** Itens do produto somando todos os lotes; zero se nao ha lotes. */
+    public long total(Long produtoId) {
+        LongAdder total = produtoId == null ? null : totais.get(produtoId);
+        return total == null ? 0 : total.sum();
+    }
+
+    private void somar(Lote lote, int sinal) {
+        if (lote.getProdutoId() != null) {
+            totais.computeIfAbsent(lote.getProdutoId(), id -> new LongAdder()).add((long) sinal * lote.getNumeroDeItens());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepositoryDecorator;
+
+import java.util.List;
+
+/**
+ * So devolve as mutacoes depois que o journal as tornou duraveis.
+ */
+public class DuravelLoteRepository extends LoteRepositoryDecorator {
+
+    private final Journal<Lote> journal;
+
+    public DuravelLoteRepository(LoteRepository<Lote, Long> delegate, Journal<Lote> journal) {
+        super(delegate);
+        this.journal = journal;
+    }
+
+    @Override
+    public Lote save(Lote lote) {
+        Lote salvo = delegate.save(lote);
+        journal.aguardarDuravel();
+        return salvo;
+    }
+
+    @Override
+    public List<Lote> saveAll(List<Lote> lotes) {
+        List<Lote> salvos = delegate.saveAll(lotes);
+        journal.aguardarDuravel();
+        return salvos;
+    }
+
+    @Override
+    public Lote update(Lote lote) {
+        Lote atualizado = delegate.update(lote);
+        journal.aguardarDuravel();
+        return atualizado;
+    }
+
+    @Override
+    public Lote reservar(Long id, int quantidade) {
+        Lote reservado = delegate.reservar(id, quantidade);
+        journal.aguardarDuravel();
+        return reservado;
+    }
+
+    @Override
+    public void delete(Lote lote) {
+        delegate.delete(lote);
+        journal.aguardarDuravel();
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        journal.aguardarDuravel();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepositoryDecorator;
+
+import java.util.List;
+
+/**
+ * So devolve as mutacoes depois que os journals as tornaram duraveis: o de
+ * produtos e os que os listeners do repositorio alimentam, como o de precos.
+ */
+public class DuravelProdutoRepository extends ProdutoRepositoryDecorator {
+
+    private final Journal<?>[] journals;
+
+    public DuravelProdutoRepository(ProdutoRepository<Produto, Long> delegate, Journal<?>... journals) {
+        super(delegate);
+        this.journals = journals;
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        Produto salvo = delegate.save(produto);
+        aguardarDuravel();
+        return salvo;
+    }
+
+    // todos os itens entram no mesmo group commit: uma espera so
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> salvos = delegate.saveAll(produtos, falhas);
+        aguardarDuravel();
+        return salvos;
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        Produto atualizado = delegate.update(produto);
+        aguardarDuravel();
+        return atualizado;
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        Produto atualizado = delegate.compareAndSet(produto, versaoEsperada);
+        aguardarDuravel();
+        return atualizado;
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        List<Produto> atualizados = delegate.updateAll(produtos, falhas);
+        aguardarDuravel();
+        return atualizados;
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        delegate.delete(produto);
+        aguardarDuravel();
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        aguardarDuravel();
+    }
+
+    private void aguardarDuravel() {
+        for (Journal<?> journal : journals) {
+            journal.aguardarDuravel();
+        }
+    }
+}
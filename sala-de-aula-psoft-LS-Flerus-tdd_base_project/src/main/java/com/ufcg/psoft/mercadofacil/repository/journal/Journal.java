@@ -0,0 +1,554 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log append-only de um repositorio em memoria, com snapshots
+ * periodicos em arquivos mapeados em memoria.
+ *
+ * Cada mutacao vira um registro {@code [tamanho][seq][op][dados][crc]} enfileirado
+ * pelo proprio listener; uma unica thread escritora grava os registros em lotes e
+ * faz um fsync por lote (group commit). Quem precisa de durabilidade chama
+ * {@link #aguardarDuravel()} depois da operacao.
+ *
+ * Os registros guardam o estado completo da entidade, entao repeti-los e
+ * idempotente: a recuperacao carrega o ultimo snapshot e reaplica o log a partir
+ * do corte do snapshot anterior, o que cobre mutacoes em andamento enquanto o
+ * snapshot era escrito.
+ */
+public class Journal<T> implements RepositoryListener<T>, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(Journal.class);
+
+    static final byte OP_SALVAR = 1;
+    static final byte OP_ATUALIZAR = 2;
+    static final byte OP_REMOVER = 3;
+
+    private static final String PREFIXO_SEGMENTO = "journal-";
+    private static final String SUFIXO_SEGMENTO = ".log";
+    private static final String PREFIXO_SNAPSHOT = "snapshot-";
+    private static final String SUFIXO_SNAPSHOT = ".snap";
+    private static final int MAGIC_SNAPSHOT = 0x4D465331;
+    private static final int CABECALHO_SNAPSHOT = 4 + 8 + 8 + 8;
+    private static final int TAMANHO_JANELA = 64 << 20;
+    private static final int MAXIMO_POR_LOTE = 8192;
+
+    private final Path diretorio;
+    private final JournalCodec<T> codec;
+    private final boolean fsync;
+
+    private final ConcurrentLinkedQueue<Registro> fila = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Registro> ultimoRegistro = new ThreadLocal<>();
+    // Lock em vez de synchronized/wait: quem espera numa virtual thread libera a carrier
+    private final ReentrantLock travaDuravel = new ReentrantLock();
+    private final Condition gravado = travaDuravel.newCondition();
+    private final Thread escritor;
+    private volatile boolean escritorDormindo;
+    private volatile boolean recuperando;
+    private volatile boolean fechado;
+    private volatile IOException falha;
+
+    // Estado da thread escritora
+    private FileChannel segmento;
+    private long ultimaSequencia;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final CRC32 crc = new CRC32();
+
+    // Estado dos snapshots
+    private long corteAnterior;
+    private ScheduledExecutorService agendador;
+
+    public Journal(Path diretorio, JournalCodec<T> codec, boolean fsync) {
+        this.diretorio = diretorio;
+        this.codec = codec;
+        this.fsync = fsync;
+        this.escritor = new Thread(this::escrever, "journal-" + diretorio.getFileName());
+        this.escritor.setDaemon(true);
+    }
+
+    @Override
+    public void onSave(T novo) {
+        registrar(OP_SALVAR, novo);
+    }
+
+    @Override
+    public void onUpdate(T antigo, T novo) {
+        registrar(OP_ATUALIZAR, novo);
+    }
+
+    @Override
+    public void onDelete(T antigo) {
+        registrar(OP_REMOVER, antigo);
+    }
+
+    /**
+     * Bloqueia ate que o ultimo registro produzido pela thread atual esteja em disco.
+     */
+    public void aguardarDuravel() {
+        Registro registro = ultimoRegistro.get();
+        if (registro == null) {
+            return;
+        }
+        ultimoRegistro.remove();
+        if (registro.duravel) {
+            return;
+        }
+        travaDuravel.lock();
+        try {
+            while (!registro.duravel) {
+                if (falha != null) {
+                    throw new UncheckedIOException("Falha ao gravar o journal em " + diretorio, falha);
+                }
+                if (!escritor.isAlive() && !registro.duravel) {
+                    throw new IllegalStateException("Journal de " + diretorio + " fechado antes de gravar o registro");
+                }
+                try {
+                    gravado.await(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrompido aguardando o journal", e);
+                }
+            }
+        } finally {
+            travaDuravel.unlock();
+        }
+    }
+
+    /**
+     * Carrega o ultimo snapshot, reaplica o log e abre um novo segmento para escrita.
+     * Deve ser chamado uma vez, antes de qualquer mutacao no repositorio.
+     */
+    public synchronized void recuperar(Consumer<T> salvar, Consumer<T> remover) {
+        long inicio = System.nanoTime();
+        recuperando = true;
+        try {
+            Files.createDirectories(diretorio);
+            long corteSnapshot = 0;
+            long reaplicarApos = 0;
+            long doSnapshot = 0;
+            Path snapshot = ultimoSnapshot();
+            if (snapshot != null) {
+                long[] cabecalho = lerSnapshot(snapshot, salvar);
+                corteSnapshot = cabecalho[0];
+                reaplicarApos = cabecalho[1];
+                doSnapshot = cabecalho[2];
+            }
+            long[] replay = reaplicar(reaplicarApos, salvar, remover);
+            ultimaSequencia = Math.max(corteSnapshot, replay[0]);
+            corteAnterior = corteSnapshot;
+            segmento = abrirSegmento(ultimaSequencia + 1);
+            log.info("Journal {} recuperado em {} ms: {} entidades do snapshot, {} registros reaplicados",
+                    diretorio, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), doSnapshot, replay[1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao recuperar o journal em " + diretorio, e);
+        } finally {
+            recuperando = false;
+        }
+        escritor.start();
+    }
+
+    public synchronized void agendarSnapshots(Duration intervalo, Supplier<Stream<T>> estado) {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-snapshot-" + diretorio.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(estado);
+            } catch (RuntimeException e) {
+                log.error("Falha ao gerar snapshot de {}", diretorio, e);
+            }
+        }, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rotaciona o log e grava o estado atual em um novo snapshot. Segmentos
+     * anteriores ao corte do snapshot precedente deixam de ser necessarios.
+     */
+    public synchronized void snapshot(Supplier<Stream<T>> estado) {
+        CompletableFuture<Long> rotacao = new CompletableFuture<>();
+        enfileirar(new Registro(rotacao));
+        long corte = rotacao.join();
+
+        Path destino = diretorio.resolve(nomeArquivo(PREFIXO_SNAPSHOT, corte, SUFIXO_SNAPSHOT));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             Stream<T> entidades = estado.get()) {
+            JanelaDeEscrita janela = new JanelaDeEscrita(canal, CABECALHO_SNAPSHOT);
+            Bytes bytes = new Bytes();
+            DataOutputStream saida = new DataOutputStream(bytes);
+            long quantidade = 0;
+            for (T entidade : (Iterable<T>) entidades::iterator) {
+                bytes.reset();
+                codec.escrever(entidade, saida);
+                janela.escrever(bytes);
+                quantidade++;
+            }
+            long tamanho = janela.fechar();
+            MappedByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECALHO_SNAPSHOT);
+            cabecalho.putInt(MAGIC_SNAPSHOT)
+                    .putLong(corte)
+                    .putLong(corteAnterior)
+                    .putLong(quantidade);
+            cabecalho.force();
+            canal.truncate(tamanho);
+            canal.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar snapshot em " + temporario, e);
+        }
+
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            for (Path antigo : listar(PREFIXO_SNAPSHOT, SUFIXO_SNAPSHOT)) {
+                if (!antigo.equals(destino)) {
+                    Files.deleteIfExists(antigo);
+                }
+            }
+            List<Path> segmentos = listar(PREFIXO_SEGMENTO, SUFIXO_SEGMENTO);
+            for (int i = 0; i + 1 < segmentos.size(); i++) {
+                if (sequenciaInicial(segmentos.get(i + 1)) <= corteAnterior + 1) {
+                    Files.deleteIfExists(segmentos.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao publicar snapshot " + destino, e);
+        }
+        corteAnterior = corte;
+    }
+
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void registrar(byte op, T entidade) {
+        if (recuperando) {
+            return;
+        }
+        if (falha != null || fechado) {
+            throw new IllegalStateException("Journal de " + diretorio + " indisponivel", falha);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(op == OP_REMOVER ? 8 : 128);
+        try {
+            DataOutputStream saida = new DataOutputStream(bytes);
+            if (op == OP_REMOVER) {
+                saida.writeLong(codec.id(entidade));
+            } else {
+                codec.escrever(entidade, saida);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Registro registro = new Registro(op, bytes.toByteArray());
+        enfileirar(registro);
+        ultimoRegistro.set(registro);
+    }
+
+    private void enfileirar(Registro registro) {
+        fila.add(registro);
+        if (escritorDormindo) {
+            LockSupport.unpark(escritor);
+        }
+    }
+
+    private void escrever() {
+        List<Registro> lote = new ArrayList<>(MAXIMO_POR_LOTE);
+        while (true) {
+            Registro registro = fila.poll();
+            if (registro == null) {
+                if (fechado) {
+                    break;
+                }
+                escritorDormindo = true;
+                if (fila.isEmpty() && !fechado) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                }
+                escritorDormindo = false;
+                continue;
+            }
+            try {
+                do {
+                    if (registro.rotacao != null) {
+                        gravar(lote);
+                        segmento.close();
+                        segmento = abrirSegmento(ultimaSequencia + 1);
+                        registro.rotacao.complete(ultimaSequencia);
+                    } else {
+                        lote.add(registro);
+                    }
+                } while (lote.size() < MAXIMO_POR_LOTE && (registro = fila.poll()) != null);
+                gravar(lote);
+            } catch (IOException e) {
+                log.error("Falha ao gravar o journal em {}", diretorio, e);
+                falha = e;
+                for (Registro pendente : fila) {
+                    if (pendente.rotacao != null) {
+                        pendente.rotacao.completeExceptionally(e);
+                    }
+                }
+                avisarGravados();
+                return;
+            }
+        }
+        try {
+            segmento.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o journal em {}", diretorio, e);
+        }
+    }
+
+    private void gravar(List<Registro> lote) throws IOException {
+        if (lote.isEmpty()) {
+            return;
+        }
+        buffer.clear();
+        for (Registro registro : lote) {
+            int tamanho = 8 + 1 + registro.dados.length;
+            garantirEspaco(4 + tamanho + 4);
+            buffer.putInt(tamanho);
+            int inicio = buffer.position();
+            buffer.putLong(++ultimaSequencia).put(registro.op).put(registro.dados);
+            crc.reset();
+            crc.update(buffer.duplicate().position(inicio).limit(buffer.position()));
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmento.write(buffer);
+        }
+        if (fsync) {
+            segmento.force(false);
+        }
+        for (Registro registro : lote) {
+            registro.duravel = true;
+        }
+        lote.clear();
+        avisarGravados();
+    }
+
+    private void avisarGravados() {
+        travaDuravel.lock();
+        try {
+            gravado.signalAll();
+        } finally {
+            travaDuravel.unlock();
+        }
+    }
+
+    private void garantirEspaco(int necessario) {
+        if (buffer.remaining() >= necessario) {
+            return;
+        }
+        ByteBuffer maior = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + necessario));
+        buffer.flip();
+        maior.put(buffer);
+        buffer = maior;
+    }
+
+    private long[] reaplicar(long aposSequencia, Consumer<T> salvar, Consumer<T> remover) throws IOException {
+        long maiorSequencia = aposSequencia;
+        long reaplicados = 0;
+        for (Path arquivo : listar(PREFIXO_SEGMENTO, SUFIXO_SEGMENTO)) {
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16))) {
+                while (true) {
+                    int tamanho;
+                    try {
+                        tamanho = entrada.readInt();
+                    } catch (EOFException fim) {
+                        break;
+                    }
+                    byte[] dados = new byte[tamanho];
+                    int crcGravado;
+                    try {
+                        entrada.readFully(dados);
+                        crcGravado = entrada.readInt();
+                    } catch (EOFException cauda) {
+                        log.warn("Registro incompleto ignorado no fim de {}", arquivo);
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(dados);
+                    if ((int) crc.getValue() != crcGravado) {
+                        log.warn("Registro corrompido em {}; o restante do segmento foi ignorado", arquivo);
+                        break;
+                    }
+                    ByteBuffer registro = ByteBuffer.wrap(dados);
+                    long sequencia = registro.getLong();
+                    byte op = registro.get();
+                    maiorSequencia = Math.max(maiorSequencia, sequencia);
+                    if (sequencia <= aposSequencia) {
+                        continue;
+                    }
+                    DataInputStream corpo = new DataInputStream(new ByteArrayInputStream(dados, 9, tamanho - 9));
+                    if (op == OP_REMOVER) {
+                        remover.accept(codec.comId(corpo.readLong()));
+                    } else {
+                        salvar.accept(codec.ler(corpo));
+                    }
+                    reaplicados++;
+                }
+            }
+        }
+        return new long[]{maiorSequencia, reaplicados};
+    }
+
+    private long[] lerSnapshot(Path arquivo, Consumer<T> salvar) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            MappedByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, CABECALHO_SNAPSHOT);
+            if (cabecalho.getInt() != MAGIC_SNAPSHOT) {
+                throw new IOException("Snapshot invalido: " + arquivo);
+            }
+            long corte = cabecalho.getLong();
+            long reaplicarApos = cabecalho.getLong();
+            long quantidade = cabecalho.getLong();
+
+            long posicao = CABECALHO_SNAPSHOT;
+            MappedByteBuffer janela = null;
+            byte[] dados = new byte[256];
+            for (long lidos = 0; lidos < quantidade; lidos++) {
+                if (janela == null || janela.remaining() < 4 || janela.remaining() < 4 + janela.getInt(janela.position())) {
+                    posicao += janela == null ? 0 : janela.position();
+                    janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(TAMANHO_JANELA, tamanhoArquivo - posicao));
+                }
+                int tamanho = janela.getInt();
+                if (dados.length < tamanho) {
+                    dados = new byte[tamanho];
+                }
+                janela.get(dados, 0, tamanho);
+                salvar.accept(codec.ler(new DataInputStream(new ByteArrayInputStream(dados, 0, tamanho))));
+            }
+            return new long[]{corte, reaplicarApos, quantidade};
+        }
+    }
+
+    private FileChannel abrirSegmento(long sequenciaInicial) throws IOException {
+        return FileChannel.open(diretorio.resolve(nomeArquivo(PREFIXO_SEGMENTO, sequenciaInicial, SUFIXO_SEGMENTO)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path ultimoSnapshot() throws IOException {
+        List<Path> snapshots = listar(PREFIXO_SNAPSHOT, SUFIXO_SNAPSHOT);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    private List<Path> listar(String prefixo, String sufixo) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(arquivo -> arquivo.getFileName().toString().startsWith(prefixo)
+                            && arquivo.getFileName().toString().endsWith(sufixo))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenciaInicial(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+    }
+
+    private static String nomeArquivo(String prefixo, long sequencia, String sufixo) {
+        return String.format("%s%020d%s", prefixo, sequencia, sufixo);
+    }
+
+    private static final class Registro {
+        final byte op;
+        final byte[] dados;
+        final CompletableFuture<Long> rotacao;
+        volatile boolean duravel;
+
+        Registro(byte op, byte[] dados) {
+            this.op = op;
+            this.dados = dados;
+            this.rotacao = null;
+        }
+
+        Registro(CompletableFuture<Long> rotacao) {
+            this.op = 0;
+            this.dados = null;
+            this.rotacao = rotacao;
+        }
+    }
+
+    private static final class Bytes extends ByteArrayOutputStream {
+        Bytes() {
+            super(256);
+        }
+
+        void copiarPara(ByteBuffer destino) {
+            destino.put(buf, 0, count);
+        }
+    }
+
+    /**
+     * Escreve registros {@code [tamanho][dados]} em janelas mapeadas em memoria;
+     * um registro nunca atravessa o limite de uma janela.
+     */
+    private static final class JanelaDeEscrita {
+        private final FileChannel canal;
+        private long inicio;
+        private MappedByteBuffer janela;
+
+        JanelaDeEscrita(FileChannel canal, long inicio) throws IOException {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.janela = canal.map(FileChannel.MapMode.READ_WRITE, inicio, TAMANHO_JANELA);
+        }
+
+        void escrever(Bytes bytes) throws IOException {
+            int necessario = 4 + bytes.size();
+            if (janela.remaining() < necessario) {
+                janela.force();
+                inicio += janela.position();
+                janela = canal.map(FileChannel.MapMode.READ_WRITE, inicio, Math.max(TAMANHO_JANELA, necessario));
+            }
+            janela.putInt(bytes.size());
+            bytes.copiarPara(janela);
+        }
+
+        long fechar() {
+            janela.force();
+            return inicio + janela.position();
+        }
+    }
+}
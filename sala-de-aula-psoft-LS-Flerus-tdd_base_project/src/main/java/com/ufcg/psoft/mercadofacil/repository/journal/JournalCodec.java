@@ -0,0 +1,31 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Formato binario de uma entidade no journal e nos snapshots.
+ */
+public interface JournalCodec<T> {
+
+    Long id(T entidade);
+
+    /** Entidade minima usada para repetir uma remocao na recuperacao. */
+    T comId(Long id);
+
+    void escrever(T entidade, DataOutput saida) throws IOException;
+
+    T ler(DataInput entrada) throws IOException;
+
+    static void escreverTexto(String texto, DataOutput saida) throws IOException {
+        saida.writeBoolean(texto != null);
+        if (texto != null) {
+            saida.writeUTF(texto);
+        }
+    }
+
+    static String lerTexto(DataInput entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * O lote guarda so o id do produto. Registros antigos traziam o produto
+ * inteiro, que comeca pelo mesmo long do id; como cada registro e lido de um
+ * trecho delimitado, o resto do produto antigo e simplesmente ignorado.
+ */
+public class LoteJournalCodec implements JournalCodec<Lote> {
+
+    @Override
+    public Long id(Lote lote) {
+        return lote.getId();
+    }
+
+    @Override
+    public Lote comId(Long id) {
+        return Lote.builder().id(id).build();
+    }
+
+    @Override
+    public void escrever(Lote lote, DataOutput saida) throws IOException {
+        saida.writeLong(lote.getId());
+        saida.writeInt(lote.getNumeroDeItens());
+        saida.writeBoolean(lote.getProdutoId() != null);
+        if (lote.getProdutoId() != null) {
+            saida.writeLong(lote.getProdutoId());
+        }
+    }
+
+    @Override
+    public Lote ler(DataInput entrada) throws IOException {
+        Lote.LoteBuilder lote = Lote.builder()
+                .id(entrada.readLong())
+                .numeroDeItens(entrada.readInt());
+        if (entrada.readBoolean()) {
+            lote.produtoId(entrada.readLong());
+        }
+        return lote.build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.repository.preco.PrecoRegistrado;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class PrecoJournalCodec implements JournalCodec<PrecoRegistrado> {
+
+    @Override
+    public Long id(PrecoRegistrado preco) {
+        return preco.getProdutoId();
+    }
+
+    @Override
+    public PrecoRegistrado comId(Long id) {
+        return new PrecoRegistrado(id, -1, 0, 0);
+    }
+
+    @Override
+    public void escrever(PrecoRegistrado preco, DataOutput saida) throws IOException {
+        saida.writeLong(preco.getProdutoId());
+        saida.writeInt(preco.getIndice());
+        saida.writeLong(preco.getInstante());
+        saida.writeLong(preco.getCentavos());
+    }
+
+    @Override
+    public PrecoRegistrado ler(DataInput entrada) throws IOException {
+        return new PrecoRegistrado(entrada.readLong(), entrada.readInt(), entrada.readLong(), entrada.readLong());
+    }
+}
@@ -0,0 +1,52 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+public class ProdutoJournalCodec implements JournalCodec<Produto> {
+
+    @Override
+    public Long id(Produto produto) {
+        return produto.getId();
+    }
+
+    @Override
+    public Produto comId(Long id) {
+        return Produto.builder().id(id).build();
+    }
+
+    @Override
+    public void escrever(Produto produto, DataOutput saida) throws IOException {
+        saida.writeLong(produto.getId());
+        JournalCodec.escreverTexto(produto.getNome(), saida);
+        saida.writeDouble(produto.getPreco());
+        JournalCodec.escreverTexto(produto.getCodigoBarra(), saida);
+        JournalCodec.escreverTexto(produto.getFabricante(), saida);
+        saida.writeLong(produto.getVersao());
+    }
+
+    @Override
+    public Produto ler(DataInput entrada) throws IOException {
+        return Produto.builder()
+                .id(entrada.readLong())
+                .nome(JournalCodec.lerTexto(entrada))
+                .preco(entrada.readDouble())
+                .codigoBarra(JournalCodec.lerTexto(entrada))
+                .fabricante(JournalCodec.lerTexto(entrada))
+                .versao(lerVersao(entrada))
+                .build();
+    }
+
+    // registros gravados antes da versao terminam no fabricante; o save da recuperacao numera de novo
+    private static long lerVersao(DataInput entrada) throws IOException {
+        try {
+            return entrada.readLong();
+        } catch (EOFException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ufcg.psoft.mercadofacil.repository.metricas;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepositoryDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+
+/**
+ * Mede a latencia de cada operacao do repositorio de lotes.
+ */
+public class MetricasLoteRepository extends LoteRepositoryDecorator {
+
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer find;
+    private final Timer findAll;
+    private final Timer findByProduto;
+    private final Timer update;
+    private final Timer reservar;
+    private final Timer delete;
+    private final Timer deleteAll;
+
+    public MetricasLoteRepository(LoteRepository<Lote, Long> delegate, MeterRegistry registry) {
+        super(delegate);
+        save = MetricasRepositorio.timer(registry, "lotes", "save");
+        saveAll = MetricasRepositorio.timer(registry, "lotes", "saveAll");
+        find = MetricasRepositorio.timer(registry, "lotes", "find");
+        findAll = MetricasRepositorio.timer(registry, "lotes", "findAll");
+        findByProduto = MetricasRepositorio.timer(registry, "lotes", "findByProduto");
+        update = MetricasRepositorio.timer(registry, "lotes", "update");
+        reservar = MetricasRepositorio.timer(registry, "lotes", "reservar");
+        delete = MetricasRepositorio.timer(registry, "lotes", "delete");
+        deleteAll = MetricasRepositorio.timer(registry, "lotes", "deleteAll");
+        MetricasRepositorio.tamanho(registry, "lotes", delegate, LoteRepository::count);
+    }
+
+    @Override
+    public Lote save(Lote lote) {
+        return save.record(() -> delegate.save(lote));
+    }
+
+    @Override
+    public List<Lote> saveAll(List<Lote> lotes) {
+        return saveAll.record(() -> delegate.saveAll(lotes));
+    }
+
+    @Override
+    public Lote find(Long id) {
+        return find.record(() -> delegate.find(id));
+    }
+
+    @Override
+    public List<Lote> findAll() {
+        return findAll.record(delegate::findAll);
+    }
+
+    @Override
+    public List<Lote> findByProduto(Long produtoId) {
+        return findByProduto.record(() -> delegate.findByProduto(produtoId));
+    }
+
+    @Override
+    public Lote update(Lote lote) {
+        return update.record(() -> delegate.update(lote));
+    }
+
+    @Override
+    public Lote reservar(Long id, int quantidade) {
+        return reservar.record(() -> delegate.reservar(id, quantidade));
+    }
+
+    @Override
+    public void delete(Lote lote) {
+        delete.record(() -> delegate.delete(lote));
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAll.record(delegate::deleteAll);
+    }
+}
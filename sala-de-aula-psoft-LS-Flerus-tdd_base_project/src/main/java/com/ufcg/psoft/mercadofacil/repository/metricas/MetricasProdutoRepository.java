@@ -0,0 +1,115 @@
+package com.ufcg.psoft.mercadofacil.repository.metricas;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepositoryDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Mede a latencia de cada operacao do repositorio de produtos. Os timers sao
+ * resolvidos na construcao, entao cada chamada custa so duas leituras de
+ * relogio e a gravacao no histograma.
+ */
+public class MetricasProdutoRepository extends ProdutoRepositoryDecorator {
+
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer find;
+    private final Timer findByCodigoBarra;
+    private final Timer findByFabricante;
+    private final Timer findAllById;
+    private final Timer findAll;
+    private final Timer update;
+    private final Timer compareAndSet;
+    private final Timer updateAll;
+    private final Timer delete;
+    private final Timer deleteAll;
+
+    public MetricasProdutoRepository(ProdutoRepository<Produto, Long> delegate, MeterRegistry registry) {
+        super(delegate);
+        save = MetricasRepositorio.timer(registry, "produtos", "save");
+        saveAll = MetricasRepositorio.timer(registry, "produtos", "saveAll");
+        find = MetricasRepositorio.timer(registry, "produtos", "find");
+        findByCodigoBarra = MetricasRepositorio.timer(registry, "produtos", "findByCodigoBarra");
+        findByFabricante = MetricasRepositorio.timer(registry, "produtos", "findByFabricante");
+        findAllById = MetricasRepositorio.timer(registry, "produtos", "findAllById");
+        findAll = MetricasRepositorio.timer(registry, "produtos", "findAll");
+        update = MetricasRepositorio.timer(registry, "produtos", "update");
+        compareAndSet = MetricasRepositorio.timer(registry, "produtos", "compareAndSet");
+        updateAll = MetricasRepositorio.timer(registry, "produtos", "updateAll");
+        delete = MetricasRepositorio.timer(registry, "produtos", "delete");
+        deleteAll = MetricasRepositorio.timer(registry, "produtos", "deleteAll");
+        MetricasRepositorio.tamanho(registry, "produtos", delegate, ProdutoRepository::count);
+    }
+
+    @Override
+    public Produto save(Produto produto) {
+        return save.record(() -> delegate.save(produto));
+    }
+
+    @Override
+    public List<Produto> saveAll(List<Produto> produtos, FalhasLote falhas) {
+        return saveAll.record(() -> delegate.saveAll(produtos, falhas));
+    }
+
+    @Override
+    public Produto find(Long id) {
+        return find.record(() -> delegate.find(id));
+    }
+
+    @Override
+    public Produto findByCodigoBarra(String codigoBarra) {
+        return findByCodigoBarra.record(() -> delegate.findByCodigoBarra(codigoBarra));
+    }
+
+    @Override
+    public List<Produto> findByFabricante(String fabricante) {
+        return findByFabricante.record(() -> delegate.findByFabricante(fabricante));
+    }
+
+    @Override
+    public List<Produto> findAllById(Collection<Long> ids) {
+        return findAllById.record(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Produto> findAll() {
+        return findAll.record(delegate::findAll);
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Produto update(Produto produto) {
+        return update.record(() -> delegate.update(produto));
+    }
+
+    @Override
+    public Produto compareAndSet(Produto produto, long versaoEsperada) {
+        return compareAndSet.record(() -> delegate.compareAndSet(produto, versaoEsperada));
+    }
+
+    @Override
+    public List<Produto> updateAll(List<Produto> produtos, FalhasLote falhas) {
+        return updateAll.record(() -> delegate.updateAll(produtos, falhas));
+    }
+
+    @Override
+    public void delete(Produto produto) {
+        delete.record(() -> delegate.delete(produto));
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAll.record(delegate::deleteAll);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ufcg.psoft.mercadofacil.repository.metricas;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.ToDoubleFunction;
+
+final class MetricasRepositorio {
+
+    static final String OPERACOES = "mercadofacil.repositorio.operacoes";
+    static final String TAMANHO = "mercadofacil.repositorio.tamanho";
+
+    private MetricasRepositorio() {
+    }
+
+    // histograma com buckets fixos: agregavel no Prometheus e sem calculo de percentil no processo
+    static Timer timer(MeterRegistry registry, String repositorio, String operacao) {
+        return Timer.builder(OPERACOES)
+                .tag("repositorio", repositorio)
+                .tag("operacao", operacao)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    static <T> void tamanho(MeterRegistry registry, String repositorio, T repository, ToDoubleFunction<T> contar) {
+        Gauge.builder(TAMANHO, repository, contar)
+                .tag("repositorio", repositorio)
+                .register(registry);
+    }
+}
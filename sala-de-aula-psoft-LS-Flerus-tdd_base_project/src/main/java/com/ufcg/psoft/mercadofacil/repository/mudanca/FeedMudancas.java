@@ -0,0 +1,89 @@
+package com.ufcg.psoft.mercadofacil.repository.mudanca;
+
+import com.ufcg.psoft.mercadofacil.dto.Mudanca;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Feed das mudancas dos repositorios num buffer circular de tamanho fixo, no
+ * estilo do Disruptor: cada mudanca recebe um numero de sequencia crescente e
+ * vai para o slot {@code sequencia & mascara}.
+ *
+ * Quem escreve nunca espera por quem le: um incremento atomico e uma escrita
+ * no slot, sem lock nem sinalizacao. Quando o buffer da a volta a mudanca mais
+ * antiga e sobrescrita, entao um leitor atrasado perde mudancas em vez de
+ * segurar os repositorios; {@link #ler} pula para a mais antiga ainda no
+ * buffer e o leitor percebe a perda pela sequencia. As sequencias comecam em 1
+ * e recomecam quando a aplicacao reinicia.
+ */
+@Component
+public class FeedMudancas {
+
+    private final AtomicLong proxima = new AtomicLong(1);
+    private final AtomicReferenceArray<Mudanca> slots;
+    private final int mascara;
+
+    public FeedMudancas(@Value("${mercadofacil.mudancas.capacidade:65536}") int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("capacidade precisa ser positiva: " + capacidade);
+        }
+        int potencia = Integer.highestOneBit(capacidade) == capacidade ? capacidade : Integer.highestOneBit(capacidade) << 1;
+        this.slots = new AtomicReferenceArray<>(potencia);
+        this.mascara = potencia - 1;
+    }
+
+    /** Numera e publica a mudanca; chamado dentro da secao critica da chave alterada. */
+    public long publicar(String entidade, String operacao, Long id, Object dados) {
+        long sequencia = proxima.getAndIncrement();
+        // a mudanca so fica visivel depois de montada; a sequencia no slot diz a volta do buffer
+        slots.setRelease((int) (sequencia & mascara), Mudanca.builder()
+                .sequencia(sequencia)
+                .entidade(entidade)
+                .operacao(operacao)
+                .id(id)
+                .dados(dados)
+                .build());
+        return sequencia;
+    }
+
+    /** Sequencia da ultima mudanca numerada; zero se nao houve nenhuma. */
+    public long ultimaSequencia() {
+        return proxima.get() - 1;
+    }
+
+    public int capacidade() {
+        return mascara + 1;
+    }
+
+    /**
+     * Ate {@code maximo} mudancas com sequencia maior que {@code desde}, em
+     * ordem. Se a primeira devolvida nao for {@code desde + 1} as do meio foram
+     * sobrescritas. Para na primeira sequencia ainda nao publicada, entao o
+     * resultado nunca tem buracos de escritas em andamento.
+     */
+    public List<Mudanca> ler(long desde, int maximo) {
+        long ultima = ultimaSequencia();
+        long sequencia = Math.max(desde + 1, ultima - mascara);
+        List<Mudanca> mudancas = new ArrayList<>((int) Math.min(maximo, Math.max(0, ultima - sequencia + 1)));
+        while (sequencia <= ultima && mudancas.size() < maximo) {
+            Mudanca mudanca = slots.getAcquire((int) (sequencia & mascara));
+            if (mudanca == null || mudanca.getSequencia() < sequencia) {
+                // numerada mas ainda nao publicada
+                break;
+            }
+            if (mudanca.getSequencia() == sequencia) {
+                mudancas.add(mudanca);
+            } else if (!mudancas.isEmpty()) {
+                // sobrescrita durante a leitura: devolve o trecho continuo lido ate aqui
+                break;
+            }
+            sequencia++;
+        }
+        return mudancas;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ufcg.psoft.mercadofacil.repository.mudanca;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica no {@link FeedMudancas} as mutacoes do repositorio de lotes,
+ * inclusive as reservas, que chegam como alteracao do lote.
+ */
+@Component
+public class LoteMudancas implements RepositoryListener<Lote> {
+
+    static final String ENTIDADE = "lote";
+
+    @Autowired
+    FeedMudancas feedMudancas;
+
+    @Override
+    public void onSave(Lote novo) {
+        feedMudancas.publicar(ENTIDADE, "criado", novo.getId(), copia(novo));
+    }
+
+    @Override
+    public void onUpdate(Lote antigo, Lote novo) {
+        feedMudancas.publicar(ENTIDADE, "alterado", novo.getId(), copia(novo));
+    }
+
+    @Override
+    public void onDelete(Lote antigo) {
+        feedMudancas.publicar(ENTIDADE, "removido", antigo.getId(), null);
+    }
+
+    // o repositorio guarda a instancia recebida, que quem chamou ainda pode alterar
+    private static Lote copia(Lote lote) {
+        return Lote.builder()
+                .id(lote.getId())
+                .produtoId(lote.getProdutoId())
+                .numeroDeItens(lote.getNumeroDeItens())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ufcg.psoft.mercadofacil.repository.mudanca;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica no {@link FeedMudancas} as mutacoes do repositorio de produtos.
+ * Como roda dentro da secao critica do produto, as mudancas de um mesmo
+ * produto saem no feed na ordem em que foram aplicadas.
+ */
+@Component
+public class ProdutoMudancas implements RepositoryListener<Produto> {
+
+    static final String ENTIDADE = "produto";
+
+    @Autowired
+    FeedMudancas feedMudancas;
+
+    @Override
+    public void onSave(Produto novo) {
+        feedMudancas.publicar(ENTIDADE, "criado", novo.getId(), copia(novo));
+    }
+
+    @Override
+    public void onUpdate(Produto antigo, Produto novo) {
+        feedMudancas.publicar(ENTIDADE, "alterado", novo.getId(), copia(novo));
+    }
+
+    @Override
+    public void onDelete(Produto antigo) {
+        feedMudancas.publicar(ENTIDADE, "removido", antigo.getId(), null);
+    }
+
+    // o repositorio pode devolver a mesma instancia a quem chamou, que e livre para altera-la
+    private static Produto copia(Produto produto) {
+        return Produto.builder()
+                .id(produto.getId())
+                .nome(produto.getNome())
+                .preco(produto.getPreco())
+                .codigoBarra(produto.getCodigoBarra())
+                .fabricante(produto.getFabricante())
+                .versao(produto.getVersao())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ufcg.psoft.mercadofacil.repository.preco;
+
+import com.ufcg.psoft.mercadofacil.dto.PontoPreco;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Historico de precos por produto, alimentado como listener do repositorio
+ * de produtos: o save registra o preco inicial e cada update que muda o
+ * preco acrescenta um ponto na {@link SeriePrecos} do produto. Updates que
+ * nao mexem no preco nao ocupam espaco.
+ *
+ * O historico sobrevive ao delete do produto, para auditoria; se o id voltar
+ * a ser usado a serie continua.
+ *
+ * Cada ponto novo vai como {@link PrecoRegistrado} aos listeners do
+ * historico, antes de entrar na serie. No modo journal o listener e o journal
+ * de precos, e a inicializacao refaz as series com {@link #restaurar} a partir
+ * dele; no modo volatil as series ficam so em memoria. A recuperacao dos
+ * produtos roda dentro de {@link #suspenderDurante(Runnable)}, para nao
+ * registrar de novo, com o instante da reinicializacao, precos que ja estao
+ * nas series.
+ */
+@Component
+public class HistoricoPrecos implements RepositoryListener<Produto> {
+
+    private final Map<Long, SeriePrecos> series = new ConcurrentHashMap<>();
+    private final Clock relogio;
+    private final List<RepositoryListener<PrecoRegistrado>> listeners;
+    private volatile boolean suspenso;
+
+    @Autowired
+    public HistoricoPrecos(ObjectProvider<RepositoryListener<PrecoRegistrado>> listeners) {
+        this(Clock.systemUTC(), listeners.orderedStream().toList());
+    }
+
+    HistoricoPrecos(Clock relogio) {
+        this(relogio, List.of());
+    }
+
+    HistoricoPrecos(Clock relogio, List<RepositoryListener<PrecoRegistrado>> listeners) {
+        this.relogio = relogio;
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void onSave(Produto novo) {
+        registrar(novo);
+    }
+
+    @Override
+    public void onUpdate(Produto antigo, Produto novo) {
+        registrar(novo);
+    }
+
+    /** Roda {@code acao} sem registrar pontos para os saves e updates que ela fizer. */
+    public void suspenderDurante(Runnable acao) {
+        suspenso = true;
+        try {
+            acao.run();
+        } finally {
+            suspenso = false;
+        }
+    }
+
+    /**
+     * Reaplica um ponto recuperado do journal. Pontos que a serie ja tem, por
+     * estarem no snapshot e de novo no log, sao ignorados.
+     */
+    public void restaurar(PrecoRegistrado preco) {
+        SeriePrecos serie = series.computeIfAbsent(preco.getProdutoId(), id -> new SeriePrecos());
+        if (preco.getIndice() == serie.pontos()) {
+            serie.acrescentar(preco.getInstante(), preco.getCentavos());
+        }
+    }
+
+    /** Todos os pontos de todas as series, para o snapshot do journal de precos. */
+    public Stream<PrecoRegistrado> registros() {
+        return series.entrySet().stream().flatMap(entrada -> {
+            List<PrecoRegistrado> pontos = new ArrayList<>();
+            entrada.getValue().consultar(Long.MIN_VALUE, Long.MAX_VALUE, (instante, centavos) ->
+                    pontos.add(new PrecoRegistrado(entrada.getKey(), pontos.size(), instante, centavos)));
+            return pontos.stream();
+        });
+    }
+
+    /**
+     * Pontos do produto entre {@code de} e {@code ate}, inclusive, em ordem;
+     * limites nulos deixam o intervalo aberto. Nulo se o produto nunca teve preco registrado.
+     */
+    public List<PontoPreco> consultar(Long produtoId, Instant de, Instant ate) {
+        SeriePrecos serie = produtoId == null ? null : series.get(produtoId);
+        if (serie == null) {
+            return null;
+        }
+        List<PontoPreco> pontos = new ArrayList<>();
+        serie.consultar(de == null ? Long.MIN_VALUE : de.toEpochMilli(), ate == null ? Long.MAX_VALUE : ate.toEpochMilli(),
+                (instante, centavos) -> pontos.add(PontoPreco.builder()
+                        .instante(Instant.ofEpochMilli(instante))
+                        .preco(centavos / 100.0)
+                        .build()));
+        return pontos;
+    }
+
+    // chamado dentro da secao critica do produto, entao os pontos de um produto chegam em ordem
+    private void registrar(Produto produto) {
+        if (suspenso) {
+            return;
+        }
+        long centavos = Math.round(produto.getPreco() * 100);
+        SeriePrecos serie = series.computeIfAbsent(produto.getId(), id -> new SeriePrecos());
+        if (serie.pontos() == 0 || serie.ultimoPreco() != centavos) {
+            PrecoRegistrado preco = new PrecoRegistrado(produto.getId(), serie.pontos(),
+                    Math.max(relogio.millis(), serie.ultimoInstante()), centavos);
+            // se o journal recusa o ponto a serie fica como estava
+            RepositoryListener.notificar(listeners, null, preco);
+            serie.acrescentar(preco.getInstante(), centavos);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ufcg.psoft.mercadofacil.repository.preco;
+
+import lombok.Value;
+
+/**
+ * Um ponto da serie de precos de um produto, como o {@link HistoricoPrecos}
+ * o entrega aos seus listeners. {@code indice} e a posicao do ponto na serie:
+ * reaplicar um ponto que a serie ja tem nao muda nada.
+ */
+@Value
+public class PrecoRegistrado {
+
+    long produtoId;
+    int indice;
+    long instante;
+    long centavos;
+}
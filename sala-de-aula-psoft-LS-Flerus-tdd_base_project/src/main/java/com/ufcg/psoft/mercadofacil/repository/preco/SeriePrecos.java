@@ -0,0 +1,144 @@
+package com.ufcg.psoft.mercadofacil.repository.preco;
+
+import java.util.Arrays;
+
+/**
+ * Serie so de acrescimos com os precos de um produto: pares (instante em
+ * milissegundos, preco em centavos) em ordem de instante.
+ *
+ * Cada ponto guarda so a diferenca para o anterior, em varint (o preco em
+ * zigzag, porque pode cair): com mudancas a minutos de distancia sao 4 ou 5
+ * bytes por ponto, contra 16 dos dois longs. A cada
+ * {@link #PONTOS_POR_BLOCO} pontos um bloco recomeca com valores absolutos e
+ * entra num indice de instante e posicao; a consulta por intervalo busca o
+ * bloco no indice e so decodifica dali em diante.
+ */
+final class SeriePrecos {
+
+    static final int PONTOS_POR_BLOCO = 64;
+
+    private byte[] bytes = new byte[16];
+    private int tamanho;
+    private int pontos;
+    private long[] instanteBloco = new long[1];
+    private int[] inicioBloco = new int[1];
+    private long ultimoInstante;
+    private long ultimoPreco;
+
+    /** Acrescenta o ponto; um instante anterior ao ultimo e tratado como o ultimo. */
+    synchronized void acrescentar(long instante, long centavos) {
+        instante = Math.max(instante, ultimoInstante);
+        if (pontos % PONTOS_POR_BLOCO == 0) {
+            int bloco = pontos / PONTOS_POR_BLOCO;
+            if (bloco == instanteBloco.length) {
+                instanteBloco = Arrays.copyOf(instanteBloco, bloco * 2);
+                inicioBloco = Arrays.copyOf(inicioBloco, bloco * 2);
+            }
+            instanteBloco[bloco] = instante;
+            inicioBloco[bloco] = tamanho;
+            escrever(instante);
+            escrever(zigzag(centavos));
+        } else {
+            escrever(instante - ultimoInstante);
+            escrever(zigzag(centavos - ultimoPreco));
+        }
+        ultimoInstante = instante;
+        ultimoPreco = centavos;
+        pontos++;
+    }
+
+    /** Ultimo preco acrescentado; so tem sentido se a serie nao esta vazia. */
+    synchronized long ultimoPreco() {
+        return ultimoPreco;
+    }
+
+    synchronized long ultimoInstante() {
+        return ultimoInstante;
+    }
+
+    synchronized int pontos() {
+        return pontos;
+    }
+
+    synchronized int bytes() {
+        return tamanho;
+    }
+
+    /** Entrega em ordem os pontos com instante entre {@code de} e {@code ate}, inclusive. */
+    synchronized void consultar(long de, long ate, Destino destino) {
+        if (pontos == 0 || de > ate) {
+            return;
+        }
+        int bloco = blocoDe(de);
+        int ponto = bloco * PONTOS_POR_BLOCO;
+        int[] posicao = {inicioBloco[bloco]};
+        long instante = 0;
+        long centavos = 0;
+        for (; ponto < pontos; ponto++) {
+            if (ponto % PONTOS_POR_BLOCO == 0) {
+                instante = ler(posicao);
+                centavos = deszigzag(ler(posicao));
+            } else {
+                instante += ler(posicao);
+                centavos += deszigzag(ler(posicao));
+            }
+            if (instante > ate) {
+                return;
+            }
+            if (instante >= de) {
+                destino.aceitar(instante, centavos);
+            }
+        }
+    }
+
+    // ultimo bloco que comeca ate de: os instantes so crescem, entao os pontos de antes dele ficam fora
+    private int blocoDe(long de) {
+        int blocos = (pontos + PONTOS_POR_BLOCO - 1) / PONTOS_POR_BLOCO;
+        int indice = Arrays.binarySearch(instanteBloco, 0, blocos, de);
+        if (indice < 0) {
+            indice = -indice - 2;
+        } else {
+            // blocos seguidos podem comecar no mesmo instante
+            while (indice > 0 && instanteBloco[indice - 1] == de) {
+                indice--;
+            }
+        }
+        return Math.max(indice, 0);
+    }
+
+    private void escrever(long valor) {
+        if (tamanho + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanho + 10));
+        }
+        while ((valor & ~0x7FL) != 0) {
+            bytes[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        bytes[tamanho++] = (byte) valor;
+    }
+
+    private long ler(int[] posicao) {
+        long valor = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            b = bytes[posicao[0]++];
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while (b < 0);
+        return valor;
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long deszigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    @FunctionalInterface
+    interface Destino {
+        void aceitar(long instante, long centavos);
+    }
+}
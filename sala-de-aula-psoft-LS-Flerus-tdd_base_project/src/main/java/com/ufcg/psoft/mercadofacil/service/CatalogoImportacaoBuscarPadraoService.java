@@ -0,0 +1,17 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.service.importacao.ImportadorCatalogo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CatalogoImportacaoBuscarPadraoService implements CatalogoImportacaoBuscarService {
+    @Autowired
+    ImportadorCatalogo importadorCatalogo;
+
+    @Override
+    public Importacao buscar(String id) {
+        return importadorCatalogo.buscar(id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+
+@FunctionalInterface
+public interface CatalogoImportacaoBuscarService {
+    Importacao buscar(String id);
+}
@@ -0,0 +1,18 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.service.importacao.ImportadorCatalogo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CatalogoImportarPadraoService implements CatalogoImportarService {
+    @Autowired
+    ImportadorCatalogo importadorCatalogo;
+
+    // a importacao continua em segundo plano; o retorno e o estado inicial
+    @Override
+    public Importacao importar(String arquivo, String entidade) {
+        return importadorCatalogo.iniciar(arquivo, entidade);
+    }
+}
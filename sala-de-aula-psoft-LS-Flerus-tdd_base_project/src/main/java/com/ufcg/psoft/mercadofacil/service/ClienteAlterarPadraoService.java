@@ -0,0 +1,21 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import com.ufcg.psoft.mercadofacil.validator.ClienteValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClienteAlterarPadraoService implements ClienteAlterarService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+    @Autowired
+    ClienteValidator clienteValidator;
+
+    @Override
+    public Cliente alterar(Cliente cliente) {
+        clienteValidator.validar(cliente);
+        return clienteRepository.update(cliente);
+    }
+}
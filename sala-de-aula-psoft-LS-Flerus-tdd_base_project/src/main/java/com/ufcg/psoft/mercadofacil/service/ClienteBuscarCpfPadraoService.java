@@ -0,0 +1,24 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import com.ufcg.psoft.mercadofacil.validator.CpfValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClienteBuscarCpfPadraoService implements ClienteBuscarCpfService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+
+    // so o formato e conferido: um CPF com verificador errado nunca foi cadastrado e simplesmente nao e encontrado
+    @Override
+    public Cliente buscar(String cpf) {
+        long numero = CpfValidator.converter(cpf);
+        if (numero < 0) {
+            throw new ValidacaoException("cpf_formato_invalido", CpfValidator.Resultado.FORMATO_INVALIDO.getMensagem());
+        }
+        return clienteRepository.findByCpf(numero);
+    }
+}
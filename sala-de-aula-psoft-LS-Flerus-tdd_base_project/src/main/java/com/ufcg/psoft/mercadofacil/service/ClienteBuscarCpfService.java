@@ -0,0 +1,8 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+
+@FunctionalInterface
+public interface ClienteBuscarCpfService {
+    Cliente buscar(String cpf);
+}
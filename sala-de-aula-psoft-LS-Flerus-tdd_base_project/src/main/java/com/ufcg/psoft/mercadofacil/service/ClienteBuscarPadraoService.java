@@ -0,0 +1,17 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClienteBuscarPadraoService implements ClienteBuscarService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+
+    @Override
+    public Cliente buscar(Long id) {
+        return clienteRepository.find(id);
+    }
+}
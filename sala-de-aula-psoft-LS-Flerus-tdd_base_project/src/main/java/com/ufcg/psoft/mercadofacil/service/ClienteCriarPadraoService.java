@@ -0,0 +1,27 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import com.ufcg.psoft.mercadofacil.validator.ClienteValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClienteCriarPadraoService implements ClienteCriarService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+    @Autowired
+    ClienteValidator clienteValidator;
+
+    @Override
+    public Cliente criar(Cliente cliente) {
+        clienteValidator.validar(cliente);
+        // o id e sempre do repositorio: um POST nao sobrescreve um cliente existente
+        return clienteRepository.save(Cliente.builder()
+                .cpf(cliente.getCpf())
+                .nome(cliente.getNome())
+                .idade(cliente.getIdade())
+                .endereco(cliente.getEndereco())
+                .build());
+    }
+}
@@ -0,0 +1,19 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class ClienteListarPadraoService implements ClienteListarService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+
+    @Override
+    public List<Cliente> listar() {
+        return clienteRepository.findAll();
+    }
+}
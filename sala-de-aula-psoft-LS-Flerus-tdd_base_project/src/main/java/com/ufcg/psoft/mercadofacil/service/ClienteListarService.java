@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ClienteListarService {
+    List<Cliente> listar();
+}
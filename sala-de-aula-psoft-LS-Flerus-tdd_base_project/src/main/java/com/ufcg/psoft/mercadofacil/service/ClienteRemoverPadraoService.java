@@ -0,0 +1,22 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClienteRemoverPadraoService implements ClienteRemoverService {
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+
+    @Override
+    public boolean remover(Long id) {
+        Cliente cliente = clienteRepository.find(id);
+        if (cliente == null) {
+            return false;
+        }
+        clienteRepository.delete(cliente);
+        return true;
+    }
+}
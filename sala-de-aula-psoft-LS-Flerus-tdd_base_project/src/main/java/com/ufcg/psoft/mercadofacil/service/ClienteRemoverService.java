@@ -0,0 +1,6 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+@FunctionalInterface
+public interface ClienteRemoverService {
+    boolean remover(Long id);
+}
@@ -0,0 +1,17 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoteBuscarPadraoService implements LoteBuscarService {
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+
+    @Override
+    public Lote buscar(Long id) {
+        return loteRepository.find(id);
+    }
+}
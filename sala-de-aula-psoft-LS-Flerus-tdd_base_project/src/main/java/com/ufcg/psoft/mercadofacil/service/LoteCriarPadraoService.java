@@ -0,0 +1,33 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.LoteValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoteCriarPadraoService implements LoteCriarService {
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    LoteValidator loteValidator;
+
+    @Override
+    public Lote criar(Lote lote) {
+        loteValidator.validar(lote);
+        if (produtoRepository.find(lote.getProdutoId()) == null) {
+            throw new ValidacaoException("produto_inexistente", "Produto nao encontrado!");
+        }
+        // o id e sempre do repositorio: um POST nao sobrescreve um lote existente
+        return loteRepository.save(Lote.builder()
+                .produtoId(lote.getProdutoId())
+                .numeroDeItens(lote.getNumeroDeItens())
+                .build());
+    }
+}
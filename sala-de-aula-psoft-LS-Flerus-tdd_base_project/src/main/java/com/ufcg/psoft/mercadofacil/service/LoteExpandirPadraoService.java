@@ -0,0 +1,48 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.LoteExpandido;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class LoteExpandirPadraoService implements LoteExpandirService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    // um findAllById para todos os produtos dos lotes, cada produto pedido uma vez so
+    @Override
+    public List<LoteExpandido> expandir(List<Lote> lotes) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Lote lote : lotes) {
+            if (lote.getProdutoId() != null) {
+                ids.add(lote.getProdutoId());
+            }
+        }
+        Map<Long, Produto> produtos = new HashMap<>(ids.size() * 2);
+        if (!ids.isEmpty()) {
+            for (Produto produto : produtoRepository.findAllById(ids)) {
+                produtos.put(produto.getId(), produto);
+            }
+        }
+        List<LoteExpandido> expandidos = new ArrayList<>(lotes.size());
+        for (Lote lote : lotes) {
+            expandidos.add(LoteExpandido.builder()
+                    .id(lote.getId())
+                    .produtoId(lote.getProdutoId())
+                    .numeroDeItens(lote.getNumeroDeItens())
+                    .produto(lote.getProdutoId() == null ? null : produtos.get(lote.getProdutoId()))
+                    .build());
+        }
+        return expandidos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.LoteExpandido;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface LoteExpandirService {
+    List<LoteExpandido> expandir(List<Lote> lotes);
+}
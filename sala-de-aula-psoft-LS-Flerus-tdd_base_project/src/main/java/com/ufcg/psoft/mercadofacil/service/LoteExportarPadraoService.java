@@ -0,0 +1,55 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.LoteExpandido;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+public class LoteExportarPadraoService implements LoteExportarService {
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+    @Autowired
+    LoteExpandirService loteExpandirService;
+
+    @Value("${mercadofacil.lotes.tamanho-bloco-expansao:1000}")
+    int tamanhoBlocoExpansao;
+
+    @Override
+    public Stream<Lote> exportar() {
+        return loteRepository.stream();
+    }
+
+    // expande em blocos: um multi-get de produtos por bloco, sem materializar todos os lotes
+    @Override
+    public Stream<LoteExpandido> exportarExpandido() {
+        Iterator<Lote> lotes = loteRepository.stream().iterator();
+        Iterator<List<LoteExpandido>> blocos = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return lotes.hasNext();
+            }
+
+            @Override
+            public List<LoteExpandido> next() {
+                List<Lote> bloco = new ArrayList<>(tamanhoBlocoExpansao);
+                while (bloco.size() < tamanhoBlocoExpansao && lotes.hasNext()) {
+                    bloco.add(lotes.next());
+                }
+                return loteExpandirService.expandir(bloco);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(blocos, Spliterator.ORDERED), false)
+                .flatMap(List::stream);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.LoteExpandido;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+
+import java.util.stream.Stream;
+
+public interface LoteExportarService {
+    Stream<Lote> exportar();
+    Stream<LoteExpandido> exportarExpandido();
+}
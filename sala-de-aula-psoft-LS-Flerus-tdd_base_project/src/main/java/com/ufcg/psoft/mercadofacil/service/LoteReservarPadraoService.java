@@ -0,0 +1,21 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoteReservarPadraoService implements LoteReservarService {
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+
+    @Override
+    public Lote reservar(Long id, int quantidade) {
+        if (quantidade <= 0) {
+            throw new ValidacaoException("quantidade_invalida", "Quantidade de reserva invalida!");
+        }
+        return loteRepository.reservar(id, quantidade);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+
+@FunctionalInterface
+public interface LoteReservarService {
+    Lote reservar(Long id, int quantidade);
+}
@@ -0,0 +1,53 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class ProdutoAlterarEmMassaPadraoService implements ProdutoAlterarEmMassaService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    ProdutoValidator produtoValidator;
+
+    @Override
+    public List<ProdutoAlteracaoResultado> alterarTodos(List<Produto> produtos) {
+        ProdutoAlteracaoResultado[] resultados = new ProdutoAlteracaoResultado[produtos.size()];
+        List<Produto> validos = new ArrayList<>(produtos.size());
+        int[] posicoes = new int[produtos.size()];
+
+        for (int i = 0; i < produtos.size(); i++) {
+            Produto produto = produtos.get(i);
+            try {
+                produtoValidator.validar(produto);
+                posicoes[validos.size()] = i;
+                validos.add(produto);
+            } catch (ValidacaoException e) {
+                resultados[i] = ProdutoAlteracaoResultado.falha(produto, e.getMessage());
+            }
+        }
+
+        // falhas do repositorio (codigo de barras duplicado) chegam item a item; os demais sao aplicados uma vez so
+        List<Produto> atualizados = validos.isEmpty() ? validos : produtoRepository.updateAll(validos,
+                (posicao, motivo) -> resultados[posicoes[posicao]] = ProdutoAlteracaoResultado.falha(validos.get(posicao), motivo.getMessage()));
+        for (int i = 0; i < atualizados.size(); i++) {
+            Produto atualizado = atualizados.get(i);
+            if (resultados[posicoes[i]] != null) {
+                continue;
+            }
+            resultados[posicoes[i]] = atualizado == null
+                    ? ProdutoAlteracaoResultado.falha(validos.get(i), "Produto nao encontrado")
+                    : ProdutoAlteracaoResultado.sucesso(atualizado);
+        }
+        return Arrays.asList(resultados);
+    }
+}
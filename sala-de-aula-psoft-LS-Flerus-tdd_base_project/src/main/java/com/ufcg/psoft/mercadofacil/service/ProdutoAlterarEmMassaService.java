@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ProdutoAlterarEmMassaService {
+    List<ProdutoAlteracaoResultado> alterarTodos(List<Produto> produtos);
+}
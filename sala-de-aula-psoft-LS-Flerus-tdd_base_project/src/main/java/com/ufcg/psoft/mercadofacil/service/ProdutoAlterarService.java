@@ -4,5 +4,10 @@ import com.ufcg.psoft.mercadofacil.model.Produto;
 
 @FunctionalInterface
 public interface ProdutoAlterarService {
-    Produto alterar(Produto produto);
+    /** {@code versaoEsperada} nula altera qualquer que seja a versao atual. */
+    Produto alterar(Produto produto, Long versaoEsperada);
+
+    default Produto alterar(Produto produto) {
+        return alterar(produto, null);
+    }
 }
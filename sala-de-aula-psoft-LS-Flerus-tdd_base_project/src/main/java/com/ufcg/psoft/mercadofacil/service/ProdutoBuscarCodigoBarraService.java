@@ -0,0 +1,8 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+@FunctionalInterface
+public interface ProdutoBuscarCodigoBarraService {
+    Produto buscar(String codigoBarra);
+}
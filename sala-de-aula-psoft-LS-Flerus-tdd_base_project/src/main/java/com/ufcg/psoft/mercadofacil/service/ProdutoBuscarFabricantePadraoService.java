@@ -0,0 +1,19 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class ProdutoBuscarFabricantePadraoService implements ProdutoBuscarFabricanteService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    @Override
+    public List<Produto> buscar(String fabricante) {
+        return produtoRepository.findByFabricante(fabricante);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ProdutoBuscarIdPadraoService implements ProdutoBuscarIdService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    @Override
+    public Produto buscar(Long id) {
+        return produtoRepository.find(id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+@FunctionalInterface
+public interface ProdutoBuscarIdService {
+    Produto buscar(Long id);
+}
@@ -0,0 +1,52 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.busca.IndiceBuscaProduto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ProdutoBuscarPadraoService implements ProdutoBuscarService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    IndiceBuscaProduto indiceBuscaProduto;
+
+    @Value("${mercadofacil.busca.tamanho-maximo-pagina:100}")
+    int tamanhoMaximoPagina;
+
+    @Override
+    public Pagina<Produto> buscar(String consulta, int pagina, int tamanho) {
+        int tamanhoValido = Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+        Pagina<Long> ids = indiceBuscaProduto.buscar(consulta, Math.max(0, pagina), tamanhoValido);
+        return Pagina.<Produto>builder()
+                .conteudo(resolver(ids.getConteudo()))
+                .pagina(ids.getPagina())
+                .tamanho(ids.getTamanho())
+                .total(ids.getTotal())
+                .build();
+    }
+
+    @Override
+    public List<Produto> autocompletar(String consulta, int limite) {
+        return resolver(indiceBuscaProduto.autocompletar(consulta, Math.min(limite, tamanhoMaximoPagina)));
+    }
+
+    // um produto removido depois da consulta ao indice fica de fora
+    private List<Produto> resolver(List<Long> ids) {
+        List<Produto> produtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Produto produto = produtoRepository.find(id);
+            if (produto != null) {
+                produtos.add(produto);
+            }
+        }
+        return produtos;
+    }
+}
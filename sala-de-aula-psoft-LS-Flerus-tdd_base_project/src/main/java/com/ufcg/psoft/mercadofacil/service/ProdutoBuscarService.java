@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.util.List;
+
+public interface ProdutoBuscarService {
+    Pagina<Produto> buscar(String consulta, int pagina, int tamanho);
+    List<Produto> autocompletar(String consulta, int limite);
+}
@@ -0,0 +1,27 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.Estoque;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.estoque.EstoqueProdutos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ProdutoEstoquePadraoService implements ProdutoEstoqueService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    EstoqueProdutos estoqueProdutos;
+
+    @Override
+    public Estoque consultar(Long produtoId) {
+        if (produtoRepository.find(produtoId) == null) {
+            return null;
+        }
+        return Estoque.builder()
+                .produtoId(produtoId)
+                .quantidade(estoqueProdutos.total(produtoId))
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Stream;
+
+@Service
+public class ProdutoExportarPadraoService implements ProdutoExportarService {
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    @Override
+    public Stream<Produto> exportar() {
+        return produtoRepository.stream();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+
+import java.util.stream.Stream;
+
+@FunctionalInterface
+public interface ProdutoExportarService {
+    Stream<Produto> exportar();
+}
@@ -0,0 +1,21 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.PontoPreco;
+import com.ufcg.psoft.mercadofacil.repository.preco.HistoricoPrecos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class ProdutoPrecosPadraoService implements ProdutoPrecosService {
+    @Autowired
+    HistoricoPrecos historicoPrecos;
+
+    // vale tambem para produtos ja removidos: o historico fica para auditoria
+    @Override
+    public List<PontoPreco> historico(Long produtoId, Instant de, Instant ate) {
+        return historicoPrecos.consultar(produtoId, de, ate);
+    }
+}
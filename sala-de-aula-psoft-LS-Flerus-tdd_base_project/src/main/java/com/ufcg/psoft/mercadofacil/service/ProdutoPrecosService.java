@@ -0,0 +1,11 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.PontoPreco;
+
+import java.time.Instant;
+import java.util.List;
+
+@FunctionalInterface
+public interface ProdutoPrecosService {
+    List<PontoPreco> historico(Long produtoId, Instant de, Instant ate);
+}
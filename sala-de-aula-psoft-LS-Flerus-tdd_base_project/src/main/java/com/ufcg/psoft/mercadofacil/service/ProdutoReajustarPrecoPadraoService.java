@@ -0,0 +1,70 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.VersaoConflitanteException;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reajusta em {@code percentual}% o preco de todos os produtos de um
+ * fabricante. Os produtos vem do indice por fabricante do repositorio; o
+ * preco novo e arredondado para centavos, validado e gravado com
+ * {@code compareAndSet} na versao lida, para nao desfazer uma alteracao
+ * feita entre a leitura e a gravacao.
+ *
+ * Num conflito o produto e relido e o reajuste refeito sobre o preco atual,
+ * ate {@link #TENTATIVAS} vezes; depois disso o item sai com a falha de versao
+ * conflitante.
+ */
+@Service
+public class ProdutoReajustarPrecoPadraoService implements ProdutoReajustarPrecoService {
+
+    static final int TENTATIVAS = 3;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    ProdutoValidator produtoValidator;
+
+    @Override
+    public List<ProdutoAlteracaoResultado> reajustar(String fabricante, double percentual) {
+        List<Produto> produtos = produtoRepository.findByFabricante(fabricante);
+        List<ProdutoAlteracaoResultado> resultados = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            resultados.add(reajustar(produto, percentual));
+        }
+        return resultados;
+    }
+
+    private ProdutoAlteracaoResultado reajustar(Produto produto, double percentual) {
+        for (int tentativa = 1; ; tentativa++) {
+            long versao = produto.getVersao();
+            produto.setPreco(Math.round(produto.getPreco() * (100 + percentual)) / 100.0);
+            try {
+                produtoValidator.validar(produto);
+                Produto atualizado = produtoRepository.compareAndSet(produto, versao);
+                return atualizado == null
+                        ? ProdutoAlteracaoResultado.falha(produto, "Produto nao encontrado")
+                        : ProdutoAlteracaoResultado.sucesso(atualizado);
+            } catch (VersaoConflitanteException e) {
+                Produto atual = produtoRepository.find(produto.getId());
+                if (atual == null) {
+                    return ProdutoAlteracaoResultado.falha(produto, "Produto nao encontrado");
+                }
+                if (tentativa == TENTATIVAS) {
+                    return ProdutoAlteracaoResultado.falha(produto, e.getMessage());
+                }
+                produto = atual;
+            } catch (MercadoFacilException e) {
+                return ProdutoAlteracaoResultado.falha(produto, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ProdutoReajustarPrecoService {
+    List<ProdutoAlteracaoResultado> reajustar(String fabricante, double percentual);
+}
@@ -0,0 +1,24 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ReactiveProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveProdutoAlterarPadraoService implements ReactiveProdutoAlterarService {
+    @Autowired
+    ReactiveProdutoRepository<Produto, Long> produtoRepository;
+    @Autowired
+    ProdutoValidator produtoValidator;
+
+    @Override
+    public Mono<Produto> alterar(Produto produto, Long versaoEsperada) {
+        return Mono.fromRunnable(() -> produtoValidator.validar(produto))
+                .then(versaoEsperada == null
+                        ? produtoRepository.update(produto)
+                        : produtoRepository.compareAndSet(produto, versaoEsperada));
+    }
+}
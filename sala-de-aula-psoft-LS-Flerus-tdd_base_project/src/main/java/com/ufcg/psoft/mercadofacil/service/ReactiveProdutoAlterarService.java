@@ -0,0 +1,14 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import reactor.core.publisher.Mono;
+
+@FunctionalInterface
+public interface ReactiveProdutoAlterarService {
+    /** {@code versaoEsperada} nula altera qualquer que seja a versao atual. */
+    Mono<Produto> alterar(Produto produto, Long versaoEsperada);
+
+    default Mono<Produto> alterar(Produto produto) {
+        return alterar(produto, null);
+    }
+}
@@ -0,0 +1,148 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Le os campos de uma linha CSV em sequencia, direto dos bytes da linha.
+ *
+ * Campos entre aspas podem ter virgulas e aspas dobradas ({@code ""}); quebras
+ * de linha dentro de campos nao sao aceitas, porque os trechos do arquivo sao
+ * cortados em {@code \n}. Numeros sao lidos sem criar Strings.
+ */
+final class CamposCsv {
+
+    static final ValidacaoException MAL_FORMADA = new ValidacaoException("formato_invalido", "Linha mal formada!");
+
+    private byte[] linha;
+    private int fim;
+    private int posicao;
+
+    CamposCsv linha(byte[] linha, int tamanho) {
+        this.linha = linha;
+        this.fim = tamanho;
+        this.posicao = 0;
+        return this;
+    }
+
+    /** Proximo campo como texto; campo vazio vira {@code null}. */
+    String texto() {
+        if (posicao > fim) {
+            throw MAL_FORMADA;
+        }
+        if (posicao < fim && linha[posicao] == '"') {
+            return textoEntreAspas();
+        }
+        int inicio = posicao;
+        int separador = separador(inicio);
+        posicao = separador + 1;
+        return separador == inicio ? null : new String(linha, inicio, separador - inicio, StandardCharsets.UTF_8);
+    }
+
+    /** Proximo campo como inteiro; campo vazio vira {@code null}. */
+    Long inteiro() {
+        if (posicao > fim) {
+            throw MAL_FORMADA;
+        }
+        int inicio = posicao;
+        int separador = separador(inicio);
+        posicao = separador + 1;
+        if (separador == inicio) {
+            return null;
+        }
+        boolean negativo = linha[inicio] == '-';
+        int i = negativo ? inicio + 1 : inicio;
+        if (i == separador || separador - i > 18) {
+            throw MAL_FORMADA;
+        }
+        long valor = 0;
+        for (; i < separador; i++) {
+            int digito = linha[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw MAL_FORMADA;
+            }
+            valor = valor * 10 + digito;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Proximo campo como decimal; campo vazio vira zero. So aceita sinal,
+     * digitos e uma parte fracionaria com ponto: NaN, Infinity, hexadecimais
+     * e sufixos que {@link Double#parseDouble} entenderia sao mal formados.
+     */
+    double decimal() {
+        String texto = texto();
+        if (texto == null) {
+            return 0;
+        }
+        if (!decimalSimples(texto)) {
+            throw MAL_FORMADA;
+        }
+        double valor = Double.parseDouble(texto);
+        if (!Double.isFinite(valor)) {
+            throw MAL_FORMADA;
+        }
+        return valor;
+    }
+
+    /** Falha se sobrou algum campo na linha. */
+    void terminar() {
+        if (posicao <= fim) {
+            throw MAL_FORMADA;
+        }
+    }
+
+    private static boolean decimalSimples(String texto) {
+        int i = texto.charAt(0) == '-' || texto.charAt(0) == '+' ? 1 : 0;
+        int inteiros = digitos(texto, i);
+        i += inteiros;
+        if (i < texto.length() && texto.charAt(i) == '.') {
+            int fracao = digitos(texto, i + 1);
+            return inteiros > 0 && fracao > 0 && i + 1 + fracao == texto.length();
+        }
+        return inteiros > 0 && i == texto.length();
+    }
+
+    private static int digitos(String texto, int inicio) {
+        int i = inicio;
+        while (i < texto.length() && texto.charAt(i) >= '0' && texto.charAt(i) <= '9') {
+            i++;
+        }
+        return i - inicio;
+    }
+
+    private int separador(int inicio) {
+        int i = inicio;
+        while (i < fim && linha[i] != ',') {
+            i++;
+        }
+        return i;
+    }
+
+    private String textoEntreAspas() {
+        StringBuilder texto = null;
+        int inicio = ++posicao;
+        while (posicao < fim) {
+            if (linha[posicao] != '"') {
+                posicao++;
+            } else if (posicao + 1 < fim && linha[posicao + 1] == '"') {
+                // aspas dobradas: guarda o trecho ate a primeira e pula a segunda
+                texto = (texto == null ? new StringBuilder() : texto)
+                        .append(new String(linha, inicio, posicao + 1 - inicio, StandardCharsets.UTF_8));
+                posicao += 2;
+                inicio = posicao;
+            } else {
+                String resto = new String(linha, inicio, posicao - inicio, StandardCharsets.UTF_8);
+                posicao++;
+                if (posicao < fim && linha[posicao] != ',') {
+                    throw MAL_FORMADA;
+                }
+                posicao++;
+                return texto == null ? resto : texto.append(resto).toString();
+            }
+        }
+        throw MAL_FORMADA;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.dto.RejeicaoImportacao;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado de uma importacao enquanto roda: os trechos somam nos contadores
+ * sem disputar uma mesma variavel e quem consulta le uma fotografia.
+ */
+final class ExecucaoImportacao {
+
+    private static final long INTERVALO_PROGRESSO = TimeUnit.SECONDS.toNanos(1);
+
+    final String id;
+    final String arquivo;
+    final String entidade;
+    final LongAdder linhasLidas = new LongAdder();
+    final LongAdder importadas = new LongAdder();
+    final LongAdder rejeitadas = new LongAdder();
+
+    private final long inicio = System.nanoTime();
+    private final AtomicLong ultimoProgresso = new AtomicLong(inicio);
+    private volatile long duracao = -1;
+    private volatile List<RejeicaoImportacao> rejeicoes;
+    private volatile String erro;
+
+    ExecucaoImportacao(String id, String arquivo, String entidade) {
+        this.id = id;
+        this.arquivo = arquivo;
+        this.entidade = entidade;
+    }
+
+    /** Registra o progresso no log no maximo uma vez por segundo, por qualquer um dos trechos. */
+    void registrarProgresso(Logger log) {
+        long agora = System.nanoTime();
+        long ultimo = ultimoProgresso.get();
+        if (agora - ultimo >= INTERVALO_PROGRESSO && ultimoProgresso.compareAndSet(ultimo, agora)) {
+            Importacao fotografia = paraImportacao();
+            log.info("Importacao {} de {}: {} linhas, {} importadas, {} rejeitadas, {} linhas/s",
+                    id, arquivo, fotografia.getLinhasLidas(), fotografia.getImportadas(),
+                    fotografia.getRejeitadas(), fotografia.getLinhasPorSegundo());
+        }
+    }
+
+    void concluir(List<RejeicaoImportacao> rejeicoes) {
+        this.rejeicoes = rejeicoes;
+        this.duracao = System.nanoTime() - inicio;
+    }
+
+    void falhar(Throwable causa) {
+        this.erro = String.valueOf(causa.getMessage());
+        this.duracao = System.nanoTime() - inicio;
+    }
+
+    /** Terminou ha pelo menos {@code retencao} nanossegundos. */
+    boolean expirada(long agora, long retencao) {
+        long fim = duracao;
+        return fim >= 0 && agora - (inicio + fim) >= retencao;
+    }
+
+    Importacao paraImportacao() {
+        long decorrido = duracao >= 0 ? duracao : System.nanoTime() - inicio;
+        long linhas = linhasLidas.sum();
+        return Importacao.builder()
+                .id(id)
+                .arquivo(arquivo)
+                .entidade(entidade)
+                .situacao(duracao < 0 ? "em_andamento" : erro == null ? "concluida" : "falhou")
+                .linhasLidas(linhas)
+                .importadas(importadas.sum())
+                .rejeitadas(rejeitadas.sum())
+                .linhasPorSegundo(decorrido == 0 ? 0 : linhas * 1_000_000_000L / decorrido)
+                .duracaoMs(TimeUnit.NANOSECONDS.toMillis(decorrido))
+                .rejeicoes(rejeicoes)
+                .erro(erro)
+                .build();
+    }
+}
@@ -0,0 +1,343 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.dto.RejeicaoImportacao;
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.LoteValidator;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Importa produtos ou lotes de um arquivo CSV ou NDJSON do diretorio de
+ * importacao.
+ *
+ * O arquivo e mapeado em memoria e cortado em trechos de
+ * {@code mercadofacil.importacao.tamanho-trecho} que terminam em fim de linha.
+ * Cada trecho e uma tarefa do {@link ForkJoinPool} da importacao: le as linhas
+ * direto do mapeamento, valida cada uma com as regras da entidade e grava as
+ * validas com {@code saveAll} em lotes de
+ * {@code mercadofacil.importacao.tamanho-lote}. Os trechos so conhecem o numero
+ * local de cada linha; o numero no arquivo sai da soma das linhas dos trechos
+ * anteriores quando todos terminam.
+ *
+ * Importacoes terminadas continuam consultaveis por
+ * {@code mercadofacil.importacao.retencao} e depois sao descartadas.
+ */
+@Component
+public class ImportadorCatalogo implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportadorCatalogo.class);
+    private static final int JANELA_FIM_DE_LINHA = 64 * 1024;
+
+    private final RegistrosProduto produtos;
+    private final RegistrosLote lotes;
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final long tamanhoTrecho;
+    private final int tamanhoLote;
+    private final int maximoRejeicoes;
+    private final long retencao;
+    private final ForkJoinPool pool;
+    private final Map<String, ExecucaoImportacao> execucoes = new ConcurrentHashMap<>();
+
+    public ImportadorCatalogo(ProdutoRepository<Produto, Long> produtoRepository,
+                              LoteRepository<Lote, Long> loteRepository,
+                              ProdutoValidator produtoValidator,
+                              LoteValidator loteValidator,
+                              ObjectMapper objectMapper,
+                              @Value("${mercadofacil.importacao.diretorio:importacao}") String diretorio,
+                              @Value("${mercadofacil.importacao.paralelismo:0}") int paralelismo,
+                              @Value("${mercadofacil.importacao.tamanho-trecho:8MB}") DataSize tamanhoTrecho,
+                              @Value("${mercadofacil.importacao.tamanho-lote:1000}") int tamanhoLote,
+                              @Value("${mercadofacil.importacao.maximo-rejeicoes:1000}") int maximoRejeicoes,
+                              @Value("${mercadofacil.importacao.retencao:1h}") Duration retencao) {
+        this.produtos = new RegistrosProduto(produtoRepository, produtoValidator);
+        this.lotes = new RegistrosLote(loteRepository, produtoRepository, loteValidator);
+        this.objectMapper = objectMapper;
+        this.diretorio = Path.of(diretorio).toAbsolutePath().normalize();
+        // um trecho vira um unico mapeamento, limitado a 2 GB
+        this.tamanhoTrecho = Math.max(1, Math.min(tamanhoTrecho.toBytes(), Integer.MAX_VALUE / 2));
+        this.tamanhoLote = tamanhoLote;
+        this.maximoRejeicoes = maximoRejeicoes;
+        this.retencao = retencao.toNanos();
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Comeca a importar {@code arquivo}, relativo ao diretorio de importacao, e
+     * devolve o estado inicial. Arquivo, entidade e formato invalidos falham
+     * aqui; problemas nas linhas aparecem nas rejeicoes.
+     */
+    public Importacao iniciar(String arquivo, String entidade) {
+        descartarExpiradas();
+        RegistrosImportacao<?> registros = registros(entidade);
+        Path caminho = resolver(arquivo);
+        boolean csv = csv(caminho);
+        ExecucaoImportacao execucao = new ExecucaoImportacao(UUID.randomUUID().toString(), arquivo, entidade);
+        execucoes.put(execucao.id, execucao);
+        pool.execute(() -> executar(execucao, caminho, csv, registros));
+        return execucao.paraImportacao();
+    }
+
+    /** Estado atual da importacao; nulo se o id nao existe. */
+    public Importacao buscar(String id) {
+        descartarExpiradas();
+        ExecucaoImportacao execucao = id == null ? null : execucoes.get(id);
+        return execucao == null ? null : execucao.paraImportacao();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // varre so as importacoes retidas, que sao poucas; as em andamento nunca expiram
+    private void descartarExpiradas() {
+        long agora = System.nanoTime();
+        execucoes.values().removeIf(execucao -> execucao.expirada(agora, retencao));
+    }
+
+    private RegistrosImportacao<?> registros(String entidade) {
+        if ("produto".equals(entidade)) {
+            return produtos;
+        }
+        if ("lote".equals(entidade)) {
+            return lotes;
+        }
+        throw new ValidacaoException("entidade_invalida", "Entidade deve ser produto ou lote!");
+    }
+
+    private Path resolver(String arquivo) {
+        Path caminho = arquivo == null ? diretorio : diretorio.resolve(arquivo).normalize();
+        if (!caminho.startsWith(diretorio) || caminho.equals(diretorio)) {
+            throw new ValidacaoException("arquivo_invalido", "Arquivo fora do diretorio de importacao!");
+        }
+        if (!Files.isRegularFile(caminho)) {
+            throw new ValidacaoException("arquivo_inexistente", "Arquivo nao encontrado!");
+        }
+        try {
+            // links simbolicos nao podem sair do diretorio
+            if (!caminho.toRealPath().startsWith(diretorio.toRealPath())) {
+                throw new ValidacaoException("arquivo_invalido", "Arquivo fora do diretorio de importacao!");
+            }
+        } catch (IOException e) {
+            throw new ValidacaoException("arquivo_inexistente", "Arquivo nao encontrado!");
+        }
+        return caminho;
+    }
+
+    private static boolean csv(Path caminho) {
+        String nome = caminho.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nome.endsWith(".csv")) {
+            return true;
+        }
+        if (nome.endsWith(".ndjson") || nome.endsWith(".jsonl")) {
+            return false;
+        }
+        throw new ValidacaoException("formato_invalido", "Arquivo deve ser .csv, .ndjson ou .jsonl!");
+    }
+
+    // roda num worker do pool: o invokeAll executa trechos enquanto espera os demais
+    private <T> void executar(ExecucaoImportacao execucao, Path caminho, boolean csv, RegistrosImportacao<T> registros) {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            List<Trecho> trechos = dividir(canal);
+            List<ForkJoinTask<Trecho>> tarefas = new ArrayList<>(trechos.size());
+            for (Trecho trecho : trechos) {
+                tarefas.add(ForkJoinTask.adapt(() -> processar(execucao, canal, trecho, csv, registros)));
+            }
+            ForkJoinTask.invokeAll(tarefas);
+            execucao.concluir(numerarRejeicoes(trechos));
+            Importacao fim = execucao.paraImportacao();
+            log.info("Importacao {} de {} concluida em {} ms: {} linhas, {} importadas, {} rejeitadas, {} linhas/s",
+                    execucao.id, execucao.arquivo, fim.getDuracaoMs(), fim.getLinhasLidas(),
+                    fim.getImportadas(), fim.getRejeitadas(), fim.getLinhasPorSegundo());
+        } catch (Throwable e) {
+            execucao.falhar(e);
+            log.error("Importacao {} de {} falhou", execucao.id, execucao.arquivo, e);
+        }
+    }
+
+    private List<Trecho> dividir(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        List<Trecho> trechos = new ArrayList<>();
+        ByteBuffer janela = ByteBuffer.allocate(JANELA_FIM_DE_LINHA);
+        long inicio = 0;
+        while (inicio < tamanho) {
+            long fim = inicio + tamanhoTrecho;
+            fim = fim >= tamanho ? tamanho : depoisDoFimDeLinha(canal, fim - 1, janela);
+            trechos.add(new Trecho(trechos.size(), inicio, fim));
+            inicio = fim;
+        }
+        return trechos;
+    }
+
+    // posicao logo depois do primeiro \n a partir de posicao, ou o fim do arquivo
+    private static long depoisDoFimDeLinha(FileChannel canal, long posicao, ByteBuffer janela) throws IOException {
+        while (true) {
+            janela.clear();
+            int lidos = canal.read(janela, posicao);
+            if (lidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (janela.get(i) == '\n') {
+                    return posicao + i + 1;
+                }
+            }
+            posicao += lidos;
+        }
+    }
+
+    private <T> Trecho processar(ExecucaoImportacao execucao, FileChannel canal, Trecho trecho,
+                                 boolean csv, RegistrosImportacao<T> registros) {
+        MappedByteBuffer mapa;
+        try {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, trecho.inicio, trecho.fim - trecho.inicio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ObjectReader leitor = csv ? null : objectMapper.readerFor(registros.tipo());
+        CamposCsv campos = new CamposCsv();
+        byte[] linha = new byte[512];
+        List<T> pendentes = new ArrayList<>(tamanhoLote);
+        int[] linhasPendentes = new int[tamanhoLote];
+        int limite = mapa.limit();
+        int posicao = 0;
+        int numero = -1;
+        while (posicao < limite) {
+            int fim = posicao;
+            while (fim < limite && mapa.get(fim) != '\n') {
+                fim++;
+            }
+            int tamanho = fim > posicao && mapa.get(fim - 1) == '\r' ? fim - 1 - posicao : fim - posicao;
+            int inicio = posicao;
+            posicao = fim + 1;
+            numero++;
+            if (tamanho == 0) {
+                continue;
+            }
+            if (tamanho > linha.length) {
+                linha = new byte[Math.max(tamanho, linha.length * 2)];
+            }
+            mapa.get(inicio, linha, 0, tamanho);
+            if (csv && trecho.indice == 0 && numero == 0 && cabecalho(linha, tamanho)) {
+                continue;
+            }
+            execucao.linhasLidas.increment();
+            try {
+                T registro = csv
+                        ? registros.csv(campos.linha(linha, tamanho))
+                        : leitor.readValue(linha, 0, tamanho);
+                if (registro == null) {
+                    throw CamposCsv.MAL_FORMADA;
+                }
+                registros.validar(registro);
+                linhasPendentes[pendentes.size()] = numero;
+                pendentes.add(registro);
+            } catch (MercadoFacilException e) {
+                rejeitar(execucao, trecho, numero, e);
+            } catch (IOException e) {
+                rejeitar(execucao, trecho, numero, CamposCsv.MAL_FORMADA);
+            }
+            if (pendentes.size() == tamanhoLote) {
+                gravar(execucao, trecho, registros, pendentes, linhasPendentes);
+            }
+        }
+        gravar(execucao, trecho, registros, pendentes, linhasPendentes);
+        trecho.linhas = numero + 1;
+        return trecho;
+    }
+
+    private <T> void gravar(ExecucaoImportacao execucao, Trecho trecho, RegistrosImportacao<T> registros,
+                            List<T> pendentes, int[] linhasPendentes) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        int[] recusados = {0};
+        registros.gravar(pendentes, (posicao, motivo) -> {
+            recusados[0]++;
+            rejeitar(execucao, trecho, linhasPendentes[posicao], motivo);
+        });
+        execucao.importadas.add(pendentes.size() - recusados[0]);
+        pendentes.clear();
+        execucao.registrarProgresso(log);
+    }
+
+    private void rejeitar(ExecucaoImportacao execucao, Trecho trecho, int numero, MercadoFacilException motivo) {
+        execucao.rejeitadas.increment();
+        if (trecho.rejeicoes.size() < maximoRejeicoes) {
+            trecho.rejeicoes.add(RejeicaoImportacao.builder()
+                    .linha(numero)
+                    .codigo(motivo.getCodigo())
+                    .mensagem(motivo.getMessage())
+                    .build());
+        }
+    }
+
+    // troca o numero local de cada rejeicao pelo numero da linha no arquivo, a partir de 1
+    private List<RejeicaoImportacao> numerarRejeicoes(List<Trecho> trechos) {
+        List<RejeicaoImportacao> rejeicoes = new ArrayList<>();
+        long anteriores = 0;
+        for (Trecho trecho : trechos) {
+            for (RejeicaoImportacao rejeicao : trecho.rejeicoes) {
+                rejeicao.setLinha(anteriores + rejeicao.getLinha() + 1);
+                rejeicoes.add(rejeicao);
+            }
+            anteriores += trecho.linhas;
+        }
+        rejeicoes.sort(Comparator.comparingLong(RejeicaoImportacao::getLinha));
+        return rejeicoes.size() > maximoRejeicoes ? new ArrayList<>(rejeicoes.subList(0, maximoRejeicoes)) : rejeicoes;
+    }
+
+    private static boolean cabecalho(byte[] linha, int tamanho) {
+        return tamanho >= 2 && (linha[0] | 0x20) == 'i' && (linha[1] | 0x20) == 'd'
+                && (tamanho == 2 || linha[2] == ',');
+    }
+
+    private static final class Trecho {
+
+        final int indice;
+        final long inicio;
+        final long fim;
+        // preenchidos pela tarefa do trecho e lidos depois do invokeAll
+        final List<RejeicaoImportacao> rejeicoes = new ArrayList<>();
+        int linhas;
+
+        Trecho(int indice, long inicio, long fim) {
+            this.indice = indice;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+    }
+}
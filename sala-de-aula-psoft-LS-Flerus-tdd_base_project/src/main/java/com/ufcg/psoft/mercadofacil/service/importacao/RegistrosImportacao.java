@@ -0,0 +1,27 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.ufcg.psoft.mercadofacil.exception.MercadoFacilException;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+
+import java.util.List;
+
+/**
+ * O que muda na importacao de cada entidade: as colunas do CSV, o tipo das
+ * linhas NDJSON, as regras de validade e a gravacao em lote.
+ */
+interface RegistrosImportacao<T> {
+
+    Class<T> tipo();
+
+    /** Monta o registro a partir dos campos CSV, na ordem das colunas da entidade. */
+    T csv(CamposCsv campos);
+
+    /** Regras que dependem so da linha; falhas saem como {@link MercadoFacilException}. */
+    void validar(T registro);
+
+    /**
+     * Grava os registros validos. Quem nao puder ser gravado e devolvido a
+     * {@code falhas} pela posicao na lista, e os demais sao gravados uma vez.
+     */
+    void gravar(List<T> registros, FalhasLote falhas);
+}
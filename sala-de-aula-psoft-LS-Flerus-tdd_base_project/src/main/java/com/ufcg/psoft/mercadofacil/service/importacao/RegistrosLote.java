@@ -0,0 +1,84 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.LoteValidator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lotes nas colunas {@code id,produtoId,numeroDeItens}. O produto precisa
+ * existir; a checagem e uma busca so por lote de gravacao.
+ */
+final class RegistrosLote implements RegistrosImportacao<Lote> {
+
+    private static final ValidacaoException PRODUTO_INEXISTENTE =
+            new ValidacaoException("produto_inexistente", "Produto nao encontrado!");
+
+    private final LoteRepository<Lote, Long> loteRepository;
+    private final ProdutoRepository<Produto, Long> produtoRepository;
+    private final LoteValidator loteValidator;
+
+    RegistrosLote(LoteRepository<Lote, Long> loteRepository, ProdutoRepository<Produto, Long> produtoRepository,
+                  LoteValidator loteValidator) {
+        this.loteRepository = loteRepository;
+        this.produtoRepository = produtoRepository;
+        this.loteValidator = loteValidator;
+    }
+
+    @Override
+    public Class<Lote> tipo() {
+        return Lote.class;
+    }
+
+    @Override
+    public Lote csv(CamposCsv campos) {
+        Long id = campos.inteiro();
+        Long produtoId = campos.inteiro();
+        Long numeroDeItens = campos.inteiro();
+        campos.terminar();
+        if (numeroDeItens != null && (numeroDeItens > Integer.MAX_VALUE || numeroDeItens < Integer.MIN_VALUE)) {
+            throw CamposCsv.MAL_FORMADA;
+        }
+        return Lote.builder()
+                .id(id)
+                .produtoId(produtoId)
+                .numeroDeItens(numeroDeItens == null ? 0 : numeroDeItens.intValue())
+                .build();
+    }
+
+    @Override
+    public void validar(Lote lote) {
+        loteValidator.validar(lote);
+    }
+
+    @Override
+    public void gravar(List<Lote> lotes, FalhasLote falhas) {
+        Set<Long> produtoIds = new HashSet<>();
+        for (Lote lote : lotes) {
+            produtoIds.add(lote.getProdutoId());
+        }
+        Set<Long> existentes = new HashSet<>();
+        for (Produto produto : produtoRepository.findAllById(produtoIds)) {
+            existentes.add(produto.getId());
+        }
+        List<Lote> validos = new ArrayList<>(lotes.size());
+        for (int i = 0; i < lotes.size(); i++) {
+            if (existentes.contains(lotes.get(i).getProdutoId())) {
+                validos.add(lotes.get(i));
+            } else {
+                falhas.falhou(i, PRODUTO_INEXISTENTE);
+            }
+        }
+        if (!validos.isEmpty()) {
+            loteRepository.saveAll(validos);
+        }
+    }
+}
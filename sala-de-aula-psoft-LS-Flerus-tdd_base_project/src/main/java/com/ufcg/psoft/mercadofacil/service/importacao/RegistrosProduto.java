@@ -0,0 +1,51 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.FalhasLote;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+
+import java.util.List;
+
+/**
+ * Produtos nas colunas {@code id,nome,preco,codigoBarra,fabricante}, com as
+ * mesmas regras de codigo de barras e preco da alteracao de produtos.
+ */
+final class RegistrosProduto implements RegistrosImportacao<Produto> {
+
+    private final ProdutoRepository<Produto, Long> produtoRepository;
+    private final ProdutoValidator produtoValidator;
+
+    RegistrosProduto(ProdutoRepository<Produto, Long> produtoRepository, ProdutoValidator produtoValidator) {
+        this.produtoRepository = produtoRepository;
+        this.produtoValidator = produtoValidator;
+    }
+
+    @Override
+    public Class<Produto> tipo() {
+        return Produto.class;
+    }
+
+    @Override
+    public Produto csv(CamposCsv campos) {
+        Produto produto = Produto.builder()
+                .id(campos.inteiro())
+                .nome(campos.texto())
+                .preco(campos.decimal())
+                .codigoBarra(campos.texto())
+                .fabricante(campos.texto())
+                .build();
+        campos.terminar();
+        return produto;
+    }
+
+    @Override
+    public void validar(Produto produto) {
+        produtoValidator.validar(produto);
+    }
+
+    @Override
+    public void gravar(List<Produto> produtos, FalhasLote falhas) {
+        produtoRepository.saveAll(produtos, falhas);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import com.ufcg.psoft.mercadofacil.exception.ArgumentosIncompletosException;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Regras de validade de um Cliente usadas na criacao e na alteracao. O codigo
+ * da falha de CPF e o {@link CpfValidator.Resultado} com prefixo {@code cpf_}.
+ */
+@Component
+public class ClienteValidator {
+
+    private final CpfValidator cpfValidator;
+
+    @Autowired
+    public ClienteValidator(CpfValidator cpfValidator) {
+        this.cpfValidator = cpfValidator;
+    }
+
+    public void validar(Cliente cliente) {
+        if (cliente.getNome() == null || cliente.getCpf() == null) {
+            throw new ArgumentosIncompletosException();
+        }
+        if (cliente.getIdade() != null && cliente.getIdade() < 0) {
+            throw new ValidacaoException("idade_invalida", "Idade invalida!");
+        }
+        CpfValidator.Resultado resultado = cpfValidator.validar(cliente.getCpf());
+        if (!resultado.isValido()) {
+            throw new ValidacaoException("cpf_" + resultado.name().toLowerCase(Locale.ROOT), resultado.getMensagem());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Valida codigos EAN-13 do Mercado Facil (pais 789, empresa 91375) em uma
+ * unica passada sobre os caracteres, sem alocar objetos.
+ */
+@Component
+public class CodigoBarraValidator {
+
+    private static final String PREFIXO = "78991375";
+    private static final int TAMANHO = 13;
+    private static final int FIM_PAIS = 3;
+
+    public enum Resultado {
+        VALIDO(null),
+        TAMANHO_INVALIDO("Codigo de barras invalido!"),
+        CARACTERE_INVALIDO("Codigo de barras invalido!"),
+        PAIS_INVALIDO("Codigo de pais invalido!"),
+        EMPRESA_INVALIDA("Codigo de empresa invalido!"),
+        VERIFICADOR_INVALIDO("Verificador invalido!");
+
+        private final String mensagem;
+
+        Resultado(String mensagem) {
+            this.mensagem = mensagem;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        public boolean isValido() {
+            return this == VALIDO;
+        }
+    }
+
+    public Resultado validar(CharSequence codigo) {
+        if (codigo == null || codigo.length() != TAMANHO) {
+            return Resultado.TAMANHO_INVALIDO;
+        }
+        int soma = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            char c = codigo.charAt(i);
+            if (i < PREFIXO.length() && c != PREFIXO.charAt(i)) {
+                return i < FIM_PAIS ? Resultado.PAIS_INVALIDO : Resultado.EMPRESA_INVALIDA;
+            }
+            int digito = c - '0';
+            if (digito < 0 || digito > 9) {
+                return Resultado.CARACTERE_INVALIDO;
+            }
+            if (i == TAMANHO - 1) {
+                int verificador = (10 - soma % 10) % 10;
+                return digito == verificador ? Resultado.VALIDO : Resultado.VERIFICADOR_INVALIDO;
+            }
+            soma += (i & 1) == 0 ? digito : 3 * digito;
+        }
+        return Resultado.VALIDO;
+    }
+}
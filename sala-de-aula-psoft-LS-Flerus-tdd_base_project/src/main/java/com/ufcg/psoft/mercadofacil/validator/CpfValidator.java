@@ -0,0 +1,89 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Valida CPFs ja convertidos para {@code long}, com os onze digitos tirados
+ * por divisao, sem Strings nem arrays. {@link #converter(CharSequence)} faz a
+ * conversao de um CPF digitado, com ou sem pontuacao.
+ */
+@Component
+public class CpfValidator {
+
+    static final long MAXIMO = 99_999_999_999L;
+    // todo CPF de onze digitos iguais e multiplo deste numero
+    private static final long REPETIDOS = 11_111_111_111L;
+    private static final int DIGITOS = 11;
+
+    public enum Resultado {
+        VALIDO(null),
+        FORMATO_INVALIDO("CPF deve ter 11 digitos!"),
+        DIGITOS_REPETIDOS("CPF invalido!"),
+        VERIFICADOR_INVALIDO("Verificador do CPF invalido!");
+
+        private final String mensagem;
+
+        Resultado(String mensagem) {
+            this.mensagem = mensagem;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        public boolean isValido() {
+            return this == VALIDO;
+        }
+    }
+
+    public Resultado validar(long cpf) {
+        if (cpf < 0 || cpf > MAXIMO) {
+            return Resultado.FORMATO_INVALIDO;
+        }
+        if (cpf % REPETIDOS == 0) {
+            return Resultado.DIGITOS_REPETIDOS;
+        }
+        // os nove primeiros digitos, do ultimo para o primeiro: pesos 2..10 no primeiro verificador e 3..11 no segundo
+        long resto = cpf / 100;
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int peso = 2; peso <= 10; peso++) {
+            int digito = (int) (resto % 10);
+            resto /= 10;
+            soma1 += digito * peso;
+            soma2 += digito * (peso + 1);
+        }
+        int verificador1 = verificador(soma1);
+        int verificador2 = verificador(soma2 + 2 * verificador1);
+        return cpf % 100 == verificador1 * 10L + verificador2 ? Resultado.VALIDO : Resultado.VERIFICADOR_INVALIDO;
+    }
+
+    /**
+     * Converte um CPF com onze digitos, aceitando {@code .} e {@code -} em
+     * qualquer posicao. Devolve {@code -1} para qualquer outro texto.
+     */
+    public static long converter(CharSequence cpf) {
+        if (cpf == null) {
+            return -1;
+        }
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c == '.' || c == '-') {
+                continue;
+            }
+            int digito = c - '0';
+            if (digito < 0 || digito > 9 || ++digitos > DIGITOS) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return digitos == DIGITOS ? valor : -1;
+    }
+
+    private static int verificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import com.ufcg.psoft.mercadofacil.exception.ArgumentosIncompletosException;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regras de um Lote que nao dependem de outros dados; a existencia do produto
+ * fica com quem cria o lote, que tem acesso ao repositorio.
+ */
+@Component
+public class LoteValidator {
+
+    public void validar(Lote lote) {
+        if (lote.getProdutoId() == null) {
+            throw new ArgumentosIncompletosException();
+        }
+        if (lote.getNumeroDeItens() < 0) {
+            throw new ValidacaoException("quantidade_invalida", "Numero de itens invalido!");
+        }
+    }
+}
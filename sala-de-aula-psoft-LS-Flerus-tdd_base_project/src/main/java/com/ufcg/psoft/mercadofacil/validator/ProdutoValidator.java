@@ -0,0 +1,75 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import com.ufcg.psoft.mercadofacil.exception.ArgumentosIncompletosException;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Regras de validade de um Produto usadas pelos servicos de alteracao. Falhas
+ * sao lancadas como {@link ValidacaoException}, sem stack trace.
+ *
+ * Cada falha incrementa {@code mercadofacil.produto.validacao.falhas} com o
+ * motivo como tag; os contadores sao criados uma vez no construtor.
+ */
+@Component
+public class ProdutoValidator {
+
+    static final String FALHAS = "mercadofacil.produto.validacao.falhas";
+
+    private final CodigoBarraValidator codigoBarraValidator;
+    private final Counter argumentosIncompletos;
+    private final Counter precoInvalido;
+    private final Map<CodigoBarraValidator.Resultado, Counter> codigoBarraInvalido =
+            new EnumMap<>(CodigoBarraValidator.Resultado.class);
+
+    public ProdutoValidator(CodigoBarraValidator codigoBarraValidator) {
+        this(codigoBarraValidator, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public ProdutoValidator(CodigoBarraValidator codigoBarraValidator, MeterRegistry registry) {
+        this.codigoBarraValidator = codigoBarraValidator;
+        this.argumentosIncompletos = falhas(registry, "argumentos_incompletos");
+        this.precoInvalido = falhas(registry, "preco_invalido");
+        for (CodigoBarraValidator.Resultado resultado : CodigoBarraValidator.Resultado.values()) {
+            if (!resultado.isValido()) {
+                codigoBarraInvalido.put(resultado, falhas(registry, resultado.name().toLowerCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    public void validar(Produto produto) {
+        if(produto.getNome() == null || produto.getFabricante() == null ||
+                produto.getCodigoBarra() == null || produto.getId() == null) {
+            argumentosIncompletos.increment();
+            throw new ArgumentosIncompletosException();
+        }
+
+        // NaN nao e maior que zero; JSON e REST aceitam "NaN" e "Infinity" como preco
+        if(!(produto.getPreco() > 0) || !Double.isFinite(produto.getPreco())) {
+            precoInvalido.increment();
+            throw new ValidacaoException("preco_invalido", "Preco invalido!");
+        }
+
+        CodigoBarraValidator.Resultado resultado = codigoBarraValidator.validar(produto.getCodigoBarra());
+        if(!resultado.isValido()) {
+            codigoBarraInvalido.get(resultado).increment();
+            throw new ValidacaoException(resultado.name().toLowerCase(Locale.ROOT), resultado.getMensagem());
+        }
+    }
+
+    private static Counter falhas(MeterRegistry registry, String motivo) {
+        return Counter.builder(FALHAS)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ufcg.psoft.mercadofacil.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Testes das metricas expostas no actuator")
+class MetricasTests {
+
+    @Autowired
+    MockMvc driver;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    Produto produto;
+
+    @BeforeEach
+    void setup() {
+        produtoRepository.deleteAll();
+        produto = produtoRepository.save(Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Quando uma alteracao passa por controlador, servico e repositorio")
+    void metricasDasCamadas() throws Exception {
+        //Arrange
+        driver.perform(put("/v1/produtos/10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(produto)))
+                .andExpect(status().isOk());
+        //Act
+        String metricas = driver.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        //Assert
+        assertTrue(metricas.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(metricas.contains("mercadofacil_servico_seconds_count{resultado=\"sucesso\",servico=\"produto-alterar\""));
+        assertTrue(metricas.contains("mercadofacil_repositorio_operacoes_seconds_count{operacao=\"update\",repositorio=\"produtos\""));
+        assertTrue(metricas.contains("mercadofacil_repositorio_tamanho{repositorio=\"produtos\",} 1.0"));
+    }
+
+    @Test
+    @DisplayName("Quando a alteracao falha pelo codigo de empresa")
+    void contadorDeFalhaDeValidacao() throws Exception {
+        //Arrange
+        produto.setCodigoBarra("7899137000100");
+        driver.perform(put("/v1/produtos/10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(produto)))
+                .andExpect(status().isUnprocessableEntity());
+        //Act
+        String metricas = driver.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+        //Assert
+        assertTrue(metricas.contains("mercadofacil_produto_validacao_falhas_total{motivo=\"empresa_invalida\",}"));
+    }
+}
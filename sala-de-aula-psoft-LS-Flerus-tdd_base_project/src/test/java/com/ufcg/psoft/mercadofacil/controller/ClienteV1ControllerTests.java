@@ -0,0 +1,199 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import com.ufcg.psoft.mercadofacil.repository.ClienteRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Testes do controlador de Clientes")
+public class ClienteV1ControllerTests {
+    @Autowired
+    MockMvc driver;
+
+    @Autowired
+    ClienteRepository<Cliente, Long> clienteRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    Cliente cliente;
+
+    @BeforeEach
+    void setup() {
+        clienteRepository.deleteAll();
+        cliente = clienteRepository.save(Cliente.builder()
+                .cpf(52998224725L)
+                .nome("Cliente Base")
+                .idade(30)
+                .endereco("Rua Base, 1")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cliente = null;
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de cadastro de clientes")
+    class ClienteCadastro {
+
+        @Test
+        @DisplayName("Quando criamos um cliente com CPF valido")
+        void criarCliente() throws Exception {
+            //Arrange
+            String corpo = "{\"cpf\":11144477735,\"nome\":\"Cliente Novo\",\"idade\":25}";
+            //Act
+            String responseJsonString = driver.perform(post("/v1/clientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().exists("Location"))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            long id = resultado.get("id").asLong();
+            assertEquals("Cliente Novo", resultado.get("nome").asText());
+            assertEquals(id, clienteRepository.findByCpf(11144477735L).getId());
+        }
+
+        @Test
+        @DisplayName("Quando criamos um cliente com verificador do CPF errado")
+        void criarClienteCpfInvalido() throws Exception {
+            //Arrange
+            String corpo = "{\"cpf\":11144477736,\"nome\":\"Cliente Novo\"}";
+            //Act
+            String responseJsonString = driver.perform(post("/v1/clientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals("cpf_verificador_invalido", objectMapper.readTree(responseJsonString).get("codigo").asText());
+            assertEquals(1, clienteRepository.count());
+        }
+
+        @Test
+        @DisplayName("Quando criamos um cliente com o CPF de outro cliente")
+        void criarClienteCpfDuplicado() throws Exception {
+            //Arrange
+            String corpo = "{\"cpf\":52998224725,\"nome\":\"Cliente Repetido\"}";
+            //Act
+            String responseJsonString = driver.perform(post("/v1/clientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isConflict())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals("cpf_duplicado", objectMapper.readTree(responseJsonString).get("codigo").asText());
+            assertEquals(1, clienteRepository.count());
+        }
+
+        @Test
+        @DisplayName("Quando criamos um cliente sem nome")
+        void criarClienteSemNome() throws Exception {
+            //Arrange
+            String corpo = "{\"cpf\":11144477735}";
+            //Act & Assert
+            driver.perform(post("/v1/clientes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de consulta de clientes")
+    class ClienteConsulta {
+
+        @Test
+        @DisplayName("Quando buscamos um cliente pelo CPF com pontuacao")
+        void buscarPorCpf() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/clientes").param("cpf", "529.982.247-25"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals(cliente.getId(), objectMapper.readTree(responseJsonString).get("id").asLong());
+        }
+
+        @Test
+        @DisplayName("Quando buscamos um CPF nao cadastrado ou mal formado")
+        void buscarPorCpfInexistente() throws Exception {
+            //Act & Assert
+            driver.perform(get("/v1/clientes").param("cpf", "11144477735"))
+                    .andExpect(status().isNotFound());
+            driver.perform(get("/v1/clientes").param("cpf", "1114447773"))
+                    .andExpect(status().isUnprocessableEntity());
+        }
+
+        @Test
+        @DisplayName("Quando buscamos um cliente pelo id e listamos todos")
+        void buscarCliente() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/clientes/" + cliente.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String listaJsonString = driver.perform(get("/v1/clientes"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals("Cliente Base", objectMapper.readTree(responseJsonString).get("nome").asText());
+            assertEquals(1, objectMapper.readTree(listaJsonString).size());
+            driver.perform(get("/v1/clientes/999"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de alteracao e remocao de clientes")
+    class ClienteAlteracao {
+
+        @Test
+        @DisplayName("Quando alteramos o CPF de um cliente")
+        void alterarCpf() throws Exception {
+            //Arrange
+            String corpo = "{\"cpf\":11144477735,\"nome\":\"Cliente Alterado\",\"idade\":31}";
+            //Act
+            driver.perform(put("/v1/clientes/" + cliente.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isOk());
+            //Assert
+            assertNull(clienteRepository.findByCpf(52998224725L));
+            assertEquals("Cliente Alterado", clienteRepository.findByCpf(11144477735L).getNome());
+            driver.perform(put("/v1/clientes/999")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Quando removemos um cliente")
+        void removerCliente() throws Exception {
+            //Act
+            driver.perform(delete("/v1/clientes/" + cliente.getId()))
+                    .andExpect(status().isNoContent());
+            //Assert
+            assertNull(clienteRepository.findByCpf(52998224725L));
+            driver.perform(delete("/v1/clientes/" + cliente.getId()))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
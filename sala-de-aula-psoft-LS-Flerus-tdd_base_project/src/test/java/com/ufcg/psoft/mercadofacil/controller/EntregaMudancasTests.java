@@ -0,0 +1,136 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.repository.mudanca.FeedMudancas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes da entrega de mudancas as assinaturas SSE")
+class EntregaMudancasTests {
+
+    FeedMudancas feedMudancas;
+    EntregaMudancas driver;
+    CountDownLatch liberar;
+
+    @BeforeEach
+    void setUp() {
+        feedMudancas = new FeedMudancas(16);
+        driver = criar(2);
+        liberar = new CountDownLatch(1);
+    }
+
+    EntregaMudancas criar(int threadsEnvio) {
+        // a entrega agendada nunca roda: o teste chama entregar()
+        return new EntregaMudancas(feedMudancas, Duration.ofHours(1), 1000, Duration.ofMillis(200), threadsEnvio);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        driver.close();
+    }
+
+    @Test
+    @DisplayName("Cliente parado nao segura a entrega dos outros e e descartado depois do timeout")
+    void clienteParadoNaoSeguraOsOutros() throws Exception {
+        // Arrange
+        EmitterContador parado = new EmitterContador(liberar);
+        EmitterContador ativo = new EmitterContador(null);
+        driver.assinar(parado, 0);
+        driver.assinar(ativo, 0);
+        feedMudancas.publicar("produto", "criado", 1L, null);
+        // Act
+        driver.entregar();
+        entregarAte(ativo, 1);
+        feedMudancas.publicar("produto", "alterado", 1L, null);
+        entregarAte(ativo, 2);
+        Thread.sleep(300);
+        driver.entregar();
+        // Assert
+        assertEquals(2, ativo.enviados.get());
+        assertEquals(1, driver.assinaturasAbertas());
+        assertEquals(0, parado.erros.get());
+    }
+
+    @Test
+    @DisplayName("Com todas as threads de envio presas os outros esperam, e o envio solto encerra o emitter")
+    void poolDeEnvioLimitado() throws Exception {
+        // Arrange
+        driver.close();
+        driver = criar(1);
+        EmitterContador parado = new EmitterContador(liberar);
+        EmitterContador ativo = new EmitterContador(null);
+        driver.assinar(parado, 0);
+        feedMudancas.publicar("produto", "criado", 1L, null);
+        driver.entregar();
+        driver.assinar(ativo, 0);
+        // Act
+        driver.entregar();
+        Thread.sleep(300);
+        driver.entregar();
+        assertEquals(0, ativo.enviados.get());
+        // o timeout de escrita do conector solta o envio parado
+        liberar.countDown();
+        aguardarErro(parado);
+        entregarAte(ativo, 1);
+        // Assert
+        assertEquals(1, parado.erros.get());
+        assertEquals(1, driver.assinaturasAbertas());
+    }
+
+    private static void aguardarErro(EmitterContador emitter) throws InterruptedException {
+        for (int i = 0; i < 500 && emitter.erros.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    // repete as voltas como a entrega agendada: o envio anterior pode ainda nao ter liberado a assinatura ou a thread
+    private void entregarAte(EmitterContador emitter, int enviados) throws InterruptedException {
+        for (int i = 0; i < 500 && emitter.enviados.get() < enviados; i++) {
+            driver.entregar();
+            Thread.sleep(10);
+        }
+        assertEquals(enviados, emitter.enviados.get());
+    }
+
+    // conta os eventos enviados; com uma trava, o envio fica parado como num socket cheio e falha quando ela abre
+    private static final class EmitterContador extends SseEmitter {
+
+        private final CountDownLatch trava;
+        private final AtomicInteger enviados = new AtomicInteger();
+        private final AtomicInteger erros = new AtomicInteger();
+
+        private EmitterContador(CountDownLatch trava) {
+            this.trava = trava;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            if (trava != null) {
+                try {
+                    trava.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new SocketTimeoutException();
+            }
+            enviados.incrementAndGet();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            erros.incrementAndGet();
+        }
+    }
+}
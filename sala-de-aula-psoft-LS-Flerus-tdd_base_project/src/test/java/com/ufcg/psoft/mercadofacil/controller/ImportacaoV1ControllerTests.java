@@ -0,0 +1,94 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "mercadofacil.importacao.diretorio=build/importacao-testes")
+@AutoConfigureMockMvc
+@DisplayName("Testes do controlador de importacoes")
+public class ImportacaoV1ControllerTests {
+
+    @Autowired
+    MockMvc driver;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setup() throws Exception {
+        produtoRepository.deleteAll();
+        Path diretorio = Path.of("build/importacao-testes");
+        Files.createDirectories(diretorio);
+        Files.writeString(diretorio.resolve("produtos.csv"), "id,nome,preco,codigoBarra,fabricante\n"
+                + "10,Produto Dez,450.00,7899137500100,Empresa Dez\n"
+                + "11,Produto Onze,0,7899137500100,Empresa Onze\n");
+    }
+
+    @Test
+    @DisplayName("Quando importamos um arquivo e acompanhamos pelo Location")
+    void importarEAcompanhar() throws Exception {
+        //Arrange
+        MvcResult resultado = driver.perform(post("/v1/importacoes")
+                        .param("arquivo", "produtos.csv")
+                        .param("entidade", "produto"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String location = resultado.getResponse().getHeader("Location");
+        //Act
+        JsonNode importacao = objectMapper.readTree(resultado.getResponse().getContentAsString());
+        for (int i = 0; i < 500 && "em_andamento".equals(importacao.get("situacao").asText()); i++) {
+            Thread.sleep(10);
+            importacao = objectMapper.readTree(driver.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+        //Assert
+        assertEquals("/v1/importacoes/" + importacao.get("id").asText(), location);
+        assertEquals("concluida", importacao.get("situacao").asText());
+        assertEquals(1, importacao.get("importadas").asLong());
+        assertEquals(1, importacao.get("rejeitadas").asLong());
+        assertEquals(3, importacao.get("rejeicoes").get(0).get("linha").asLong());
+        assertEquals("preco_invalido", importacao.get("rejeicoes").get(0).get("codigo").asText());
+        assertEquals("Produto Dez", produtoRepository.find(10L).getNome());
+    }
+
+    @Test
+    @DisplayName("Quando o arquivo esta fora do diretorio de importacao")
+    void importarForaDoDiretorio() throws Exception {
+        //Act & Assert
+        String resposta = driver.perform(post("/v1/importacoes")
+                        .param("arquivo", "../produtos.csv")
+                        .param("entidade", "produto"))
+                .andExpect(status().isUnprocessableEntity())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("arquivo_invalido", objectMapper.readTree(resposta).get("codigo").asText());
+    }
+
+    @Test
+    @DisplayName("Quando buscamos uma importacao que nao existe")
+    void buscarImportacaoInexistente() throws Exception {
+        //Act & Assert
+        driver.perform(get("/v1/importacoes/inexistente"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,258 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Testes do controlador de Lotes")
+public class LoteV1ControllerTests {
+    @Autowired
+    MockMvc driver;
+
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    Produto produto;
+
+    @BeforeEach
+    void setup() {
+        loteRepository.deleteAll();
+        produto = Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        produto = null;
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de exportacao de lotes")
+    class LoteExportacao {
+
+        @Test
+        @DisplayName("Quando exportamos todos os lotes em NDJSON")
+        void exportarLotes() throws Exception {
+            //Arrange
+            loteRepository.save(Lote.builder().id(1L).produtoId(produto.getId()).numeroDeItens(10).build());
+            loteRepository.save(Lote.builder().id(2L).produtoId(produto.getId()).numeroDeItens(20).build());
+            MvcResult exportacao = driver.perform(get("/v1/lotes/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            //Act
+            String responseNdjson = driver.perform(asyncDispatch(exportacao))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            String[] linhas = responseNdjson.split("\n");
+            assertEquals(2, linhas.length);
+            int itens = 0;
+            for (String linha : linhas) {
+                JsonNode lote = objectMapper.readTree(linha);
+                assertEquals(10L, lote.get("produtoId").asLong());
+                assertFalse(lote.has("produto"));
+                itens += lote.get("numeroDeItens").asInt();
+            }
+            assertEquals(30, itens);
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de cadastro e consulta de lotes")
+    class LoteCadastro {
+
+        @BeforeEach
+        void setup() {
+            produtoRepository.deleteAll();
+            produtoRepository.save(produto);
+        }
+
+        @Test
+        @DisplayName("Quando criamos um lote de um produto existente")
+        void criarLote() throws Exception {
+            //Arrange
+            String corpo = "{\"produtoId\":10,\"numeroDeItens\":100}";
+            //Act
+            String responseJsonString = driver.perform(post("/v1/lotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            long id = resultado.get("id").asLong();
+            assertEquals(100, resultado.get("numeroDeItens").asInt());
+            assertEquals(10L, resultado.get("produtoId").asLong());
+            assertEquals(100, loteRepository.find(id).getNumeroDeItens());
+        }
+
+        @Test
+        @DisplayName("Quando criamos um lote de um produto inexistente")
+        void criarLoteProdutoInexistente() throws Exception {
+            //Arrange
+            String corpo = "{\"produtoId\":99,\"numeroDeItens\":100}";
+            //Act
+            String responseJsonString = driver.perform(post("/v1/lotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals("produto_inexistente", objectMapper.readTree(responseJsonString).get("codigo").asText());
+            assertEquals(0, loteRepository.count());
+        }
+
+        @Test
+        @DisplayName("Quando buscamos um lote pelo id")
+        void buscarLote() throws Exception {
+            //Arrange
+            loteRepository.save(Lote.builder().id(1L).produtoId(produto.getId()).numeroDeItens(10).build());
+            //Act
+            String responseJsonString = driver.perform(get("/v1/lotes/1"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals(10, objectMapper.readTree(responseJsonString).get("numeroDeItens").asInt());
+            driver.perform(get("/v1/lotes/2"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de reserva de itens")
+    class LoteReserva {
+
+        @BeforeEach
+        void setup() {
+            loteRepository.save(Lote.builder().id(1L).produtoId(produto.getId()).numeroDeItens(10).build());
+        }
+
+        @Test
+        @DisplayName("Quando reservamos itens disponiveis")
+        void reservarItens() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(post("/v1/lotes/1/reserva")
+                            .param("quantidade", "4"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals(6, objectMapper.readTree(responseJsonString).get("numeroDeItens").asInt());
+            assertEquals(6, loteRepository.find(1L).getNumeroDeItens());
+        }
+
+        @Test
+        @DisplayName("Quando reservamos mais itens do que o lote tem")
+        void reservarSemEstoque() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(post("/v1/lotes/1/reserva")
+                            .param("quantidade", "11"))
+                    .andExpect(status().isConflict())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals("estoque_insuficiente", objectMapper.readTree(responseJsonString).get("codigo").asText());
+            assertEquals(10, loteRepository.find(1L).getNumeroDeItens());
+        }
+
+        @Test
+        @DisplayName("Quando reservamos uma quantidade invalida ou num lote inexistente")
+        void reservarInvalido() throws Exception {
+            //Act & Assert
+            driver.perform(post("/v1/lotes/1/reserva")
+                            .param("quantidade", "0"))
+                    .andExpect(status().isUnprocessableEntity());
+            driver.perform(post("/v1/lotes/2/reserva")
+                            .param("quantidade", "1"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de expansao do produto dos lotes")
+    class LoteExpansao {
+
+        @BeforeEach
+        void setup() {
+            produtoRepository.deleteAll();
+            produtoRepository.save(produto);
+            loteRepository.save(Lote.builder().id(1L).produtoId(produto.getId()).numeroDeItens(10).build());
+        }
+
+        @Test
+        @DisplayName("Quando buscamos um lote expandindo o produto alterado depois")
+        void buscarLoteExpandido() throws Exception {
+            //Arrange
+            produto.setPreco(500.00);
+            produtoRepository.update(produto);
+            //Act
+            String responseJsonString = driver.perform(get("/v1/lotes/1")
+                            .param("expand", "produto"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(10L, resultado.get("produtoId").asLong());
+            assertEquals("Produto Dez", resultado.get("produto").get("nome").asText());
+            assertEquals(500.00, resultado.get("produto").get("preco").asDouble());
+        }
+
+        @Test
+        @DisplayName("Quando exportamos lotes expandindo os produtos")
+        void exportarLotesExpandidos() throws Exception {
+            //Arrange
+            loteRepository.save(Lote.builder().id(2L).produtoId(produto.getId()).numeroDeItens(20).build());
+            loteRepository.save(Lote.builder().id(3L).produtoId(99L).numeroDeItens(30).build());
+            MvcResult exportacao = driver.perform(get("/v1/lotes/export")
+                            .param("expand", "produto"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            //Act
+            String responseNdjson = driver.perform(asyncDispatch(exportacao))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            String[] linhas = responseNdjson.split("\n");
+            assertEquals(3, linhas.length);
+            for (String linha : linhas) {
+                JsonNode lote = objectMapper.readTree(linha);
+                if (lote.get("produtoId").asLong() == 99L) {
+                    assertTrue(lote.get("produto").isNull());
+                } else {
+                    assertEquals("Produto Dez", lote.get("produto").get("nome").asText());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.mudanca.FeedMudancas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// a entrega agendada nunca roda: cada teste chama entregar() quando quer ver o que saiu
+@SpringBootTest(properties = {
+        "mercadofacil.mudancas.intervalo-entrega=1h",
+        "mercadofacil.mudancas.capacidade=16"
+})
+@AutoConfigureMockMvc
+@DisplayName("Testes do feed de mudancas via SSE")
+public class MudancaV1ControllerTests {
+
+    @Autowired
+    MockMvc driver;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    @Autowired
+    LoteRepository<Lote, Long> loteRepository;
+
+    @Autowired
+    FeedMudancas feedMudancas;
+
+    @Autowired
+    EntregaMudancas entregaMudancas;
+
+    Produto produto;
+
+    @BeforeEach
+    void setup() {
+        produtoRepository.deleteAll();
+        loteRepository.deleteAll();
+        produto = Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Quando acompanhamos as mudancas desde uma sequencia")
+    void acompanharDesdeSequencia() throws Exception {
+        //Arrange
+        long desde = feedMudancas.ultimaSequencia();
+        produtoRepository.save(produto);
+        produto.setNome("Produto Dez Alterado");
+        produtoRepository.update(produto);
+        loteRepository.save(Lote.builder().id(1L).produtoId(10L).numeroDeItens(5).build());
+        MvcResult resultado = driver.perform(get("/v1/changes").param("since", String.valueOf(desde)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //Act
+        entregaMudancas.entregar().get(5, TimeUnit.SECONDS);
+        //Assert
+        String eventos = resultado.getResponse().getContentAsString();
+        assertTrue(MediaType.TEXT_EVENT_STREAM.isCompatibleWith(MediaType.parseMediaType(resultado.getResponse().getContentType())));
+        assertFalse(eventos.contains("event:perda"));
+        int criado = eventos.indexOf("id:" + (desde + 1) + "\nevent:mudanca\ndata:{\"sequencia\":" + (desde + 1)
+                + ",\"entidade\":\"produto\",\"operacao\":\"criado\",\"id\":10");
+        int alterado = eventos.indexOf("\"entidade\":\"produto\",\"operacao\":\"alterado\",\"id\":10,\"dados\":{\"id\":10,\"nome\":\"Produto Dez Alterado\"");
+        int lote = eventos.indexOf("id:" + (desde + 3) + "\nevent:mudanca\ndata:{\"sequencia\":" + (desde + 3)
+                + ",\"entidade\":\"lote\",\"operacao\":\"criado\",\"id\":1");
+        assertTrue(criado >= 0 && criado < alterado && alterado < lote, eventos);
+    }
+
+    @Test
+    @DisplayName("Quando o EventSource reconecta com Last-Event-ID")
+    void retomarComLastEventId() throws Exception {
+        //Arrange
+        produtoRepository.save(produto);
+        long ultimoRecebido = feedMudancas.ultimaSequencia();
+        produtoRepository.delete(produto);
+        MvcResult resultado = driver.perform(get("/v1/changes")
+                        .param("since", "0")
+                        .header("Last-Event-ID", String.valueOf(ultimoRecebido)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //Act
+        entregaMudancas.entregar().get(5, TimeUnit.SECONDS);
+        //Assert
+        String eventos = resultado.getResponse().getContentAsString();
+        assertEquals(1, eventos.split("event:mudanca").length - 1, eventos);
+        assertTrue(eventos.contains("\"operacao\":\"removido\",\"id\":10,\"dados\":null"), eventos);
+    }
+
+    @Test
+    @DisplayName("Quando nao informamos de onde retomar")
+    void acompanharSoNovas() throws Exception {
+        //Arrange
+        produtoRepository.save(produto);
+        MvcResult resultado = driver.perform(get("/v1/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        entregaMudancas.entregar().get(5, TimeUnit.SECONDS);
+        assertEquals("", resultado.getResponse().getContentAsString());
+        //Act
+        loteRepository.save(Lote.builder().id(1L).produtoId(10L).numeroDeItens(5).build());
+        entregaMudancas.entregar().get(5, TimeUnit.SECONDS);
+        //Assert
+        String eventos = resultado.getResponse().getContentAsString();
+        assertEquals(1, eventos.split("event:mudanca").length - 1, eventos);
+        assertTrue(eventos.contains("\"entidade\":\"lote\""), eventos);
+    }
+
+    @Test
+    @DisplayName("Quando o cliente ficou para tras e o buffer deu a volta")
+    void avisarPerda() throws Exception {
+        //Arrange
+        long desde = feedMudancas.ultimaSequencia();
+        for (int i = 0; i < 40; i++) {
+            loteRepository.save(Lote.builder().id(1L).produtoId(10L).numeroDeItens(i).build());
+        }
+        MvcResult resultado = driver.perform(get("/v1/changes").param("since", String.valueOf(desde)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //Act
+        entregaMudancas.entregar().get(5, TimeUnit.SECONDS);
+        //Assert
+        String eventos = resultado.getResponse().getContentAsString();
+        long ultima = feedMudancas.ultimaSequencia();
+        long retomadaEm = ultima - feedMudancas.capacidade() + 1;
+        assertTrue(eventos.startsWith("event:perda\ndata:"), eventos);
+        assertTrue(eventos.contains("\"retomadaEm\":" + retomadaEm), eventos);
+        assertEquals(feedMudancas.capacidade(), eventos.split("event:mudanca").length - 1, eventos);
+        assertTrue(eventos.contains("id:" + ultima + "\n"), eventos);
+    }
+}
@@ -1,21 +1,37 @@
 package com.ufcg.psoft.mercadofacil.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.dto.ErroResposta;
+import com.ufcg.psoft.mercadofacil.dto.Mudanca;
+import com.ufcg.psoft.mercadofacil.model.Lote;
 import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteRepository;
 import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.mudanca.FeedMudancas;
 import jakarta.servlet.Servlet;
-import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -28,12 +44,24 @@ public class ProdutoV1ControllerTests {
     @Autowired
     ProdutoRepository<Produto, Long> produtoRepository;
 
+    @Autowired
+    FeedMudancas feedMudancas;
+
     ObjectMapper objectMapper = new ObjectMapper();
 
     Produto produto;
 
     @BeforeEach
     void setup() {
+        produtoRepository.deleteAll();
+        produtoRepository.save(Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build()
+        );
         produto = produtoRepository.find(10L);
     }
 
@@ -87,56 +115,56 @@ public class ProdutoV1ControllerTests {
 
         @Test
         @DisplayName("Quando o nome e invalido")
-        void nomeInvalido() {
+        void nomeInvalido() throws Exception {
             //Arrange
             produto.setNome(null);
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isBadRequest())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Argumentos Incompletos", thrown.getMessage());
+            assertEquals("Argumentos Incompletos", erro.getMensagem());
         }
 
         @Test
         @DisplayName("Quando o fabricante e invalido")
-        void fabricanteInvalido() {
+        void fabricanteInvalido() throws Exception {
             //Arrange
             produto.setFabricante(null);
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isBadRequest())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Argumentos Incompletos", thrown.getMessage());
+            assertEquals("Argumentos Incompletos", erro.getMensagem());
         }
 
         @Test
         @DisplayName("Quando o codigo e nulo")
-        void codigoNull() {
+        void codigoNull() throws Exception {
             //Arrange
             produto.setCodigoBarra(null);
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isBadRequest())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Argumentos Incompletos", thrown.getMessage());
+            assertEquals("Argumentos Incompletos", erro.getMensagem());
         }
 
     }
@@ -146,20 +174,40 @@ public class ProdutoV1ControllerTests {
     class ProdutoValidacaoRegrasDoPreco {
         @Test
         @DisplayName("Quando o preco menor ou igual a zero")
-        void precoMenorIgualAZero() {
+        void precoMenorIgualAZero() throws Exception {
             //Arrange
             produto.setPreco(0.0);
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Preco invalido!", thrown.getMessage());
+            assertEquals("Preco invalido!", erro.getMensagem());
+        }
+
+        @Test
+        @DisplayName("Quando o preco chega como NaN ou Infinity no JSON")
+        void precoNaoFinito() throws Exception {
+            for (double preco : new double[]{Double.NaN, Double.POSITIVE_INFINITY}) {
+                //Arrange
+                produto.setPreco(preco);
+                //Act
+                String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(produto)))
+                        .andExpect(status().isUnprocessableEntity())
+                        .andDo(print())
+                        .andReturn().getResponse().getContentAsString();
+
+                ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
+                //Assert
+                assertEquals("Preco invalido!", erro.getMensagem());
+            }
         }
 
         @Test
@@ -211,16 +259,16 @@ public class ProdutoV1ControllerTests {
             //Arrange
             produto.setCodigoBarra("123");
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(produto)))
-                    .andExpect(status().isOk())
+                    .andExpect(status().isUnprocessableEntity())
                     .andDo(print())
-                    .andReturn().getResponse().getContentAsString());
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Codigo de barras invalido!", thrown.getMessage());
+            assertEquals("Codigo de barras invalido!", erro.getMensagem());
         }
 
         @Test
@@ -229,16 +277,16 @@ public class ProdutoV1ControllerTests {
             //Arrange
             produto.setCodigoBarra("7849137500100");
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Codigo de pais invalido!", thrown.getMessage());
+            assertEquals("Codigo de pais invalido!", erro.getMensagem());
         }
 
         @Test
@@ -247,36 +295,589 @@ public class ProdutoV1ControllerTests {
             //Arrange
             produto.setCodigoBarra("7898137500100");
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Codigo de empresa invalido!", thrown.getMessage());
+            assertEquals("Codigo de empresa invalido!", erro.getMensagem());
         }
 
         @Test
         @DisplayName("Quando o codigo verificador e errado")
-        void codigoVerificadorErrado() {
+        void codigoVerificadorErrado() throws Exception {
             //Arrange
             produto.setCodigoBarra("7899137500104");
             //Act
-            ServletException thrown = assertThrows(
-                    ServletException.class,
-                    () -> driver.perform(put("/v1/produtos/" + produto.getId())
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .content(objectMapper.writeValueAsString(produto)))
-                            .andExpect(status().isOk())
-                            .andDo(print())
-                            .andReturn().getResponse().getContentAsString());
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
+            //Assert
+            assertEquals("Verificador invalido!", erro.getMensagem());
+        }
+
+
+        @Test
+        @DisplayName("Quando o codigo ja pertence a outro produto")
+        void codigoDuplicado() throws Exception {
+            //Arrange
+            produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137510000")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(100.00)
+                    .build());
+            produto.setCodigoBarra("7899137510000");
+            //Act
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isConflict())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
+            //Assert
+            assertEquals("codigo_barra_duplicado", erro.getCodigo());
+            assertEquals("Codigo de barra ja cadastrado!", erro.getMensagem());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de alteracao de produtos em massa")
+    class ProdutoAlteracaoEmMassa {
+
+        Produto produtoOnze;
+
+        @BeforeEach
+        void setup() {
+            produtoOnze = produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500117")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(110.00)
+                    .build());
+        }
+
+        @Test
+        @DisplayName("Quando um item invalido nao impede a alteracao dos demais")
+        void itemInvalidoNaoFalhaOLote() throws Exception {
+            //Arrange
+            produto.setPreco(500.00);
+            Produto invalido = Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500104")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(120.00)
+                    .build();
+            Produto inexistente = Produto.builder()
+                    .id(99L)
+                    .codigoBarra("7899137500100")
+                    .nome("Produto Inexistente")
+                    .fabricante("Empresa Dez")
+                    .preco(10.00)
+                    .build();
+            //Act
+            String responseJsonString = driver.perform(put("/v1/produtos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(produto, invalido, inexistente))))
+                    .andExpect(status().isOk())
+                    .andDo(print())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(3, resultado.size());
+            assertTrue(resultado.get(0).get("sucesso").asBoolean());
+            assertEquals(500.00, resultado.get(0).get("produto").get("preco").asDouble());
+            assertFalse(resultado.get(1).get("sucesso").asBoolean());
+            assertEquals("Verificador invalido!", resultado.get(1).get("erro").asText());
+            assertFalse(resultado.get(2).get("sucesso").asBoolean());
+            assertEquals("Produto nao encontrado", resultado.get(2).get("erro").asText());
+            assertEquals(500.00, produtoRepository.find(10L).getPreco());
+            assertEquals(110.00, produtoRepository.find(11L).getPreco());
+        }
+
+        @Test
+        @DisplayName("Quando um codigo de barras duplicado no meio do lote nao reaplica os demais")
+        void duplicadoNoMeioNaoReaplicaOLote() throws Exception {
+            //Arrange
+            Produto produtoDoze = produtoRepository.save(Produto.builder()
+                    .id(12L)
+                    .codigoBarra("7899137500124")
+                    .nome("Produto Doze")
+                    .fabricante("Empresa Doze")
+                    .preco(120.00)
+                    .build());
+            long versaoDez = produto.getVersao();
+            long versaoDoze = produtoDoze.getVersao();
+            produto.setPreco(500.00);
+            produtoOnze.setCodigoBarra("7899137500100");
+            produtoDoze.setPreco(130.00);
+            long desde = feedMudancas.ultimaSequencia();
+            //Act
+            String responseJsonString = driver.perform(put("/v1/produtos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(produto, produtoOnze, produtoDoze))))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertTrue(resultado.get(0).get("sucesso").asBoolean());
+            assertEquals("Codigo de barra ja cadastrado!", resultado.get(1).get("erro").asText());
+            assertTrue(resultado.get(2).get("sucesso").asBoolean());
+            assertEquals(versaoDez + 1, produtoRepository.find(10L).getVersao());
+            assertEquals(versaoDoze + 1, produtoRepository.find(12L).getVersao());
+            assertEquals(versaoDez + 1, resultado.get(0).get("produto").get("versao").asLong());
+            assertEquals(List.of(10L, 12L), feedMudancas.ler(desde, 100).stream().map(Mudanca::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Quando os produtos chegam como NDJSON")
+        void alterarProdutosNdjson() throws Exception {
+            //Arrange
+            produto.setNome("Produto Dez Alterado");
+            produtoOnze.setNome("Produto Onze Alterado");
+            String corpo = objectMapper.writeValueAsString(produto) + "\n"
+                    + objectMapper.writeValueAsString(produtoOnze) + "\n";
+            //Act
+            List<JsonNode> resultado = alterarNdjson(corpo);
+            //Assert
+            assertEquals(2, resultado.size());
+            assertTrue(resultado.get(0).get("sucesso").asBoolean());
+            assertTrue(resultado.get(1).get("sucesso").asBoolean());
+            assertEquals("Produto Onze Alterado", produtoRepository.find(11L).getNome());
+        }
+
+        @Test
+        @DisplayName("Quando uma linha do NDJSON nao e um JSON valido")
+        void alterarProdutosNdjsonComLinhaInvalida() throws Exception {
+            //Arrange
+            produto.setNome("Produto Dez Alterado");
+            produtoOnze.setNome("Produto Onze Alterado");
+            String corpo = objectMapper.writeValueAsString(produto) + "\n"
+                    + "{\"id\":12,\"nome\":\n"
+                    + objectMapper.writeValueAsString(produtoOnze) + "\n";
+            //Act
+            List<JsonNode> resultado = alterarNdjson(corpo);
+            //Assert
+            assertEquals(3, resultado.size());
+            assertTrue(resultado.get(0).get("sucesso").asBoolean());
+            assertFalse(resultado.get(1).get("sucesso").asBoolean());
+            assertEquals(2, resultado.get(1).get("linha").asLong());
+            assertEquals("JSON invalido", resultado.get(1).get("erro").asText());
+            assertTrue(resultado.get(2).get("sucesso").asBoolean());
+            assertEquals("Produto Dez Alterado", produtoRepository.find(10L).getNome());
+            assertEquals("Produto Onze Alterado", produtoRepository.find(11L).getNome());
+        }
+
+        // a resposta e NDJSON escrita depois do handler retornar, um resultado por linha
+        List<JsonNode> alterarNdjson(String corpo) throws Exception {
+            MvcResult alteracao = driver.perform(put("/v1/produtos")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(corpo))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String resposta = driver.perform(asyncDispatch(alteracao))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+            List<JsonNode> resultados = new ArrayList<>();
+            for (String linha : resposta.split("\n")) {
+                resultados.add(objectMapper.readTree(linha));
+            }
+            return resultados;
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de exportacao de produtos")
+    class ProdutoExportacao {
+
+        @Test
+        @DisplayName("Quando exportamos todos os produtos em NDJSON")
+        void exportarProdutos() throws Exception {
+            //Arrange
+            produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500117")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(110.00)
+                    .build());
+            MvcResult exportacao = driver.perform(get("/v1/produtos/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            //Act
+            String responseNdjson = driver.perform(asyncDispatch(exportacao))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            String[] linhas = responseNdjson.split("\n");
+            assertEquals(2, linhas.length);
+            for (String linha : linhas) {
+                Produto exportado = objectMapper.readValue(linha, Produto.ProdutoBuilder.class).build();
+                assertEquals(produtoRepository.find(exportado.getId()), exportado);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de busca por codigo de barras")
+    class ProdutoBuscaCodigoBarra {
+
+        @Test
+        @DisplayName("Quando o codigo de barras esta cadastrado")
+        void buscarCodigoBarraCadastrado() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos")
+                            .param("codigoBarra", "7899137500100"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            Produto resultado = objectMapper.readValue(responseJsonString, Produto.ProdutoBuilder.class).build();
+            //Assert
+            assertEquals(produto, resultado);
+        }
+
+        @Test
+        @DisplayName("Quando o codigo de barras nao esta cadastrado")
+        void buscarCodigoBarraInexistente() throws Exception {
+            //Act & Assert
+            driver.perform(get("/v1/produtos")
+                            .param("codigoBarra", "7899137500117"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de busca textual")
+    class ProdutoBuscaTextual {
+
+        @Test
+        @DisplayName("Quando buscamos por um termo do nome sem acento")
+        void buscarPorTermo() throws Exception {
+            //Arrange
+            produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500117")
+                    .nome("Feijão Preto")
+                    .fabricante("Empresa Onze")
+                    .preco(110.00)
+                    .build());
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos/busca")
+                            .param("q", "feijao")
+                            .param("tamanho", "10"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(1, resultado.get("total").asInt());
+            assertEquals(11L, resultado.get("conteudo").get(0).get("id").asLong());
+        }
+
+        @Test
+        @DisplayName("Quando autocompletamos pelo prefixo do fabricante")
+        void autocompletarPorPrefixo() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos/autocompletar")
+                            .param("q", "empr"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
             //Assert
-            assertEquals("Request processing failed: java.lang.RuntimeException: Verificador invalido!", thrown.getMessage());
+            assertEquals(1, resultado.size());
+            assertEquals(10L, resultado.get(0).get("id").asLong());
         }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos por fabricante")
+    class ProdutoFabricante {
 
+        @BeforeEach
+        void setup() {
+            produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500117")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(100.00)
+                    .build());
+            produtoRepository.save(Produto.builder()
+                    .id(12L)
+                    .codigoBarra("7899137500124")
+                    .nome("Produto Doze")
+                    .fabricante("Empresa Dez")
+                    .preco(19.99)
+                    .build());
+        }
+
+        @Test
+        @DisplayName("Quando buscamos os produtos de um fabricante")
+        void buscarPorFabricante() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos")
+                            .param("fabricante", "Empresa Dez"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(2, resultado.size());
+            for (JsonNode item : resultado) {
+                assertEquals("Empresa Dez", item.get("fabricante").asText());
+            }
+        }
+
+        @Test
+        @DisplayName("Quando reajustamos o preco dos produtos de um fabricante")
+        void reajustarPreco() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(put("/v1/produtos/preco")
+                            .param("fabricante", "Empresa Dez")
+                            .param("percentual", "10"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(2, resultado.size());
+            assertEquals(495.00, produtoRepository.find(10L).getPreco());
+            assertEquals(21.99, produtoRepository.find(12L).getPreco());
+            assertEquals(100.00, produtoRepository.find(11L).getPreco());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos de consulta de estoque")
+    class ProdutoEstoque {
+
+        @Autowired
+        LoteRepository<Lote, Long> loteRepository;
+
+        @BeforeEach
+        void setup() {
+            loteRepository.deleteAll();
+        }
+
+        @AfterEach
+        void tearDown() {
+            loteRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Quando consultamos o estoque de um produto com lotes")
+        void consultarEstoque() throws Exception {
+            //Arrange
+            loteRepository.save(Lote.builder().produtoId(produto.getId()).numeroDeItens(100).build());
+            loteRepository.save(Lote.builder().produtoId(produto.getId()).numeroDeItens(25).build());
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos/" + produto.getId() + "/estoque"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(produto.getId().longValue(), resultado.get("produtoId").asLong());
+            assertEquals(125, resultado.get("quantidade").asLong());
+        }
+
+        @Test
+        @DisplayName("Quando consultamos o estoque de um produto sem lotes")
+        void consultarEstoqueVazio() throws Exception {
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos/" + produto.getId() + "/estoque"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            assertEquals(0, objectMapper.readTree(responseJsonString).get("quantidade").asLong());
+        }
+
+        @Test
+        @DisplayName("Quando consultamos o estoque de um produto inexistente")
+        void consultarEstoqueProdutoInexistente() throws Exception {
+            //Act & Assert
+            driver.perform(get("/v1/produtos/999/estoque"))
+                    .andExpect(status().isNotFound());
+        }
     }
 
+    @Nested
+    @DisplayName("Conjunto de casos de versao e ETag do produto")
+    class ProdutoVersao {
+
+        @Test
+        @DisplayName("Quando buscamos um produto e repetimos a busca com o ETag")
+        void buscarComETag() throws Exception {
+            //Arrange
+            String etag = driver.perform(get("/v1/produtos/" + produto.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + produto.getVersao() + "\""))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            //Act & Assert
+            driver.perform(get("/v1/produtos/" + produto.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            produtoRepository.update(produto);
+            driver.perform(get("/v1/produtos/" + produto.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+            driver.perform(get("/v1/produtos/999"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Quando alteramos com o If-Match da versao atual")
+        void alterarComIfMatch() throws Exception {
+            //Arrange
+            produto.setNome("Produto Dez Alterado");
+            //Act
+            String etag = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .header(HttpHeaders.IF_MATCH, "\"" + produto.getVersao() + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            //Assert
+            assertEquals("\"" + (produto.getVersao() + 1) + "\"", etag);
+            assertEquals("Produto Dez Alterado", produtoRepository.find(produto.getId()).getNome());
+        }
+
+        @Test
+        @DisplayName("Quando alteramos com um If-Match desatualizado")
+        void alterarComIfMatchDesatualizado() throws Exception {
+            //Arrange
+            long versaoLida = produto.getVersao();
+            produtoRepository.update(produto);
+            produto.setNome("Produto Dez Alterado");
+            //Act
+            String responseJsonString = driver.perform(put("/v1/produtos/" + produto.getId())
+                            .header(HttpHeaders.IF_MATCH, "\"" + versaoLida + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andReturn().getResponse().getContentAsString();
+            //Assert
+            ErroResposta erro = objectMapper.readValue(responseJsonString, ErroResposta.ErroRespostaBuilder.class).build();
+            assertEquals("versao_conflitante", erro.getCodigo());
+            assertEquals("Produto Dez", produtoRepository.find(produto.getId()).getNome());
+        }
+
+        @Test
+        @DisplayName("Quando o id do corpo difere do id do caminho")
+        void alterarUsaIdDoCaminho() throws Exception {
+            //Arrange
+            produtoRepository.save(Produto.builder()
+                    .id(11L)
+                    .codigoBarra("7899137500117")
+                    .nome("Produto Onze")
+                    .fabricante("Empresa Onze")
+                    .preco(100.00)
+                    .build());
+            produto.setNome("Produto Dez Alterado");
+            produto.setId(11L);
+            //Act
+            driver.perform(put("/v1/produtos/10")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(produto)))
+                    .andExpect(status().isOk());
+            //Assert
+            assertEquals("Produto Dez Alterado", produtoRepository.find(10L).getNome());
+            assertEquals("Produto Onze", produtoRepository.find(11L).getNome());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunto de casos do historico de precos")
+    class ProdutoPrecos {
+
+        // o historico sobrevive ao deleteAll, entao cada caso usa um id novo
+        static long proximoId = 900L;
+
+        Produto comHistorico;
+
+        @BeforeEach
+        void setup() {
+            comHistorico = Produto.builder()
+                    .id(proximoId++)
+                    .codigoBarra("7899137500900")
+                    .nome("Produto Historico")
+                    .fabricante("Empresa Dez")
+                    .preco(10.00)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Quando consultamos os precos de um produto alterado")
+        void consultarPrecos() throws Exception {
+            //Arrange
+            produtoRepository.save(comHistorico);
+            comHistorico.setPreco(12.50);
+            produtoRepository.update(comHistorico);
+            comHistorico.setNome("Produto Historico Renomeado");
+            produtoRepository.update(comHistorico);
+            comHistorico.setPreco(9.99);
+            produtoRepository.update(comHistorico);
+            //Act
+            String responseJsonString = driver.perform(get("/v1/produtos/" + comHistorico.getId() + "/precos"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode resultado = objectMapper.readTree(responseJsonString);
+            //Assert
+            assertEquals(3, resultado.size());
+            assertEquals(10.00, resultado.get(0).get("preco").asDouble());
+            assertEquals(12.50, resultado.get(1).get("preco").asDouble());
+            assertEquals(9.99, resultado.get(2).get("preco").asDouble());
+            assertTrue(resultado.get(0).get("instante").asText().endsWith("Z"));
+        }
+
+        @Test
+        @DisplayName("Quando consultamos os precos num intervalo")
+        void consultarPrecosNoIntervalo() throws Exception {
+            //Arrange
+            produtoRepository.save(comHistorico);
+            //Act & Assert
+            driver.perform(get("/v1/produtos/" + comHistorico.getId() + "/precos")
+                            .param("from", "2000-01-01T00:00:00Z")
+                            .param("to", "2100-01-01T00:00:00Z"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("[{\"preco\":10.0}]"));
+            driver.perform(get("/v1/produtos/" + comHistorico.getId() + "/precos")
+                            .param("from", "2100-01-01T00:00:00Z"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("[]"));
+        }
+
+        @Test
+        @DisplayName("Quando o produto foi removido o historico continua disponivel")
+        void consultarPrecosProdutoRemovido() throws Exception {
+            //Arrange
+            produtoRepository.save(comHistorico);
+            produtoRepository.delete(comHistorico);
+            //Act & Assert
+            driver.perform(get("/v1/produtos/" + comHistorico.getId() + "/precos"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("[{\"preco\":10.0}]"));
+        }
+
+        @Test
+        @DisplayName("Quando consultamos os precos de um produto que nunca existiu")
+        void consultarPrecosProdutoInexistente() throws Exception {
+            //Act & Assert
+            driver.perform(get("/v1/produtos/999999/precos"))
+                    .andExpect(status().isNotFound());
+        }
+    }
 }
@@ -0,0 +1,221 @@
+package com.ufcg.psoft.mercadofacil.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.dto.ErroResposta;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@DisplayName("Testes das rotas reativas de Produtos")
+class ProdutoV1RouterTests {
+
+    @Autowired
+    WebTestClient driver;
+
+    @Autowired
+    ProdutoRepository<Produto, Long> produtoRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    Produto produto;
+
+    @BeforeEach
+    void setup() {
+        produtoRepository.deleteAll();
+        produto = produtoRepository.save(Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build());
+    }
+
+    Produto alterado(Long id, String nome, String codigoBarra) {
+        return Produto.builder()
+                .id(id)
+                .codigoBarra(codigoBarra)
+                .nome(nome)
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Quando alteramos um produto com dados validos")
+    void alterarProduto() {
+        //Act
+        Produto resultado = driver.put().uri("/v1/produtos/10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(alterado(10L, "Produto Dez Alterado", "7899137500100"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Produto.class)
+                .returnResult().getResponseBody();
+        //Assert
+        assertEquals("Produto Dez Alterado", resultado.getNome());
+        assertEquals("Produto Dez Alterado", produtoRepository.find(10L).getNome());
+    }
+
+    @Test
+    @DisplayName("Quando alteramos um produto com verificador invalido")
+    void alterarProdutoInvalido() {
+        //Act
+        ErroResposta erro = driver.put().uri("/v1/produtos/10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(alterado(10L, "Produto Dez Alterado", "7899137500101"))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody(ErroResposta.ErroRespostaBuilder.class)
+                .returnResult().getResponseBody().build();
+        //Assert
+        assertEquals("Verificador invalido!", erro.getMensagem());
+        assertEquals("Produto Dez", produtoRepository.find(10L).getNome());
+    }
+
+    @Test
+    @DisplayName("Quando buscamos por codigo de barras inexistente")
+    void buscarCodigoBarraInexistente() {
+        //Act & Assert
+        driver.get().uri("/v1/produtos?codigoBarra=7899137500117")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Quando alteramos produtos em massa via NDJSON")
+    void alterarProdutosNdjson() throws Exception {
+        //Arrange
+        String corpo = objectMapper.writeValueAsString(alterado(10L, "Produto Dez Alterado", "7899137500100")) + "\n"
+                + objectMapper.writeValueAsString(alterado(99L, "Produto Inexistente", "7899137500117")) + "\n";
+        //Act
+        String responseJsonString = driver.put().uri("/v1/produtos")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(corpo)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        JsonNode resultado = objectMapper.readTree(responseJsonString);
+        //Assert
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.get(0).get("sucesso").asBoolean());
+        assertEquals("Produto nao encontrado", resultado.get(1).get("erro").asText());
+    }
+
+    @Test
+    @DisplayName("Quando exportamos os produtos em NDJSON")
+    void exportarProdutos() {
+        //Arrange
+        produtoRepository.save(alterado(11L, "Produto Onze", "7899137500117"));
+        //Act
+        Flux<Produto> exportados = driver.get().uri("/v1/produtos/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Produto.class).getResponseBody();
+        //Assert
+        StepVerifier.create(exportados)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Quando buscamos um produto que nao mudou desde o ultimo ETag")
+    void buscarProdutoNaoModificado() {
+        //Arrange
+        String etag = driver.get().uri("/v1/produtos/10")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Produto.class).getResponseHeaders().getETag();
+        //Act & Assert
+        driver.get().uri("/v1/produtos/10")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName("Quando alteramos um produto com um If-Match desatualizado")
+    void alterarProdutoVersaoDesatualizada() {
+        //Arrange
+        produtoRepository.update(produto);
+        //Act
+        ErroResposta erro = driver.put().uri("/v1/produtos/10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .bodyValue(alterado(10L, "Produto Dez Alterado", "7899137500100"))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody(ErroResposta.ErroRespostaBuilder.class)
+                .returnResult().getResponseBody().build();
+        //Assert
+        assertEquals("versao_conflitante", erro.getCodigo());
+        assertEquals("Produto Dez", produtoRepository.find(10L).getNome());
+    }
+
+    @Test
+    @DisplayName("Quando consultamos o historico de precos num intervalo")
+    void consultarPrecos() {
+        //Arrange
+        produto.setPreco(475.00);
+        produtoRepository.update(produto);
+        //Act & Assert
+        driver.get().uri("/v1/produtos/10/precos?from=2000-01-01T00:00:00Z")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[-1:].preco").isEqualTo(475.0);
+        driver.get().uri("/v1/produtos/10/precos?from=2100-01-01T00:00:00Z")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+        driver.get().uri("/v1/produtos/999999/precos")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Quando um parametro da rota ou da consulta nao converte")
+    void parametrosInvalidos() {
+        //Act & Assert
+        for (String uri : new String[]{
+                "/v1/produtos/abc",
+                "/v1/produtos/abc/estoque",
+                "/v1/produtos/10/precos?from=ontem",
+                "/v1/produtos/busca?q=produto&pagina=um",
+                "/v1/produtos/autocompletar?q=pro&limite=99999999999"}) {
+            ErroResposta erro = driver.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(ErroResposta.ErroRespostaBuilder.class)
+                    .returnResult().getResponseBody().build();
+            assertEquals("parametro_invalido", erro.getCodigo(), uri);
+        }
+        driver.put().uri("/v1/produtos/preco?fabricante=Empresa Dez&percentual=dez")
+                .exchange()
+                .expectStatus().isBadRequest();
+        driver.put().uri("/v1/produtos/abc")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(alterado(10L, "Produto Dez Alterado", "7899137500100"))
+                .exchange()
+                .expectStatus().isBadRequest();
+        assertEquals("Produto Dez", produtoRepository.find(10L).getNome());
+    }
+}
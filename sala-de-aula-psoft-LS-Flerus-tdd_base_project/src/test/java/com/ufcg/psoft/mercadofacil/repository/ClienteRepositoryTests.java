@@ -0,0 +1,119 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Cliente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do repositório de Clientes")
+class ClienteRepositoryTests {
+
+    ClienteVolatilRepository driver;
+    Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        driver = new ClienteVolatilRepository();
+        cliente = Cliente.builder()
+                .id(1L)
+                .cpf(52998224725L)
+                .nome("Cliente Base")
+                .idade(30)
+                .endereco("Rua Base, 1")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Salvar e buscar pelo id e pelo CPF")
+    void salvarEBuscarPorCpf() {
+        // Act
+        driver.save(cliente);
+        // Assert
+        assertEquals(cliente, driver.find(1L));
+        assertEquals(cliente, driver.findByCpf(52998224725L));
+        assertNull(driver.findByCpf(11144477735L));
+        assertEquals(1, driver.count());
+    }
+
+    @Test
+    @DisplayName("Objetos devolvidos sao copias e nao mexem no indice")
+    void devolverCopias() {
+        // Arrange
+        driver.save(cliente);
+        // Act
+        driver.find(1L).setCpf(11144477735L);
+        cliente.setCpf(11144477735L);
+        // Assert
+        assertEquals(52998224725L, driver.find(1L).getCpf());
+        assertNotNull(driver.findByCpf(52998224725L));
+        assertNull(driver.findByCpf(11144477735L));
+    }
+
+    @Test
+    @DisplayName("CPF de outro cliente e recusado sem alterar nada")
+    void recusarCpfDuplicado() {
+        // Arrange
+        driver.save(cliente);
+        Cliente outro = Cliente.builder().id(2L).cpf(52998224725L).nome("Outro Cliente").build();
+        // Act & Assert
+        assertThrows(CpfDuplicadoException.class, () -> driver.save(outro));
+        assertNull(driver.find(2L));
+        assertEquals(1L, driver.findByCpf(52998224725L).getId());
+    }
+
+    @Test
+    @DisplayName("Update e delete liberam o CPF anterior")
+    void liberarCpfAnterior() {
+        // Arrange
+        driver.save(cliente);
+        cliente.setCpf(11144477735L);
+        // Act
+        driver.update(cliente);
+        // Assert
+        assertNull(driver.findByCpf(52998224725L));
+        assertEquals(1L, driver.findByCpf(11144477735L).getId());
+        driver.delete(cliente);
+        assertNull(driver.findByCpf(11144477735L));
+        Cliente novo = driver.save(Cliente.builder().cpf(11144477735L).nome("Cliente Novo").build());
+        assertEquals(novo.getId(), driver.findByCpf(11144477735L).getId());
+        assertNull(driver.update(Cliente.builder().id(99L).cpf(52998224725L).nome("Inexistente").build()));
+    }
+
+    @Test
+    @DisplayName("Saves concorrentes com o mesmo CPF deixam um unico cliente")
+    void salvarConcorrentementeMesmoCpf() throws InterruptedException {
+        // Arrange
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger duplicados = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    largada.await();
+                    driver.save(Cliente.builder().cpf(52998224725L).nome("Concorrente").build());
+                } catch (CpfDuplicadoException e) {
+                    duplicados.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        // Act
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        assertEquals(threads - 1, duplicados.get());
+        assertEquals(1, driver.count());
+        assertEquals(driver.findAll().get(0).getId(), driver.findByCpf(52998224725L).getId());
+    }
+}
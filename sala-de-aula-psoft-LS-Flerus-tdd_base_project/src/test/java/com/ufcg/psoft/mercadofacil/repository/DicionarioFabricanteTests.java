@@ -0,0 +1,58 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do dicionario de fabricantes")
+class DicionarioFabricanteTests {
+
+    DicionarioFabricante driver;
+
+    @BeforeEach
+    void setUp() {
+        driver = new DicionarioFabricante();
+    }
+
+    @Test
+    @DisplayName("Codificar o mesmo nome devolve o mesmo id")
+    void codificarMesmoNome() {
+        // Act
+        int dez = driver.codificar("Empresa Dez");
+        int onze = driver.codificar("Empresa Onze");
+        // Assert
+        assertEquals(dez, driver.codificar(new String("Empresa Dez")));
+        assertNotEquals(dez, onze);
+        assertEquals("Empresa Onze", driver.nome(onze));
+        assertEquals(DicionarioFabricante.AUSENTE, driver.buscar("Empresa Doze"));
+        assertEquals(2, driver.tamanho());
+    }
+
+    @Test
+    @DisplayName("Codificacoes concorrentes recebem ids distintos e decodificaveis")
+    void codificacoesConcorrentes() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            String nome = "Empresa " + i;
+            executor.submit(() -> ids.add(driver.codificar(nome)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        assertEquals(1000, ids.size());
+        for (int id : ids) {
+            assertEquals(id, driver.buscar(driver.nome(id)));
+        }
+    }
+}
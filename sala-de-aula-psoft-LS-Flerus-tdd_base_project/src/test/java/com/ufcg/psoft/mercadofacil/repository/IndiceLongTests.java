@@ -0,0 +1,59 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do indice de longs")
+class IndiceLongTests {
+
+    IndiceLong driver;
+
+    @BeforeEach
+    void setUp() {
+        driver = new IndiceLong();
+    }
+
+    @Test
+    @DisplayName("Inserir so se ausente devolve o dono atual")
+    void inserirSeAusente() {
+        // Act
+        long primeiro = driver.putIfAbsent(7899137500100L, 1L);
+        long segundo = driver.putIfAbsent(7899137500100L, 2L);
+        // Assert
+        assertEquals(IndiceLong.AUSENTE, primeiro);
+        assertEquals(1L, segundo);
+        assertEquals(1L, driver.get(7899137500100L));
+    }
+
+    @Test
+    @DisplayName("Remover com valor diferente nao remove")
+    void removerComValorDiferente() {
+        // Arrange
+        driver.put(10L, 1L);
+        // Act & Assert
+        assertFalse(driver.remove(10L, 2L));
+        assertTrue(driver.remove(10L, 1L));
+        assertEquals(IndiceLong.AUSENTE, driver.get(10L));
+    }
+
+    @Test
+    @DisplayName("Remocoes no meio das colisoes preservam as demais chaves")
+    void remocoesPreservamChaves() {
+        // Arrange
+        for (long chave = 0; chave < 100_000; chave++) {
+            driver.put(chave, chave * 2);
+        }
+        // Act
+        for (long chave = 0; chave < 100_000; chave += 3) {
+            driver.remove(chave);
+        }
+        // Assert
+        for (long chave = 0; chave < 100_000; chave++) {
+            assertEquals(chave % 3 == 0 ? IndiceLong.AUSENTE : chave * 2, driver.get(chave));
+        }
+        assertEquals(66_666, driver.size());
+    }
+}
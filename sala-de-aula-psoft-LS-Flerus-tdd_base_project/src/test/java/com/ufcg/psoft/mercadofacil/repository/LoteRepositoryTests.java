@@ -9,6 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -32,7 +38,7 @@ class LoteRepositoryTests {
                 .build();
         lote = Lote.builder()
                 .id(1L)
-                .produto(produto)
+                .produtoId(produto.getId())
                 .numeroDeItens(100)
                 .build();
     }
@@ -54,7 +60,7 @@ class LoteRepositoryTests {
         assertNotNull(resultado);
         assertEquals(1, driver.findAll().size());
         assertEquals(lote.getId().longValue(), resultado.getId().longValue());
-        assertEquals(produto, resultado.getProduto());
+        assertEquals(produto.getId(), resultado.getProdutoId());
     }
 
     @Test
@@ -71,7 +77,7 @@ class LoteRepositoryTests {
                 .build();
         Lote lote2 = Lote.builder()
                 .id(2L)
-                .produto(produto2)
+                .produtoId(produto2.getId())
                 .numeroDeItens(200)
                 .build();
         driver.save(lote);
@@ -83,8 +89,191 @@ class LoteRepositoryTests {
         assertNotNull(resultado);
         assertEquals(2, driver.findAll().size());
         assertEquals(lote2.getId().longValue(), resultado.getId().longValue());
-        assertEquals(produto2, resultado.getProduto());
+        assertEquals(produto2.getId(), resultado.getProdutoId());
+
+    }
+
+    @Test
+    @DisplayName("Buscar lote pelo id")
+    void buscarLotePeloId() {
+        // Arrange
+        driver.deleteAll();
+        driver.save(lote);
+        // Act
+        Lote resultado = driver.find(1L);
+        // Assert
+        assertEquals(lote, resultado);
+        assertNull(driver.find(2L));
+    }
 
+    @Test
+    @DisplayName("Salvar lote sem id gera um id novo")
+    void salvarLoteSemId() {
+        // Arrange
+        driver.deleteAll();
+        driver.save(lote);
+        Lote semId = Lote.builder()
+                .produtoId(produto.getId())
+                .numeroDeItens(10)
+                .build();
+        // Act
+        Lote resultado = driver.save(semId);
+        // Assert
+        assertNotNull(resultado.getId());
+        assertNotEquals(lote.getId(), resultado.getId());
+        assertEquals(2, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Atualizar um lote nao afeta os demais")
+    void atualizarLoteMantemOsDemais() {
+        // Arrange
+        driver.deleteAll();
+        Lote lote2 = Lote.builder()
+                .id(2L)
+                .produtoId(produto.getId())
+                .numeroDeItens(200)
+                .build();
+        driver.save(lote);
+        driver.save(lote2);
+        Lote alterado = Lote.builder()
+                .id(1L)
+                .produtoId(produto.getId())
+                .numeroDeItens(50)
+                .build();
+        // Act
+        Lote resultado = driver.update(alterado);
+        // Assert
+        assertEquals(50, resultado.getNumeroDeItens());
+        assertEquals(2, driver.findAll().size());
+        assertEquals(200, driver.find(2L).getNumeroDeItens());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Remover um lote nao afeta os demais")
+    void removerLoteMantemOsDemais() {
+        // Arrange
+        driver.deleteAll();
+        Lote lote2 = Lote.builder()
+                .id(2L)
+                .produtoId(produto.getId())
+                .numeroDeItens(200)
+                .build();
+        driver.save(lote);
+        driver.save(lote2);
+        // Act
+        driver.delete(lote);
+        // Assert
+        assertNull(driver.find(1L));
+        assertEquals(1, driver.findAll().size());
+        assertEquals(1, driver.findByProduto(produto.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Buscar lotes de um produto pelo indice")
+    void buscarLotesPorProduto() {
+        // Arrange
+        driver.deleteAll();
+        Produto produto2 = Produto.builder()
+                .id(2L)
+                .nome("Produto Dois")
+                .codigoBarra("987654321")
+                .fabricante("Fabricante Dois")
+                .preco(200.00)
+                .build();
+        driver.save(lote);
+        driver.save(Lote.builder().id(2L).produtoId(produto2.getId()).numeroDeItens(20).build());
+        driver.save(Lote.builder().id(3L).produtoId(produto2.getId()).numeroDeItens(30).build());
+        // Act
+        driver.update(Lote.builder().id(3L).produtoId(produto.getId()).numeroDeItens(30).build());
+        // Assert
+        assertEquals(2, driver.findByProduto(1L).size());
+        assertEquals(1, driver.findByProduto(2L).size());
+        assertEquals(2L, driver.findByProduto(2L).get(0).getId());
+        assertTrue(driver.findByProduto(3L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Alterar o lote devolvido pela busca so vale depois do update")
+    void alterarLoteBuscadoAntesDoUpdate() {
+        // Arrange
+        driver.deleteAll();
+        driver.save(lote);
+        Lote buscado = driver.find(1L);
+        // Act
+        buscado.setProdutoId(2L);
+        assertEquals(1L, driver.find(1L).getProdutoId());
+        driver.update(buscado);
+        // Assert
+        assertTrue(driver.findByProduto(1L).isEmpty());
+        assertEquals(1, driver.findByProduto(2L).size());
+        assertEquals(2L, driver.find(1L).getProdutoId());
+    }
+
+    @Test
+    @DisplayName("Reservar itens desconta do lote")
+    void reservarItens() {
+        // Arrange
+        driver.deleteAll();
+        driver.save(lote);
+        // Act
+        Lote resultado = driver.reservar(1L, 30);
+        // Assert
+        assertEquals(70, resultado.getNumeroDeItens());
+        assertEquals(70, driver.find(1L).getNumeroDeItens());
+        assertEquals(produto.getId(), driver.find(1L).getProdutoId());
+        assertNull(driver.reservar(2L, 1));
+    }
+
+    @Test
+    @DisplayName("Reservar mais itens do que o lote tem nao altera o lote")
+    void reservarSemEstoque() {
+        // Arrange
+        driver.deleteAll();
+        driver.save(lote);
+        // Act & Assert
+        assertThrows(EstoqueInsuficienteException.class, () -> driver.reservar(1L, 101));
+        assertEquals(100, driver.find(1L).getNumeroDeItens());
+        assertEquals(0, driver.reservar(1L, 100).getNumeroDeItens());
+    }
+
+    @Test
+    @DisplayName("Reservas concorrentes no mesmo lote nunca vendem mais do que ha")
+    void reservasConcorrentesNoMesmoLote() throws InterruptedException {
+        // Arrange
+        driver.deleteAll();
+        lote.setNumeroDeItens(10_000);
+        driver.save(lote);
+        int threads = 16;
+        AtomicInteger reservados = new AtomicInteger();
+        AtomicInteger recusados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    try {
+                        driver.reservar(1L, 1);
+                        reservados.incrementAndGet();
+                    } catch (EstoqueInsuficienteException e) {
+                        recusados.incrementAndGet();
+                    }
+                }
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        // Assert
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(10_000, reservados.get());
+        assertEquals(6_000, recusados.get());
+        assertEquals(0, driver.find(1L).getNumeroDeItens());
+    }
+}
@@ -0,0 +1,210 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do repositorio de produtos fora do heap")
+class ProdutoOffHeapRepositoryTests {
+
+    ProdutoOffHeapRepository driver;
+
+    @BeforeEach
+    void setUp() {
+        driver = new ProdutoOffHeapRepository();
+    }
+
+    Produto produto(long id, String nome, String fabricante) {
+        return Produto.builder()
+                .id(id)
+                .nome(nome)
+                .codigoBarra(String.format("789913750%04d", id))
+                .fabricante(fabricante)
+                .preco(10.00 + id)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Salvar, alterar e remover preservam os campos")
+    void salvarAlterarRemover() {
+        // Arrange
+        driver.save(produto(1L, "Produto Um", "Empresa Dez"));
+        driver.save(produto(2L, "Produto Dois", "Empresa Onze"));
+        // Act
+        driver.update(produto(1L, "Produto Um com um nome bem maior que o anterior", "Empresa Onze"));
+        driver.delete(produto(2L, null, null));
+        // Assert
+        assertEquals(produto(1L, "Produto Um com um nome bem maior que o anterior", "Empresa Onze"), driver.find(1L));
+        assertNull(driver.find(2L));
+        assertNull(driver.findByCodigoBarra("7899137500002"));
+        assertEquals(1, driver.count());
+        assertEquals(1, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Uma linha removida e reaproveitada pelo proximo produto")
+    void reaproveitarLinha() {
+        // Arrange
+        driver.save(produto(1L, "Produto Um", "Empresa Dez"));
+        driver.delete(produto(1L, null, null));
+        long antes = driver.bytesForaDoHeap();
+        // Act
+        driver.save(produto(2L, "Produto 2", "Empresa Dez"));
+        // Assert
+        assertEquals(antes, driver.bytesForaDoHeap());
+        assertEquals("Produto 2", driver.find(2L).getNome());
+        assertEquals(List.of(driver.find(2L)), driver.findByFabricante("Empresa Dez"));
+    }
+
+    @Test
+    @DisplayName("Guardar nome nulo e codigo de barras nao numerico")
+    void camposForaDoFormato() {
+        // Arrange
+        Produto produto = Produto.builder().id(1L).codigoBarra("ABC-123").fabricante("Empresa Dez").preco(19.99).build();
+        // Act
+        driver.save(produto);
+        // Assert
+        assertEquals(produto, driver.find(1L));
+        assertEquals(produto, driver.findByCodigoBarra("ABC-123"));
+    }
+
+    @Test
+    @DisplayName("Rejeitar codigo de barras de outro produto")
+    void codigoBarraDuplicado() {
+        // Arrange
+        driver.save(produto(1L, "Produto Um", "Empresa Dez"));
+        Produto outro = produto(2L, "Produto Dois", "Empresa Dez");
+        outro.setCodigoBarra("7899137500001");
+        // Act & Assert
+        assertThrows(CodigoBarraDuplicadoException.class, () -> driver.save(outro));
+        assertNull(driver.find(2L));
+    }
+
+    @Test
+    @DisplayName("Percorrer entrega cada produto pela mesma visao")
+    void percorrerVisao() {
+        // Arrange
+        for (long id = 1; id <= 10; id++) {
+            driver.save(produto(id, "Produto " + id, "Empresa " + (id % 2)));
+        }
+        List<Long> ids = new ArrayList<>();
+        long[] centavos = new long[1];
+        // Act
+        driver.percorrer(visao -> {
+            if ("Empresa 0".equals(visao.getNomeFabricante())) {
+                ids.add(visao.getId());
+                centavos[0] += visao.getPrecoCentavos();
+            }
+        });
+        // Assert
+        assertEquals(List.of(2L, 4L, 6L, 8L, 10L), ids);
+        assertEquals(8000, centavos[0]);
+    }
+
+    @Test
+    @DisplayName("Insercoes, alteracoes e remocoes concorrentes")
+    void operacoesConcorrentes() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int t = 0; t < 8; t++) {
+            long base = t * 1000L;
+            executor.submit(() -> {
+                for (long id = base + 1; id <= base + 1000; id++) {
+                    driver.save(produto(id, "Produto " + id, "Empresa Dez"));
+                    driver.update(produto(id, "Produto Alterado " + id, "Empresa Onze"));
+                    if (id % 2 == 0) {
+                        driver.delete(produto(id, null, null));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        // Assert
+        assertEquals(4000, driver.count());
+        assertEquals(4000, driver.findByFabricante("Empresa Onze").size());
+        assertEquals("Produto Alterado 7999", driver.find(7999L).getNome());
+    }
+
+    @Nested
+    @SpringBootTest(properties = "mercadofacil.produtos.armazenamento=offheap")
+    @DisplayName("Quando selecionado por configuracao")
+    class Configuracao {
+
+        @Autowired
+        @Qualifier("produtoArmazenamento")
+        ProdutoRepository<Produto, Long> armazenamento;
+
+        @Autowired
+        ProdutoRepository<Produto, Long> produtoRepository;
+
+        @Test
+        @DisplayName("O repositorio principal grava fora do heap")
+        void repositorioPrincipal() {
+            // Arrange
+            produtoRepository.deleteAll();
+            // Act
+            produtoRepository.save(produto(10L, "Produto Dez", "Empresa Dez"));
+            // Assert
+            assertInstanceOf(ProdutoOffHeapRepository.class, armazenamento);
+            assertEquals("Produto Dez", armazenamento.find(10L).getNome());
+        }
+    }
+
+    @Test
+    @DisplayName("A versao fica na coluna e o compareAndSet confere com ela")
+    void versaoEmColuna() {
+        // Arrange
+        driver.save(produto(1L, "Produto Um", "Empresa Dez"));
+        driver.update(produto(1L, "Produto Um", "Empresa Onze"));
+        // Act
+        Produto atualizado = driver.compareAndSet(produto(1L, "Produto Um", "Empresa Doze"), 2);
+        // Assert
+        assertEquals(3, atualizado.getVersao());
+        assertEquals(3, driver.find(1L).getVersao());
+        assertThrows(VersaoConflitanteException.class, () -> driver.compareAndSet(produto(1L, "Produto Um", "Empresa Dez"), 2));
+        assertEquals("Empresa Doze", driver.find(1L).getFabricante());
+    }
+
+    @Test
+    @DisplayName("Listener que falha aborta a gravacao sem mexer na linha nem nos indices")
+    void listenerQueFalhaNaoMexeNaLinha() {
+        // Arrange
+        AtomicBoolean falhar = new AtomicBoolean();
+        driver = new ProdutoOffHeapRepository(List.of(new ProdutoRepositoryTests.ListenerFalhando(falhar)));
+        Produto original = driver.save(produto(1L, "Produto Um", "Empresa Dez"));
+        Produto alterado = produto(1L, "Produto Um Alterado", "Empresa Onze");
+        alterado.setCodigoBarra("7899137500117");
+        falhar.set(true);
+        // Act
+        assertThrows(IllegalStateException.class, () -> driver.update(alterado));
+        assertThrows(IllegalStateException.class, () -> driver.delete(original));
+        // Assert
+        assertEquals(original, driver.find(1L));
+        assertEquals(original, driver.findByCodigoBarra("7899137500001"));
+        assertNull(driver.findByCodigoBarra("7899137500117"));
+        assertTrue(driver.findByFabricante("Empresa Onze").isEmpty());
+        falhar.set(false);
+        assertNotNull(driver.save(Produto.builder()
+                .id(2L)
+                .nome("Produto Dois")
+                .codigoBarra("7899137500117")
+                .preco(1.00)
+                .build()));
+    }
+}
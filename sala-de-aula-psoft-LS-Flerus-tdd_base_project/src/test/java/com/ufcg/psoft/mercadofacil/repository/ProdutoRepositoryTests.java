@@ -0,0 +1,421 @@
+package com.ufcg.psoft.mercadofacil.repository;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Testes do repositório de Produtos")
+class ProdutoRepositoryTests {
+
+    @Autowired
+    ProdutoRepository<Produto, Long> driver;
+
+    Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        driver.deleteAll();
+        produto = Produto.builder()
+                .id(10L)
+                .nome("Produto Dez")
+                .codigoBarra("7899137500100")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        produto = null;
+    }
+
+    @Test
+    @DisplayName("Inserir produto com id informado")
+    void inserirProdutoComId() {
+        // Act
+        Produto resultado = driver.save(produto);
+        // Assert
+        assertEquals(10L, resultado.getId());
+        assertEquals(produto, driver.find(10L));
+        assertEquals(1, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Inserir produto sem id gera um id novo")
+    void inserirProdutoSemId() {
+        // Arrange
+        driver.save(produto);
+        Produto semId = Produto.builder()
+                .nome("Produto Novo")
+                .codigoBarra("7899137500117")
+                .fabricante("Empresa Dez")
+                .preco(10.00)
+                .build();
+        // Act
+        Produto resultado = driver.save(semId);
+        // Assert
+        assertNotNull(resultado.getId());
+        assertTrue(resultado.getId() > 10L);
+        assertEquals(2, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Atualizar produto existente")
+    void atualizarProdutoExistente() {
+        // Arrange
+        driver.save(produto);
+        Produto alterado = Produto.builder()
+                .id(10L)
+                .nome("Produto Dez Alterado")
+                .codigoBarra("7899137500100")
+                .fabricante("Empresa Dez")
+                .preco(500.00)
+                .build();
+        // Act
+        Produto resultado = driver.update(alterado);
+        // Assert
+        assertEquals("Produto Dez Alterado", resultado.getNome());
+        assertEquals(500.00, driver.find(10L).getPreco());
+    }
+
+    @Test
+    @DisplayName("Atualizar produto inexistente nao o insere")
+    void atualizarProdutoInexistente() {
+        // Act
+        Produto resultado = driver.update(produto);
+        // Assert
+        assertNull(resultado);
+        assertNull(driver.find(10L));
+    }
+
+    @Test
+    @DisplayName("Remover produto")
+    void removerProduto() {
+        // Arrange
+        driver.save(produto);
+        // Act
+        driver.delete(produto);
+        // Assert
+        assertNull(driver.find(10L));
+        assertTrue(driver.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Insercoes concorrentes geram ids distintos")
+    void insercoesConcorrentes() throws InterruptedException {
+        // Arrange
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            String codigoBarra = String.format("789913750%04d", i);
+            executor.execute(() -> ids.add(driver.save(Produto.builder()
+                    .nome("Produto")
+                    .codigoBarra(codigoBarra)
+                    .fabricante("Empresa")
+                    .preco(1.00)
+                    .build()).getId()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        assertEquals(1000, ids.size());
+        assertEquals(1000, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Buscar produto pelo codigo de barras")
+    void buscarPorCodigoBarra() {
+        // Arrange
+        driver.save(produto);
+        // Act
+        Produto resultado = driver.findByCodigoBarra("7899137500100");
+        // Assert
+        assertEquals(produto, resultado);
+        assertNull(driver.findByCodigoBarra("7899137500117"));
+    }
+
+    @Test
+    @DisplayName("Inserir produto com codigo de barras de outro produto e rejeitado")
+    void inserirCodigoBarraDuplicado() {
+        // Arrange
+        driver.save(produto);
+        Produto duplicado = Produto.builder()
+                .id(11L)
+                .nome("Produto Onze")
+                .codigoBarra("7899137500100")
+                .fabricante("Empresa Onze")
+                .preco(10.00)
+                .build();
+        // Act
+        assertThrows(CodigoBarraDuplicadoException.class, () -> driver.save(duplicado));
+        // Assert
+        assertNull(driver.find(11L));
+        assertEquals(produto, driver.findByCodigoBarra("7899137500100"));
+    }
+
+    @Test
+    @DisplayName("Alterar o codigo de barras libera o codigo antigo")
+    void alterarCodigoBarraLiberaAntigo() {
+        // Arrange
+        driver.save(produto);
+        Produto alterado = Produto.builder()
+                .id(10L)
+                .nome("Produto Dez")
+                .codigoBarra("7899137500117")
+                .fabricante("Empresa Dez")
+                .preco(450.00)
+                .build();
+        // Act
+        driver.update(alterado);
+        // Assert
+        assertNull(driver.findByCodigoBarra("7899137500100"));
+        assertEquals(alterado, driver.findByCodigoBarra("7899137500117"));
+        assertNotNull(driver.save(Produto.builder()
+                .nome("Produto Novo")
+                .codigoBarra("7899137500100")
+                .preco(1.00)
+                .build()).getId());
+    }
+
+    @Test
+    @DisplayName("Remover produto libera o codigo de barras")
+    void removerLiberaCodigoBarra() {
+        // Arrange
+        driver.save(produto);
+        // Act
+        driver.delete(produto);
+        // Assert
+        assertNull(driver.findByCodigoBarra("7899137500100"));
+    }
+
+    @Test
+    @DisplayName("Insercoes concorrentes com o mesmo codigo de barras mantem um unico produto")
+    void insercoesConcorrentesMesmoCodigo() throws InterruptedException {
+        // Arrange
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                try {
+                    ids.add(driver.save(Produto.builder()
+                            .nome("Produto")
+                            .codigoBarra("7899137500100")
+                            .preco(1.00)
+                            .build()).getId());
+                } catch (CodigoBarraDuplicadoException e) {
+                    // esperado para todas menos uma
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        assertEquals(1, ids.size());
+        assertEquals(1, driver.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Alterar o produto devolvido nao altera o produto guardado")
+    void leituraDevolveCopia() {
+        // Arrange
+        driver.save(produto);
+        Produto lido = driver.find(10L);
+        // Act
+        lido.setNome("Produto Alterado Fora do Repositorio");
+        produto.setPreco(1.00);
+        // Assert
+        assertEquals("Produto Dez", driver.find(10L).getNome());
+        assertEquals(450.00, driver.find(10L).getPreco());
+    }
+
+    @Test
+    @DisplayName("Guardar codigos com zeros a esquerda, codigos nao numericos e precos em centavos")
+    void representacaoCompacta() {
+        // Arrange
+        driver.save(Produto.builder().id(1L).nome("Um").codigoBarra("0012345678905").fabricante("Empresa Dez").preco(19.99).build());
+        driver.save(Produto.builder().id(2L).nome("Dois").codigoBarra("ABC-123").fabricante(new String("Empresa Dez")).preco(0.1).build());
+        // Act
+        Produto um = driver.find(1L);
+        Produto dois = driver.findByCodigoBarra("ABC-123");
+        // Assert
+        assertEquals("0012345678905", um.getCodigoBarra());
+        assertEquals(19.99, um.getPreco());
+        assertEquals(2L, dois.getId());
+        assertEquals(0.1, dois.getPreco());
+        assertSame(um.getFabricante(), dois.getFabricante());
+        assertNull(driver.findByCodigoBarra("12345678905"));
+    }
+
+    @Test
+    @DisplayName("Buscar por fabricante acompanha alteracoes e remocoes")
+    void buscarPorFabricante() {
+        // Arrange
+        driver.save(produto);
+        driver.save(Produto.builder().id(11L).nome("Produto Onze").codigoBarra("7899137500117").fabricante("Empresa Dez").preco(10.00).build());
+        driver.save(Produto.builder().id(12L).nome("Produto Doze").codigoBarra("7899137500124").fabricante("Empresa Doze").preco(10.00).build());
+        // Act
+        driver.update(Produto.builder().id(11L).nome("Produto Onze").codigoBarra("7899137500117").fabricante("Empresa Doze").preco(10.00).build());
+        driver.delete(Produto.builder().id(12L).build());
+        // Assert
+        assertEquals(List.of(produto), driver.findByFabricante("Empresa Dez"));
+        assertEquals(11L, driver.findByFabricante("Empresa Doze").get(0).getId());
+        assertEquals(1, driver.findByFabricante("Empresa Doze").size());
+        assertTrue(driver.findByFabricante("Empresa Treze").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Buscar varios ids de uma vez ignora os inexistentes e mantem a ordem")
+    void buscarVariosIds() {
+        // Arrange
+        driver.save(produto);
+        driver.save(Produto.builder().id(11L).nome("Produto Onze").codigoBarra("7899137500117").fabricante("Empresa Dez").preco(10.00).build());
+        // Act
+        List<Produto> resultado = driver.findAllById(List.of(11L, 99L, produto.getId()));
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals(11L, resultado.get(0).getId());
+        assertEquals(produto, resultado.get(1));
+        assertTrue(driver.findAllById(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cada gravacao do produto avanca a versao")
+    void versaoAvancaACadaGravacao() {
+        // Act
+        Produto salvo = driver.save(produto);
+        Produto atualizado = driver.update(produto);
+        // Assert
+        assertEquals(1, salvo.getVersao());
+        assertEquals(2, atualizado.getVersao());
+        assertEquals(2, driver.find(10L).getVersao());
+    }
+
+    @Test
+    @DisplayName("Alterar com versao desatualizada nao grava")
+    void compareAndSetComVersaoDesatualizada() {
+        // Arrange
+        driver.save(produto);
+        produto.setPreco(500.00);
+        // Act
+        Produto atualizado = driver.compareAndSet(produto, 1);
+        // Assert
+        assertEquals(2, atualizado.getVersao());
+        produto.setPreco(600.00);
+        assertThrows(VersaoConflitanteException.class, () -> driver.compareAndSet(produto, 1));
+        assertEquals(500.00, driver.find(10L).getPreco());
+        assertNull(driver.compareAndSet(Produto.builder().id(99L).build(), 1));
+    }
+
+    @Test
+    @DisplayName("Alteracoes concorrentes com versao nao perdem atualizacoes")
+    void compareAndSetConcorrenteSemPerdas() throws InterruptedException {
+        // Arrange
+        driver.save(produto);
+        int threads = 8;
+        int incrementos = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < incrementos; i++) {
+                    while (true) {
+                        Produto atual = driver.find(10L);
+                        atual.setPreco(atual.getPreco() + 0.01);
+                        try {
+                            driver.compareAndSet(atual, atual.getVersao());
+                            break;
+                        } catch (VersaoConflitanteException e) {
+                            // outra thread gravou antes: le de novo e tenta outra vez
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        // Assert
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        Produto resultado = driver.find(10L);
+        assertEquals(450.00 + threads * incrementos * 0.01, resultado.getPreco(), 0.001);
+        assertEquals(1 + threads * incrementos, resultado.getVersao());
+    }
+
+    @Test
+    @DisplayName("Listener que falha aborta a gravacao sem mexer nos indices")
+    void listenerQueFalhaNaoMexeNosIndices() {
+        // Arrange
+        AtomicBoolean falhar = new AtomicBoolean();
+        ProdutoVolatilRepository repository = new ProdutoVolatilRepository(List.of(new ListenerFalhando(falhar)));
+        repository.save(produto);
+        Produto alterado = Produto.builder()
+                .id(10L)
+                .nome("Produto Dez")
+                .codigoBarra("7899137500117")
+                .fabricante("Empresa Onze")
+                .preco(450.00)
+                .build();
+        falhar.set(true);
+        // Act
+        assertThrows(IllegalStateException.class, () -> repository.update(alterado));
+        assertThrows(IllegalStateException.class, () -> repository.delete(produto));
+        // Assert
+        assertEquals(produto, repository.findByCodigoBarra("7899137500100"));
+        assertNull(repository.findByCodigoBarra("7899137500117"));
+        assertEquals(List.of(produto), repository.findByFabricante("Empresa Dez"));
+        assertTrue(repository.findByFabricante("Empresa Onze").isEmpty());
+        falhar.set(false);
+        assertNotNull(repository.save(Produto.builder()
+                .id(11L)
+                .nome("Produto Onze")
+                .codigoBarra("7899137500117")
+                .preco(1.00)
+                .build()));
+    }
+
+    // simula o journal fechado: recusa as mutacoes enquanto falhar estiver ligado
+    static final class ListenerFalhando implements RepositoryListener<Produto> {
+
+        private final AtomicBoolean falhar;
+
+        ListenerFalhando(AtomicBoolean falhar) {
+            this.falhar = falhar;
+        }
+
+        @Override
+        public void onSave(Produto novo) {
+            verificar();
+        }
+
+        @Override
+        public void onUpdate(Produto antigo, Produto novo) {
+            verificar();
+        }
+
+        @Override
+        public void onDelete(Produto antigo) {
+            verificar();
+        }
+
+        private void verificar() {
+            if (falhar.get()) {
+                throw new IllegalStateException("listener indisponivel");
+            }
+        }
+    }
+}
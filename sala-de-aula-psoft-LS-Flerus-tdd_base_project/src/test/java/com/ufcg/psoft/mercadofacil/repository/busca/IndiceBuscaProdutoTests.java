@@ -0,0 +1,141 @@
+package com.ufcg.psoft.mercadofacil.repository.busca;
+
+import com.ufcg.psoft.mercadofacil.dto.Pagina;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do indice de busca de Produtos")
+class IndiceBuscaProdutoTests {
+
+    IndiceBuscaProduto driver;
+    ProdutoVolatilRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        driver = new IndiceBuscaProduto();
+        repository = new ProdutoVolatilRepository(List.of(driver));
+        repository.save(produto(1L, "Feijão Carioca", "Camil"));
+        repository.save(produto(2L, "Feijão Preto", "Kicaldo"));
+        repository.save(produto(3L, "Arroz Parboilizado", "Camil"));
+        repository.save(produto(4L, "Café Torrado", "Pilão"));
+    }
+
+    Produto produto(Long id, String nome, String fabricante) {
+        return Produto.builder()
+                .id(id)
+                .nome(nome)
+                .codigoBarra(String.format("789913750%04d", id))
+                .fabricante(fabricante)
+                .preco(10.00)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Busca ignora maiusculas e acentos")
+    void buscaSemAcentos() {
+        // Act
+        Pagina<Long> resultado = driver.buscar("FEIJAO", 0, 10);
+        // Assert
+        assertEquals(List.of(1L, 2L), resultado.getConteudo());
+        assertEquals(2, resultado.getTotal());
+    }
+
+    @Test
+    @DisplayName("Busca com varios termos devolve a intersecao entre nome e fabricante")
+    void buscaComVariosTermos() {
+        // Act
+        Pagina<Long> resultado = driver.buscar("feijão camil", 0, 10);
+        // Assert
+        assertEquals(List.of(1L), resultado.getConteudo());
+    }
+
+    @Test
+    @DisplayName("Busca paginada")
+    void buscaPaginada() {
+        // Act
+        Pagina<Long> resultado = driver.buscar("camil", 1, 1);
+        // Assert
+        assertEquals(List.of(3L), resultado.getConteudo());
+        assertEquals(2, resultado.getTotal());
+    }
+
+    @Test
+    @DisplayName("Pagina alta nao estoura o inicio e volta vazia")
+    void buscaPaginaAlta() {
+        // Act
+        Pagina<Long> umTermo = driver.buscar("camil", 1 << 20, 1 << 12);
+        Pagina<Long> doisTermos = driver.buscar("arroz camil", Integer.MAX_VALUE, 100);
+        // Assert
+        assertTrue(umTermo.getConteudo().isEmpty());
+        assertEquals(2, umTermo.getTotal());
+        assertTrue(doisTermos.getConteudo().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Autocompletar pelo prefixo do ultimo termo")
+    void autocompletarPorPrefixo() {
+        // Act & Assert
+        assertEquals(List.of(4L), driver.autocompletar("caf", 10));
+        assertEquals(List.of(1L, 3L), driver.autocompletar("cam", 10));
+        assertEquals(List.of(2L), driver.autocompletar("feijao pr", 10));
+    }
+
+    @Test
+    @DisplayName("Autocompletar com varios termos concorrendo com updates nas mesmas listas")
+    void autocompletarConcorrenteComUpdates() throws InterruptedException {
+        // Arrange
+        for (long id = 10; id < 200; id++) {
+            repository.save(produto(id, "Feijao Tropeiro " + id, "Camil"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        // Act
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (thread == 0) {
+                        long id = 10 + i % 190;
+                        repository.update(produto(id, (i % 2 == 0 ? "Arroz Tropeiro " : "Feijao Tropeiro ") + id, "Camil"));
+                    } else {
+                        driver.autocompletar(thread % 2 == 0 ? "feijao camil tro" : "camil feijao tro", 5);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        // Assert
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(List.of(1L), driver.autocompletar("feijao camil car", 10));
+        assertEquals(5, driver.autocompletar("camil tropeiro f", 5).size());
+    }
+
+    @Test
+    @DisplayName("Update tira do indice os termos antigos")
+    void updateAtualizaIndice() {
+        // Act
+        repository.update(produto(4L, "Cafe Soluvel", "Nescafe"));
+        // Assert
+        assertTrue(driver.buscar("torrado", 0, 10).getConteudo().isEmpty());
+        assertEquals(List.of(4L), driver.buscar("soluvel", 0, 10).getConteudo());
+    }
+
+    @Test
+    @DisplayName("Remover produto tira o produto do indice")
+    void removerAtualizaIndice() {
+        // Act
+        repository.delete(produto(3L, null, null));
+        // Assert
+        assertTrue(driver.buscar("arroz", 0, 10).getConteudo().isEmpty());
+        assertEquals(List.of(1L), driver.autocompletar("cam", 10));
+    }
+}
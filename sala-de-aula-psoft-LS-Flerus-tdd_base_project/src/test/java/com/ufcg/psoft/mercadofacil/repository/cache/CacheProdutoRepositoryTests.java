@@ -0,0 +1,110 @@
+package com.ufcg.psoft.mercadofacil.repository.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do cache do repositório de Produtos")
+class CacheProdutoRepositoryTests {
+
+    ProdutoVolatilRepository volatil;
+    CacheProdutoRepository driver;
+
+    @BeforeEach
+    void setUp() {
+        volatil = new ProdutoVolatilRepository();
+        driver = new CacheProdutoRepository(volatil, 2, Duration.ofMinutes(10));
+        for (long id = 1; id <= 3; id++) {
+            volatil.save(produto(id, 10.00 * id));
+        }
+    }
+
+    Produto produto(Long id, double preco) {
+        return Produto.builder()
+                .id(id)
+                .nome("Produto " + id)
+                .codigoBarra(String.format("789913750%04d", id))
+                .fabricante("Empresa")
+                .preco(preco)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Segunda busca pelo mesmo id vem do cache")
+    void buscaRepetidaContaHit() {
+        // Act
+        driver.find(1L);
+        driver.find(1L);
+        // Assert
+        CacheStats estatisticas = driver.estatisticas();
+        assertEquals(1, estatisticas.missCount());
+        assertEquals(1, estatisticas.hitCount());
+    }
+
+    @Test
+    @DisplayName("Update invalida a entrada e a busca seguinte ve o valor novo")
+    void updateInvalidaEntrada() {
+        // Arrange
+        driver.find(1L);
+        // Act
+        driver.update(produto(1L, 99.90));
+        // Assert
+        assertEquals(99.90, driver.find(1L).getPreco());
+        assertEquals(2, driver.estatisticas().missCount());
+    }
+
+    @Test
+    @DisplayName("Delete invalida a entrada")
+    void deleteInvalidaEntrada() {
+        // Arrange
+        Produto produto = driver.find(2L);
+        // Act
+        driver.delete(produto);
+        // Assert
+        assertNull(driver.find(2L));
+    }
+
+    @Test
+    @DisplayName("Id inexistente nao fica em cache")
+    void idInexistenteNaoFicaEmCache() {
+        // Act
+        driver.find(42L);
+        volatil.save(produto(42L, 1.00));
+        // Assert
+        assertNotNull(driver.find(42L));
+    }
+
+    @Test
+    @DisplayName("Cache respeita o tamanho maximo")
+    void respeitaTamanhoMaximo() {
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            driver.find(id);
+        }
+        driver.getCache().cleanUp();
+        // Assert
+        assertEquals(2, driver.getCache().estimatedSize());
+        assertEquals(1, driver.estatisticas().evictionCount());
+    }
+
+    @Test
+    @DisplayName("Busca de varios ids usa o cache e busca os que faltam de uma vez")
+    void buscaVariosIdsUsaCache() {
+        // Arrange
+        driver.find(1L);
+        // Act
+        List<Produto> resultado = driver.findAllById(List.of(1L, 2L, 9L));
+        // Assert
+        assertEquals(List.of(1L, 2L), resultado.stream().map(Produto::getId).toList());
+        assertEquals(1, driver.estatisticas().hitCount());
+        assertEquals(1, driver.getCache().estimatedSize());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ufcg.psoft.mercadofacil.repository.estoque;
+
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteVolatilRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do estoque por produto")
+class EstoqueProdutosTests {
+
+    EstoqueProdutos driver;
+    LoteVolatilRepository loteRepository;
+    Produto produto;
+    Produto outroProduto;
+
+    @BeforeEach
+    void setUp() {
+        driver = new EstoqueProdutos();
+        loteRepository = new LoteVolatilRepository(List.of(driver));
+        produto = Produto.builder().id(1L).nome("Produto Base").build();
+        outroProduto = Produto.builder().id(2L).nome("Outro Produto").build();
+    }
+
+    @Test
+    @DisplayName("Salvar lotes soma os itens no produto")
+    void salvarLotes() {
+        // Act
+        loteRepository.save(lote(1L, produto, 100));
+        loteRepository.save(lote(2L, produto, 50));
+        loteRepository.save(lote(3L, outroProduto, 7));
+        // Assert
+        assertEquals(150, driver.total(1L));
+        assertEquals(7, driver.total(2L));
+        assertEquals(0, driver.total(3L));
+    }
+
+    @Test
+    @DisplayName("Alterar um lote troca a contagem antiga pela nova")
+    void alterarLote() {
+        // Arrange
+        loteRepository.save(lote(1L, produto, 100));
+        // Act
+        loteRepository.update(lote(1L, produto, 30));
+        loteRepository.update(lote(1L, outroProduto, 30));
+        // Assert
+        assertEquals(0, driver.total(1L));
+        assertEquals(30, driver.total(2L));
+    }
+
+    @Test
+    @DisplayName("Remover lotes desconta os itens")
+    void removerLotes() {
+        // Arrange
+        Lote lote = loteRepository.save(lote(1L, produto, 100));
+        loteRepository.save(lote(2L, produto, 50));
+        // Act
+        loteRepository.delete(lote);
+        // Assert
+        assertEquals(50, driver.total(1L));
+        loteRepository.deleteAll();
+        assertEquals(0, driver.total(1L));
+    }
+
+    @Test
+    @DisplayName("Movimentacoes concorrentes de lotes do mesmo produto nao perdem itens")
+    void movimentacoesConcorrentes() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (long i = 1; i <= 1000; i++) {
+            long id = i;
+            executor.execute(() -> {
+                loteRepository.save(lote(id, produto, 10));
+                loteRepository.update(lote(id, produto, 3));
+                if (id % 2 == 0) {
+                    loteRepository.delete(lote(id, produto, 3));
+                }
+            });
+        }
+        executor.shutdown();
+        // Assert
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(1500, driver.total(1L));
+    }
+
+    private static Lote lote(Long id, Produto produto, int itens) {
+        return Lote.builder().id(id).produtoId(produto.getId()).numeroDeItens(itens).build();
+    }
+}
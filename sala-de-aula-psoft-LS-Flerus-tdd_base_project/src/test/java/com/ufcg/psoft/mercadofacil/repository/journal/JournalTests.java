@@ -0,0 +1,124 @@
+package com.ufcg.psoft.mercadofacil.repository.journal;
+
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do journal dos repositorios")
+class JournalTests {
+
+    @TempDir
+    Path diretorio;
+
+    Journal<Produto> journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    ProdutoVolatilRepository abrir() {
+        journal = new Journal<>(diretorio, new ProdutoJournalCodec(), true);
+        ProdutoVolatilRepository volatil = new ProdutoVolatilRepository(List.of(journal));
+        journal.recuperar(volatil::save, volatil::delete);
+        return volatil;
+    }
+
+    void reiniciar() {
+        journal.close();
+        journal = null;
+    }
+
+    Produto produto(long id, String nome, double preco) {
+        return Produto.builder()
+                .id(id)
+                .nome(nome)
+                .codigoBarra(String.format("789913750%04d", id))
+                .fabricante("Empresa Dez")
+                .preco(preco)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Recuperar salvamentos, alteracoes e remocoes a partir do log")
+    void recuperarDoLog() {
+        // Arrange
+        ProdutoVolatilRepository volatil = abrir();
+        ProdutoRepository<Produto, Long> driver = new DuravelProdutoRepository(volatil, journal);
+        driver.save(produto(1L, "Produto Um", 10.00));
+        driver.save(produto(2L, "Produto Dois", 20.00));
+        driver.update(produto(1L, "Produto Um Alterado", 15.00));
+        driver.delete(produto(2L, null, 0));
+        reiniciar();
+        // Act
+        ProdutoVolatilRepository recuperado = abrir();
+        // Assert
+        assertEquals(1, recuperado.findAll().size());
+        assertEquals(produto(1L, "Produto Um Alterado", 15.00), recuperado.find(1L));
+    }
+
+    @Test
+    @DisplayName("Recuperar a partir do snapshot mais o restante do log")
+    void recuperarDoSnapshot() throws IOException {
+        // Arrange
+        ProdutoVolatilRepository volatil = abrir();
+        ProdutoRepository<Produto, Long> driver = new DuravelProdutoRepository(volatil, journal);
+        for (long id = 1; id <= 100; id++) {
+            driver.save(produto(id, "Produto " + id, id));
+        }
+        journal.snapshot(volatil::stream);
+        driver.update(produto(50L, "Produto Cinquenta", 55.00));
+        driver.delete(produto(100L, null, 0));
+        journal.snapshot(volatil::stream);
+        driver.save(produto(101L, "Produto Cento e Um", 101.00));
+        reiniciar();
+        // Act
+        ProdutoVolatilRepository recuperado = abrir();
+        // Assert
+        assertEquals(100, recuperado.findAll().size());
+        assertEquals("Produto Cinquenta", recuperado.find(50L).getNome());
+        assertNull(recuperado.find(100L));
+        assertNotNull(recuperado.find(101L));
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertEquals(1, arquivos.filter(arquivo -> arquivo.toString().endsWith(".snap")).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Ignorar um registro incompleto no fim do log")
+    void ignorarCaudaIncompleta() throws IOException {
+        // Arrange
+        ProdutoVolatilRepository volatil = abrir();
+        ProdutoRepository<Produto, Long> driver = new DuravelProdutoRepository(volatil, journal);
+        driver.save(produto(1L, "Produto Um", 10.00));
+        reiniciar();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            Path segmento = arquivos.filter(arquivo -> Files.isRegularFile(arquivo) && arquivo.toString().endsWith(".log"))
+                    .filter(arquivo -> arquivo.toFile().length() > 0)
+                    .findFirst().orElseThrow();
+            Files.write(segmento, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+        // Act
+        ProdutoVolatilRepository recuperado = abrir();
+        recuperado.save(produto(2L, "Produto Dois", 20.00));
+        journal.aguardarDuravel();
+        reiniciar();
+        // Assert
+        assertEquals(2, abrir().findAll().size());
+    }
+}
@@ -0,0 +1,133 @@
+package com.ufcg.psoft.mercadofacil.repository.mudanca;
+
+import com.ufcg.psoft.mercadofacil.dto.Mudanca;
+import com.ufcg.psoft.mercadofacil.model.Lote;
+import com.ufcg.psoft.mercadofacil.repository.LoteVolatilRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do feed de mudancas")
+class FeedMudancasTests {
+
+    FeedMudancas driver;
+    LoteVolatilRepository loteRepository;
+
+    @BeforeEach
+    void setUp() {
+        driver = new FeedMudancas(8);
+        LoteMudancas listener = new LoteMudancas();
+        listener.feedMudancas = driver;
+        loteRepository = new LoteVolatilRepository(List.of(listener));
+    }
+
+    @Test
+    @DisplayName("Mutacoes do repositorio viram mudancas numeradas em ordem")
+    void numerarMutacoes() {
+        // Arrange
+        Lote lote = Lote.builder().id(1L).produtoId(10L).numeroDeItens(5).build();
+        // Act
+        loteRepository.save(lote);
+        loteRepository.reservar(1L, 2);
+        loteRepository.delete(lote);
+        // Assert
+        List<Mudanca> mudancas = driver.ler(0, 10);
+        assertEquals(3, driver.ultimaSequencia());
+        assertEquals(List.of(1L, 2L, 3L), mudancas.stream().map(Mudanca::getSequencia).toList());
+        assertEquals(List.of("criado", "alterado", "removido"), mudancas.stream().map(Mudanca::getOperacao).toList());
+        assertEquals(3, ((Lote) mudancas.get(1).getDados()).getNumeroDeItens());
+        assertNull(mudancas.get(2).getDados());
+    }
+
+    @Test
+    @DisplayName("Alterar o lote salvo no lugar nao muda a mudanca ja publicada")
+    void copiarDados() {
+        // Arrange
+        Lote lote = Lote.builder().id(1L).produtoId(10L).numeroDeItens(5).build();
+        loteRepository.save(lote);
+        // Act
+        lote.setNumeroDeItens(99);
+        // Assert
+        assertEquals(5, ((Lote) driver.ler(0, 1).get(0).getDados()).getNumeroDeItens());
+    }
+
+    @Test
+    @DisplayName("Ler desde uma sequencia devolve so as posteriores, ate o maximo")
+    void lerDesde() {
+        // Arrange
+        for (long i = 1; i <= 6; i++) {
+            driver.publicar("produto", "criado", i, null);
+        }
+        // Act
+        List<Mudanca> mudancas = driver.ler(2, 3);
+        // Assert
+        assertEquals(List.of(3L, 4L, 5L), mudancas.stream().map(Mudanca::getSequencia).toList());
+        assertTrue(driver.ler(6, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Leitor atrasado retoma da mudanca mais antiga que sobrou no buffer")
+    void sobrescreverAntigas() {
+        // Arrange
+        for (long i = 1; i <= 20; i++) {
+            driver.publicar("produto", "alterado", 1L, null);
+        }
+        // Act
+        List<Mudanca> mudancas = driver.ler(3, 100);
+        // Assert
+        assertEquals(8, driver.capacidade());
+        assertEquals(8, mudancas.size());
+        assertEquals(13, mudancas.get(0).getSequencia());
+        assertEquals(20, mudancas.get(7).getSequencia());
+    }
+
+    @Test
+    @DisplayName("Capacidade e arredondada para potencia de dois")
+    void arredondarCapacidade() {
+        // Act & Assert
+        assertEquals(1024, new FeedMudancas(1000).capacidade());
+        assertEquals(1, new FeedMudancas(1).capacidade());
+        assertThrows(IllegalArgumentException.class, () -> new FeedMudancas(0));
+    }
+
+    @Test
+    @DisplayName("Publicacoes concorrentes recebem sequencias unicas e sem buracos")
+    void publicarConcorrente() throws InterruptedException {
+        // Arrange
+        FeedMudancas feed = new FeedMudancas(1 << 16);
+        int threads = 8;
+        int porThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Act
+        for (int t = 0; t < threads; t++) {
+            long base = t * 1_000_000L;
+            executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    feed.publicar("lote", "alterado", base + i, null);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        // Assert
+        List<Mudanca> lidas = new ArrayList<>();
+        long desde = 0;
+        List<Mudanca> bloco;
+        while (!(bloco = feed.ler(desde, 1000)).isEmpty()) {
+            lidas.addAll(bloco);
+            desde = bloco.get(bloco.size() - 1).getSequencia();
+        }
+        assertEquals(threads * porThread, lidas.size());
+        for (int i = 0; i < lidas.size(); i++) {
+            assertEquals(i + 1, lidas.get(i).getSequencia());
+        }
+    }
+}
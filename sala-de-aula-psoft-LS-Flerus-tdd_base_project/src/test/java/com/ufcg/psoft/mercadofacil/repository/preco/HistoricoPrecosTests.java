@@ -0,0 +1,228 @@
+package com.ufcg.psoft.mercadofacil.repository.preco;
+
+import com.ufcg.psoft.mercadofacil.dto.PontoPreco;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import com.ufcg.psoft.mercadofacil.repository.journal.Journal;
+import com.ufcg.psoft.mercadofacil.repository.journal.PrecoJournalCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do historico de precos")
+class HistoricoPrecosTests {
+
+    HistoricoPrecos driver;
+    ProdutoVolatilRepository produtoRepository;
+    RelogioManual relogio;
+    Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new RelogioManual(1_700_000_000_000L);
+        driver = new HistoricoPrecos(relogio);
+        produtoRepository = new ProdutoVolatilRepository(List.of(driver));
+        produto = Produto.builder()
+                .id(1L)
+                .nome("Produto Base")
+                .codigoBarra("7899137500100")
+                .fabricante("Empresa Base")
+                .preco(10.00)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Save e updates que mudam o preco viram pontos em ordem")
+    void registrarMudancasDePreco() {
+        // Act
+        produtoRepository.save(produto);
+        relogio.avancar(1_000);
+        produto.setPreco(12.35);
+        produtoRepository.update(produto);
+        relogio.avancar(1_000);
+        produto.setNome("Produto Renomeado");
+        produtoRepository.update(produto);
+        relogio.avancar(1_000);
+        produto.setPreco(9.90);
+        produtoRepository.update(produto);
+        // Assert
+        List<PontoPreco> pontos = driver.consultar(1L, null, null);
+        assertEquals(List.of(10.00, 12.35, 9.90), pontos.stream().map(PontoPreco::getPreco).toList());
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), pontos.get(0).getInstante());
+        assertEquals(Instant.ofEpochMilli(1_700_000_003_000L), pontos.get(2).getInstante());
+    }
+
+    @Test
+    @DisplayName("Produtos reaplicados com o historico suspenso nao ganham pontos")
+    void suspenderDuranteRecuperacao() {
+        // Act
+        driver.suspenderDurante(() -> {
+            produtoRepository.save(produto);
+            produto.setPreco(11.00);
+            produtoRepository.update(produto);
+        });
+        assertNull(driver.consultar(1L, null, null));
+        relogio.avancar(1_000);
+        produto.setPreco(12.00);
+        produtoRepository.update(produto);
+        // Assert
+        List<PontoPreco> pontos = driver.consultar(1L, null, null);
+        assertEquals(List.of(12.00), pontos.stream().map(PontoPreco::getPreco).toList());
+        assertEquals(Instant.ofEpochMilli(1_700_000_001_000L), pontos.get(0).getInstante());
+    }
+
+    @Test
+    @DisplayName("Consulta por intervalo inclui os limites")
+    void consultarIntervalo() {
+        // Arrange
+        produtoRepository.save(produto);
+        for (int i = 1; i <= 200; i++) {
+            relogio.avancar(10);
+            produto.setPreco(10.00 + i);
+            produtoRepository.update(produto);
+        }
+        Instant inicio = Instant.ofEpochMilli(1_700_000_000_000L);
+        // Act
+        List<PontoPreco> pontos = driver.consultar(1L, inicio.plusMillis(700), inicio.plusMillis(1_500));
+        // Assert
+        assertEquals(81, pontos.size());
+        assertEquals(80.00, pontos.get(0).getPreco());
+        assertEquals(160.00, pontos.get(80).getPreco());
+        assertTrue(driver.consultar(1L, inicio.plusMillis(1_500), inicio.plusMillis(700)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Historico continua depois do delete e de um novo save")
+    void manterDepoisDoDelete() {
+        // Arrange
+        produtoRepository.save(produto);
+        produtoRepository.delete(produto);
+        relogio.avancar(1_000);
+        produto.setPreco(20.00);
+        // Act
+        produtoRepository.save(produto);
+        // Assert
+        assertEquals(List.of(10.00, 20.00), driver.consultar(1L, null, null).stream().map(PontoPreco::getPreco).toList());
+        assertNull(driver.consultar(2L, null, null));
+    }
+
+    @Test
+    @DisplayName("Series voltam do journal de precos com os instantes originais")
+    void recuperarDoJournal(@TempDir Path diretorio) {
+        // Arrange
+        Journal<PrecoRegistrado> journal = new Journal<>(diretorio, new PrecoJournalCodec(), true);
+        journal.recuperar(driver::restaurar, preco -> { });
+        driver = new HistoricoPrecos(relogio, List.of(journal));
+        produtoRepository = new ProdutoVolatilRepository(List.of(driver));
+        produtoRepository.save(produto);
+        for (int i = 1; i <= 100; i++) {
+            relogio.avancar(1_000);
+            produto.setPreco(10.00 + i);
+            produtoRepository.update(produto);
+            if (i == 70) {
+                journal.snapshot(driver::registros);
+            }
+        }
+        journal.aguardarDuravel();
+        journal.close();
+        List<PontoPreco> esperados = driver.consultar(1L, null, null);
+        relogio.avancar(60_000);
+        // Act
+        HistoricoPrecos recuperado = new HistoricoPrecos(relogio);
+        Journal<PrecoRegistrado> reaberto = new Journal<>(diretorio, new PrecoJournalCodec(), true);
+        try {
+            reaberto.recuperar(recuperado::restaurar, preco -> { });
+        } finally {
+            reaberto.close();
+        }
+        // Assert
+        assertEquals(esperados, recuperado.consultar(1L, null, null));
+        assertEquals(101, esperados.size());
+    }
+
+    @Test
+    @DisplayName("Ponto reaplicado que a serie ja tem e ignorado")
+    void restaurarIdempotente() {
+        // Arrange
+        PrecoRegistrado primeiro = new PrecoRegistrado(1L, 0, 1_000L, 1_000L);
+        PrecoRegistrado segundo = new PrecoRegistrado(1L, 1, 2_000L, 1_250L);
+        // Act
+        driver.restaurar(primeiro);
+        driver.restaurar(segundo);
+        driver.restaurar(primeiro);
+        driver.restaurar(segundo);
+        // Assert
+        assertEquals(List.of(10.00, 12.50), driver.consultar(1L, null, null).stream().map(PontoPreco::getPreco).toList());
+        assertEquals(List.of(primeiro, segundo), driver.registros().toList());
+    }
+
+    @Test
+    @DisplayName("Serie guarda deltas, cruza blocos e aceita relogio que volta")
+    void codificarSerie() {
+        // Arrange
+        SeriePrecos serie = new SeriePrecos();
+        long instante = 1_700_000_000_000L;
+        for (int i = 0; i < 1_000; i++) {
+            instante += 60_000;
+            serie.acrescentar(instante, 1_000 + (i % 2 == 0 ? i : -i));
+        }
+        serie.acrescentar(instante - 5_000, 7);
+        // Act
+        List<long[]> todos = new ArrayList<>();
+        serie.consultar(Long.MIN_VALUE, Long.MAX_VALUE, (t, c) -> todos.add(new long[]{t, c}));
+        List<long[]> bloco = new ArrayList<>();
+        long inicio = 1_700_000_000_000L + 60_000L * (SeriePrecos.PONTOS_POR_BLOCO * 3);
+        serie.consultar(inicio, inicio + 60_000, (t, c) -> bloco.add(new long[]{t, c}));
+        // Assert
+        assertEquals(1_001, todos.size());
+        assertEquals(1_000 - 999, todos.get(999)[1]);
+        assertEquals(instante, todos.get(1_000)[0]);
+        assertEquals(7, todos.get(1_000)[1]);
+        assertEquals(2, bloco.size());
+        assertEquals(inicio, bloco.get(0)[0]);
+        assertTrue(serie.bytes() < 6 * serie.pontos(), "bytes por ponto: " + (double) serie.bytes() / serie.pontos());
+    }
+
+    static final class RelogioManual extends Clock {
+
+        private long agora;
+
+        RelogioManual(long agora) {
+            this.agora = agora;
+        }
+
+        void avancar(long millis) {
+            agora += millis;
+        }
+
+        @Override
+        public long millis() {
+            return agora;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(agora);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
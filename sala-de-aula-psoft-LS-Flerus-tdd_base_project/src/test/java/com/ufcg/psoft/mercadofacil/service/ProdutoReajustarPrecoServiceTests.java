@@ -0,0 +1,76 @@
+package com.ufcg.psoft.mercadofacil.service;
+
+import com.ufcg.psoft.mercadofacil.dto.ProdutoAlteracaoResultado;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoRepositoryDecorator;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import com.ufcg.psoft.mercadofacil.validator.CodigoBarraValidator;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do servico de reajuste de preco por fabricante")
+class ProdutoReajustarPrecoServiceTests {
+
+    ProdutoReajustarPrecoPadraoService driver;
+    ProdutoVolatilRepository produtoRepository;
+    AtomicInteger concorrentes;
+
+    @BeforeEach
+    void setUp() {
+        produtoRepository = new ProdutoVolatilRepository();
+        concorrentes = new AtomicInteger();
+        driver = new ProdutoReajustarPrecoPadraoService();
+        // antes de cada compareAndSet, enquanto houver concorrentes, outra requisicao sobe o preco em 1,00
+        driver.produtoRepository = new ProdutoRepositoryDecorator(produtoRepository) {
+            @Override
+            public Produto compareAndSet(Produto produto, long versaoEsperada) {
+                if (concorrentes.getAndDecrement() > 0) {
+                    Produto atual = delegate.find(produto.getId());
+                    atual.setPreco(atual.getPreco() + 1.00);
+                    delegate.update(atual);
+                }
+                return delegate.compareAndSet(produto, versaoEsperada);
+            }
+        };
+        driver.produtoValidator = new ProdutoValidator(new CodigoBarraValidator());
+        produtoRepository.save(Produto.builder()
+                .id(10L)
+                .codigoBarra("7899137500100")
+                .nome("Produto Dez")
+                .fabricante("Empresa Dez")
+                .preco(100.00)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Alteracao concorrente nao se perde: o reajuste e refeito sobre o preco novo")
+    void reajustarSobreAlteracaoConcorrente() {
+        // Arrange
+        concorrentes.set(1);
+        // Act
+        List<ProdutoAlteracaoResultado> resultados = driver.reajustar("Empresa Dez", 10);
+        // Assert
+        assertTrue(resultados.get(0).isSucesso());
+        assertEquals(111.10, produtoRepository.find(10L).getPreco());
+    }
+
+    @Test
+    @DisplayName("Conflitos seguidos viram falha de versao conflitante sem gravar o reajuste")
+    void desistirDepoisDasTentativas() {
+        // Arrange
+        concorrentes.set(ProdutoReajustarPrecoPadraoService.TENTATIVAS);
+        // Act
+        List<ProdutoAlteracaoResultado> resultados = driver.reajustar("Empresa Dez", 10);
+        // Assert
+        assertFalse(resultados.get(0).isSucesso());
+        assertEquals("Produto alterado por outra requisicao!", resultados.get(0).getErro());
+        assertEquals(103.00, produtoRepository.find(10L).getPreco());
+    }
+}
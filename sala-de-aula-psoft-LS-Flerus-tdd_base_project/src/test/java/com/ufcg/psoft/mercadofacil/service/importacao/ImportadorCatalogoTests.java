@@ -0,0 +1,271 @@
+package com.ufcg.psoft.mercadofacil.service.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufcg.psoft.mercadofacil.dto.Importacao;
+import com.ufcg.psoft.mercadofacil.dto.RejeicaoImportacao;
+import com.ufcg.psoft.mercadofacil.exception.ValidacaoException;
+import com.ufcg.psoft.mercadofacil.model.Produto;
+import com.ufcg.psoft.mercadofacil.repository.LoteVolatilRepository;
+import com.ufcg.psoft.mercadofacil.repository.ProdutoVolatilRepository;
+import com.ufcg.psoft.mercadofacil.repository.RepositoryListener;
+import com.ufcg.psoft.mercadofacil.validator.CodigoBarraValidator;
+import com.ufcg.psoft.mercadofacil.validator.LoteValidator;
+import com.ufcg.psoft.mercadofacil.validator.ProdutoValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do importador de catalogo")
+class ImportadorCatalogoTests {
+
+    @TempDir
+    Path diretorio;
+
+    ImportadorCatalogo driver;
+    ProdutoVolatilRepository produtoRepository;
+    LoteVolatilRepository loteRepository;
+    Duration retencao = Duration.ofHours(1);
+
+    @BeforeEach
+    void setUp() {
+        produtoRepository = new ProdutoVolatilRepository();
+        loteRepository = new LoteVolatilRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    @DisplayName("CSV com cabecalho, aspas e rejeicoes numeradas pela linha do arquivo")
+    void importarCsvDeProdutos() throws Exception {
+        // Arrange
+        criar(64, 2);
+        produtoRepository.save(Produto.builder()
+                .id(99L)
+                .nome("Produto Existente")
+                .preco(1.00)
+                .codigoBarra(codigo(99))
+                .fabricante("Empresa Existente")
+                .build());
+        escrever("produtos.csv", "id,nome,preco,codigoBarra,fabricante\n"
+                + "1,\"Arroz, Tipo 1\",10.50," + codigo(1) + ",Empresa A\n"
+                + "2,\"Feijao \"\"Carioca\"\"\",8.00," + codigo(2) + ",Empresa B\n"
+                + "\n"
+                + "3,Produto Sem Preco,0," + codigo(3) + ",Empresa C\n"
+                + "4,Produto Verificador,5.00,7899137500101,Empresa D\n"
+                + "5,Linha Curta,5.00\n"
+                + "6,Produto Duplicado,7.00," + codigo(99) + ",Empresa E\n"
+                + "7,Produto Ultimo,3.25," + codigo(7) + ",Empresa F");
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("produtos.csv", "produto"));
+        // Assert
+        assertEquals("concluida", importacao.getSituacao());
+        assertEquals(7, importacao.getLinhasLidas());
+        assertEquals(3, importacao.getImportadas());
+        assertEquals(4, importacao.getRejeitadas());
+        assertEquals(List.of(5L, 6L, 7L, 8L),
+                importacao.getRejeicoes().stream().map(RejeicaoImportacao::getLinha).toList());
+        assertEquals(List.of("preco_invalido", "verificador_invalido", "formato_invalido", "codigo_barra_duplicado"),
+                importacao.getRejeicoes().stream().map(RejeicaoImportacao::getCodigo).toList());
+        assertEquals("Arroz, Tipo 1", produtoRepository.find(1L).getNome());
+        assertEquals("Feijao \"Carioca\"", produtoRepository.find(2L).getNome());
+        assertEquals(3.25, produtoRepository.find(7L).getPreco());
+        assertEquals("Produto Existente", produtoRepository.find(99L).getNome());
+    }
+
+    @Test
+    @DisplayName("Preco que nao e um decimal simples e finito e linha mal formada")
+    void recusarPrecoNaoDecimal() throws Exception {
+        // Arrange
+        criar(1 << 20, 16);
+        escrever("produtos.csv", "id,nome,preco,codigoBarra,fabricante\n"
+                + "1,Produto NaN,NaN," + codigo(1) + ",Empresa A\n"
+                + "2,Produto Infinito,Infinity," + codigo(2) + ",Empresa A\n"
+                + "3,Produto Hexa,0x1p3," + codigo(3) + ",Empresa A\n"
+                + "4,Produto Sufixo,10d," + codigo(4) + ",Empresa A\n"
+                + "5,Produto Expoente,1e400," + codigo(5) + ",Empresa A\n"
+                + "6,Produto Gigante,1" + "0".repeat(400) + "," + codigo(6) + ",Empresa A\n"
+                + "7,Produto Ponto,.5," + codigo(7) + ",Empresa A\n"
+                + "8,Produto Valido,\"12.50\"," + codigo(8) + ",Empresa A\n");
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("produtos.csv", "produto"));
+        // Assert
+        assertEquals(1, importacao.getImportadas());
+        assertEquals(7, importacao.getRejeitadas());
+        assertTrue(importacao.getRejeicoes().stream().allMatch(rejeicao -> rejeicao.getCodigo().equals("formato_invalido")));
+        assertEquals(12.50, produtoRepository.find(8L).getPreco());
+    }
+
+    @Test
+    @DisplayName("Codigo de barras duplicado no meio do lote nao grava os outros de novo")
+    void duplicadoNoMeioDoLote() throws Exception {
+        // Arrange
+        List<Long> gravados = new ArrayList<>();
+        produtoRepository = new ProdutoVolatilRepository(List.of(new RepositoryListener<>() {
+            @Override
+            public void onSave(Produto novo) {
+                gravados.add(novo.getId());
+            }
+
+            @Override
+            public void onUpdate(Produto antigo, Produto novo) {
+                gravados.add(novo.getId());
+            }
+        }));
+        criar(8 * 1024, 1000);
+        produtoRepository.save(Produto.builder()
+                .id(99L)
+                .nome("Produto Existente")
+                .preco(1.00)
+                .codigoBarra(codigo(99))
+                .fabricante("Empresa Existente")
+                .build());
+        escrever("produtos.csv", "1,Produto Um,1.00," + codigo(1) + ",Empresa A\n"
+                + "2,Produto Duplicado,2.00," + codigo(99) + ",Empresa B\n"
+                + "3,Produto Tres,3.00," + codigo(3) + ",Empresa C\n");
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("produtos.csv", "produto"));
+        // Assert
+        assertEquals(2, importacao.getImportadas());
+        assertEquals(List.of(2L), importacao.getRejeicoes().stream().map(RejeicaoImportacao::getLinha).toList());
+        assertEquals(List.of(99L, 1L, 3L), gravados);
+        long primeiraVersao = produtoRepository.find(99L).getVersao();
+        assertEquals(primeiraVersao, produtoRepository.find(1L).getVersao());
+        assertEquals(primeiraVersao, produtoRepository.find(3L).getVersao());
+    }
+
+    @Test
+    @DisplayName("NDJSON de lotes rejeita produto inexistente, quantidade negativa e JSON invalido")
+    void importarNdjsonDeLotes() throws Exception {
+        // Arrange
+        criar(8 * 1024, 1000);
+        produtoRepository.save(Produto.builder()
+                .id(10L)
+                .nome("Produto Dez")
+                .preco(450.00)
+                .codigoBarra(codigo(10))
+                .fabricante("Empresa Dez")
+                .build());
+        escrever("lotes.ndjson", "{\"id\":1,\"produtoId\":10,\"numeroDeItens\":5}\r\n"
+                + "{\"id\":2,\"produtoId\":77,\"numeroDeItens\":5}\r\n"
+                + "{\"id\":3,\"produtoId\":10,\"numeroDeItens\":-1}\r\n"
+                + "{\"id\":4,\"produtoId\":10,\r\n"
+                + "{\"id\":5,\"numeroDeItens\":1}\r\n");
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("lotes.ndjson", "lote"));
+        // Assert
+        assertEquals("concluida", importacao.getSituacao());
+        assertEquals(5, importacao.getLinhasLidas());
+        assertEquals(1, importacao.getImportadas());
+        assertEquals(List.of("produto_inexistente", "quantidade_invalida", "formato_invalido", "argumentos_incompletos"),
+                importacao.getRejeicoes().stream().map(RejeicaoImportacao::getCodigo).toList());
+        assertEquals(List.of(2L, 3L, 4L, 5L),
+                importacao.getRejeicoes().stream().map(RejeicaoImportacao::getLinha).toList());
+        assertEquals(5, loteRepository.find(1L).getNumeroDeItens());
+        assertEquals(1, loteRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Arquivo grande e dividido em trechos e gravado por inteiro")
+    void importarEmVariosTrechos() throws Exception {
+        // Arrange
+        criar(4 * 1024, 100);
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= 5_000; i++) {
+            csv.append(i).append(",Produto ").append(i).append(',').append(i % 100 + 1).append(".99,")
+                    .append(codigo(i)).append(",Empresa ").append(i % 7).append('\n');
+        }
+        escrever("grande.csv", csv.toString());
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("grande.csv", "produto"));
+        // Assert
+        assertEquals("concluida", importacao.getSituacao());
+        assertEquals(5_000, importacao.getLinhasLidas());
+        assertEquals(5_000, importacao.getImportadas());
+        assertEquals(0, importacao.getRejeitadas());
+        assertTrue(importacao.getRejeicoes().isEmpty());
+        assertEquals(5_000, produtoRepository.findAll().size());
+        assertEquals("Produto 4321", produtoRepository.find(4321L).getNome());
+    }
+
+    @Test
+    @DisplayName("Arquivo fora do diretorio, entidade e formato desconhecidos falham antes de comecar")
+    void recusarPedidosInvalidos() throws Exception {
+        // Arrange
+        criar(64, 10);
+        escrever("produtos.txt", "1,Produto,1.00," + codigo(1) + ",Empresa\n");
+        Files.writeString(diretorio.getParent().resolve("fora.csv"), "");
+        // Act & Assert
+        assertEquals("arquivo_invalido",
+                assertThrows(ValidacaoException.class, () -> driver.iniciar("../fora.csv", "produto")).getCodigo());
+        assertEquals("arquivo_inexistente",
+                assertThrows(ValidacaoException.class, () -> driver.iniciar("nenhum.csv", "produto")).getCodigo());
+        assertEquals("entidade_invalida",
+                assertThrows(ValidacaoException.class, () -> driver.iniciar("produtos.txt", "cliente")).getCodigo());
+        assertEquals("formato_invalido",
+                assertThrows(ValidacaoException.class, () -> driver.iniciar("produtos.txt", "produto")).getCodigo());
+        assertNull(driver.buscar("inexistente"));
+    }
+
+    @Test
+    @DisplayName("Importacao terminada e descartada depois da retencao")
+    void descartarDepoisDaRetencao() throws Exception {
+        // Arrange
+        retencao = Duration.ofMillis(500);
+        criar(8 * 1024, 1000);
+        escrever("produtos.csv", "1,Produto Um,1.00," + codigo(1) + ",Empresa A\n");
+        // Act
+        Importacao importacao = aguardar(driver.iniciar("produtos.csv", "produto"));
+        Thread.sleep(600);
+        // Assert
+        assertEquals("concluida", importacao.getSituacao());
+        assertNull(driver.buscar(importacao.getId()));
+    }
+
+    private void criar(long tamanhoTrecho, int tamanhoLote) {
+        // os modelos so tem o construtor do @Builder; o Jackson le pelos nomes dos parametros, como no Spring
+        driver = new ImportadorCatalogo(produtoRepository, loteRepository,
+                new ProdutoValidator(new CodigoBarraValidator()), new LoteValidator(),
+                new ObjectMapper().findAndRegisterModules(),
+                diretorio.toString(), 4, DataSize.ofBytes(tamanhoTrecho), tamanhoLote, 1000, retencao);
+    }
+
+    private void escrever(String nome, String conteudo) throws IOException {
+        Files.write(diretorio.resolve(nome), conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Importacao aguardar(Importacao inicial) throws InterruptedException {
+        Importacao importacao = inicial;
+        for (int i = 0; i < 500 && "em_andamento".equals(importacao.getSituacao()); i++) {
+            Thread.sleep(10);
+            importacao = driver.buscar(inicial.getId());
+        }
+        return importacao;
+    }
+
+    // EAN-13 valido com o prefixo da empresa e o produto nos quatro digitos seguintes
+    static String codigo(int produto) {
+        String semVerificador = String.format("78991375%04d", produto);
+        int soma = 0;
+        for (int i = 0; i < 12; i++) {
+            int digito = semVerificador.charAt(i) - '0';
+            soma += i % 2 == 0 ? digito : digito * 3;
+        }
+        return semVerificador + (10 - soma % 10) % 10;
+    }
+}
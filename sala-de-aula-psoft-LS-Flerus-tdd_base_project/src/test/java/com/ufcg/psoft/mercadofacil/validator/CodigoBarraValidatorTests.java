@@ -0,0 +1,53 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do validador de codigo de barras")
+class CodigoBarraValidatorTests {
+
+    CodigoBarraValidator driver = new CodigoBarraValidator();
+
+    @Test
+    @DisplayName("Quando o codigo e valido")
+    void codigoValido() {
+        assertEquals(CodigoBarraValidator.Resultado.VALIDO, driver.validar("7899137500100"));
+        assertEquals(CodigoBarraValidator.Resultado.VALIDO, driver.validar("7899137510000"));
+    }
+
+    @Test
+    @DisplayName("Quando o codigo e nulo ou tem tamanho diferente de 13")
+    void codigoTamanhoErrado() {
+        assertEquals(CodigoBarraValidator.Resultado.TAMANHO_INVALIDO, driver.validar(null));
+        assertEquals(CodigoBarraValidator.Resultado.TAMANHO_INVALIDO, driver.validar("123"));
+        assertEquals("Codigo de barras invalido!", driver.validar("123").getMensagem());
+    }
+
+    @Test
+    @DisplayName("Quando o codigo do pais e errado")
+    void codigoPaisErrado() {
+        assertEquals(CodigoBarraValidator.Resultado.PAIS_INVALIDO, driver.validar("7849137500100"));
+    }
+
+    @Test
+    @DisplayName("Quando o codigo da empresa e errado")
+    void codigoEmpresaErrado() {
+        assertEquals(CodigoBarraValidator.Resultado.EMPRESA_INVALIDA, driver.validar("7898137500100"));
+        assertEquals(CodigoBarraValidator.Resultado.EMPRESA_INVALIDA, driver.validar("7899137000100"));
+    }
+
+    @Test
+    @DisplayName("Quando o codigo tem caracteres que nao sao digitos")
+    void codigoComLetras() {
+        assertEquals(CodigoBarraValidator.Resultado.CARACTERE_INVALIDO, driver.validar("78991375001a0"));
+    }
+
+    @Test
+    @DisplayName("Quando o codigo verificador e errado")
+    void codigoVerificadorErrado() {
+        assertEquals(CodigoBarraValidator.Resultado.VERIFICADOR_INVALIDO, driver.validar("7899137500104"));
+        assertFalse(driver.validar("7899137500104").isValido());
+    }
+}
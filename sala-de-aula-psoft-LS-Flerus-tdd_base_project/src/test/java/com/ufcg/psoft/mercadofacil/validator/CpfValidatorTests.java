@@ -0,0 +1,57 @@
+package com.ufcg.psoft.mercadofacil.validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do validador de CPF")
+class CpfValidatorTests {
+
+    CpfValidator driver = new CpfValidator();
+
+    @Test
+    @DisplayName("Quando o CPF e valido")
+    void cpfValido() {
+        assertEquals(CpfValidator.Resultado.VALIDO, driver.validar(52998224725L));
+        assertEquals(CpfValidator.Resultado.VALIDO, driver.validar(11144477735L));
+        // zeros a esquerda somem no long e continuam contando como digitos
+        assertEquals(CpfValidator.Resultado.VALIDO, driver.validar(1234567890L));
+    }
+
+    @Test
+    @DisplayName("Quando o CPF tem mais de 11 digitos ou e negativo")
+    void cpfFormatoErrado() {
+        assertEquals(CpfValidator.Resultado.FORMATO_INVALIDO, driver.validar(100_000_000_000L));
+        assertEquals(CpfValidator.Resultado.FORMATO_INVALIDO, driver.validar(-1));
+        assertEquals("CPF deve ter 11 digitos!", driver.validar(-1).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Quando o CPF tem todos os digitos iguais")
+    void cpfDigitosRepetidos() {
+        assertEquals(CpfValidator.Resultado.DIGITOS_REPETIDOS, driver.validar(0));
+        assertEquals(CpfValidator.Resultado.DIGITOS_REPETIDOS, driver.validar(11111111111L));
+        assertEquals(CpfValidator.Resultado.DIGITOS_REPETIDOS, driver.validar(99999999999L));
+    }
+
+    @Test
+    @DisplayName("Quando algum digito verificador e errado")
+    void cpfVerificadorErrado() {
+        assertEquals(CpfValidator.Resultado.VERIFICADOR_INVALIDO, driver.validar(52998224715L));
+        assertEquals(CpfValidator.Resultado.VERIFICADOR_INVALIDO, driver.validar(52998224724L));
+        assertFalse(driver.validar(52998224724L).isValido());
+    }
+
+    @Test
+    @DisplayName("Conversao aceita pontuacao e recusa outros caracteres e tamanhos")
+    void converterCpf() {
+        assertEquals(52998224725L, CpfValidator.converter("529.982.247-25"));
+        assertEquals(52998224725L, CpfValidator.converter("52998224725"));
+        assertEquals(1234567890L, CpfValidator.converter("012.345.678-90"));
+        assertEquals(-1, CpfValidator.converter("529.982.247-2"));
+        assertEquals(-1, CpfValidator.converter("529.982.247-255"));
+        assertEquals(-1, CpfValidator.converter("529 982 247 25"));
+        assertEquals(-1, CpfValidator.converter(null));
+    }
+}